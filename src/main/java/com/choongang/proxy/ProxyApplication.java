@@ -1,12 +1,33 @@
 package com.choongang.proxy;
 
 import com.choongang.proxy.config.AppV2Config;
+import com.choongang.proxy.config.CoalescingConfig;
+import com.choongang.proxy.config.ExecutorConfig;
+import com.choongang.proxy.config.IdempotencyConfig;
+import com.choongang.proxy.config.IngressConfig;
+import com.choongang.proxy.config.OrderIndexConfig;
+import com.choongang.proxy.config.OverheadConfig;
+import com.choongang.proxy.config.ShadowConfig;
+import com.choongang.proxy.config.TraceAgentConfig;
+import com.choongang.proxy.config.TraceContextConfig;
+import com.choongang.proxy.config.TraceExportConfig;
+import com.choongang.proxy.config.TraceHolderConfig;
+import com.choongang.proxy.config.TracePointcutConfig;
+import com.choongang.proxy.config.WarmupConfig;
 import com.choongang.proxy.config.v1_proxy.InterfaceProxyConfig;
+import com.choongang.proxy.config.v4_postprocessor.BeanPostProcessorConfig;
+import com.choongang.proxy.trace.export.ExportingLogTrace;
+import com.choongang.proxy.trace.export.SpanExporter;
 import com.choongang.proxy.trace.logtrace.LogTrace;
-import com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace;
+import com.choongang.proxy.trace.logtrace.ReactiveLogTrace;
+import com.choongang.proxy.trace.logtrace.TraceHolderProperties;
+import com.choongang.proxy.trace.overhead.OverheadProperties;
+import com.choongang.proxy.trace.overhead.SpanCountingLogTrace;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
@@ -14,7 +35,10 @@ import org.springframework.context.annotation.Import;
 import java.util.Arrays;
 
 //@Import(AppV2Config.class)
-@Import(InterfaceProxyConfig.class)
+@Import({InterfaceProxyConfig.class, ExecutorConfig.class, CoalescingConfig.class, OrderIndexConfig.class,
+        TraceContextConfig.class, TraceExportConfig.class, TraceHolderConfig.class,
+        TracePointcutConfig.class, BeanPostProcessorConfig.class, TraceAgentConfig.class, WarmupConfig.class,
+        IngressConfig.class, ShadowConfig.class, OverheadConfig.class, IdempotencyConfig.class})
 @SpringBootApplication(scanBasePackages = {"com.choongang.proxy.app"})
 public class ProxyApplication {
 
@@ -27,14 +51,31 @@ public class ProxyApplication {
         System.out.println("=== 애플리케이션 컨텍스트 초기화 완료 ===");
     }
 
-    // LogTrace를 ThreadLocalLogTrace로 설정하여 스레드마다 독립적인 로그 추적기를 사용하도록 설정
+    // 스레드마다 독립적인 로그 추적기: ThreadLocalLogTrace(기본) 또는 SpanStackLogTrace (trace.holder.type)
+    // span 내보내기(trace.export.enabled=true)가 켜져 있으면 ExportingLogTrace로 감싼다
+    // 추적 비용 측정(trace.overhead.enabled=true)이 켜져 있으면 요청별 span 수를 세도록 SpanCountingLogTrace로 한 번 더 감싼다
+    // (OverheadCalibrator.activeProbes()도 같은 순서로 감싸서 재고, OrderPathWarmup.createLogTrace()도 같은 순서로 워밍업한다)
     @Bean
-    public LogTrace logTrace() {
-        return new ThreadLocalLogTrace();
+    public LogTrace logTrace(TraceHolderProperties traceHolder, ObjectProvider<SpanExporter> spanExporter,
+                             OverheadProperties overheadProperties) {
+        LogTrace logTrace = traceHolder.createLogTrace();
+        SpanExporter exporter = spanExporter.getIfAvailable();
+        if (exporter != null) {
+            logTrace = new ExportingLogTrace(logTrace, exporter);
+        }
+        return overheadProperties.isEnabled() ? new SpanCountingLogTrace(logTrace) : logTrace;
+    }
+
+    // Mono를 반환하는 v4 단계의 로그 추적기 (TraceId를 Reactor Context에 보관)
+    @Bean
+    public ReactiveLogTrace reactiveLogTrace(ObjectProvider<SpanExporter> spanExporter) {
+        return new ReactiveLogTrace(spanExporter.getIfAvailable());
     }
 
     // 애플리케이션 시작 후 자동 실행됨
+    // 진단용: 모든 빈 이름을 훑으므로 app.diagnostics.print-beans=true 일 때만 등록한다
     @Bean
+    @ConditionalOnProperty(name = "app.diagnostics.print-beans", havingValue = "true")
     public CommandLineRunner printBeans(ApplicationContext ctx) {
         return args -> {
             System.out.println("== 등록된 Bean 목록 ==");
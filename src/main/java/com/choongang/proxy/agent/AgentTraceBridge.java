@@ -0,0 +1,40 @@
+package com.choongang.proxy.agent;
+
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+
+/**
+ * 에이전트가 메서드 바이트코드에 넣은 추적 코드(TraceAdvice)가 호출하는 진입점.
+ * 애플리케이션이 시작되면 logTrace 빈을 install()로 연결하고, 그 전에는 아무것도 하지 않는다.
+ *
+ * 에이전트 jar(시스템 클래스 로더)와 애플리케이션이 같은 클래스를 보도록
+ * 이 클래스와 LogTrace, TraceStatus, TraceId는 에이전트 jar에도 들어간다 (gradle agentJar)
+ */
+public final class AgentTraceBridge {
+
+    private static volatile LogTrace logTrace;
+
+    private AgentTraceBridge() {
+    }
+
+    public static void install(LogTrace logTrace) {
+        AgentTraceBridge.logTrace = logTrace;
+    }
+
+    public static TraceStatus begin(String message) {
+        LogTrace trace = logTrace;
+        return trace == null ? null : trace.begin(message);
+    }
+
+    public static void end(TraceStatus status, Throwable thrown) {
+        LogTrace trace = logTrace;
+        if (trace == null || status == null) {
+            return;
+        }
+        if (thrown == null) {
+            trace.end(status);
+        } else {
+            trace.exception(status, thrown instanceof Exception e ? e : new RuntimeException(thrown));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.choongang.proxy.agent;
+
+import com.choongang.proxy.trace.TraceStatus;
+import net.bytebuddy.asm.Advice;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 대상 메서드의 시작과 끝에 그대로 복사되는 코드 (프록시 객체 없이 메서드 안에서 바로 LogTrace 호출)
+ * 추적 코드에서 발생한 예외는 무시하여 원래 메서드 동작에 영향을 주지 않는다.
+ */
+public final class TraceAdvice {
+
+    private TraceAdvice() {
+    }
+
+    @Advice.OnMethodEnter(suppress = Throwable.class)
+    public static TraceStatus enter(@Message String message) {
+        return AgentTraceBridge.begin(message);
+    }
+
+    @Advice.OnMethodExit(onThrowable = Throwable.class, suppress = Throwable.class)
+    public static void exit(@Advice.Enter TraceStatus status, @Advice.Thrown Throwable thrown) {
+        AgentTraceBridge.end(status, thrown);
+    }
+
+    // 메서드마다 변환할 때 만든 로그 메시지 문자열 상수 ("OrderService.orderItem()")
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.PARAMETER)
+    public @interface Message {
+    }
+}
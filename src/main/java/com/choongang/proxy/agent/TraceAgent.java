@@ -0,0 +1,99 @@
+package com.choongang.proxy.agent;
+
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.agent.builder.ResettableClassFileTransformer;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import net.bytebuddy.matcher.ElementMatcher;
+
+import java.lang.instrument.Instrumentation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static net.bytebuddy.matcher.ElementMatchers.*;
+
+/**
+ * 클래스를 로드할 때 메서드 바이트코드에 로그 추적 코드를 넣는 Java 에이전트 (프록시 없이 추적)
+ *
+ * 사용법: java -javaagent:build/libs/trace-agent.jar[=클래스 패턴,...] -jar app.jar --spring.profiles.active=agent
+ *  - 클래스 패턴: 전체 클래스 이름, '*' 와일드카드 (기본: OrderServiceV3, OrderRepositoryV3, app.v1.*Impl)
+ *  - agent 프로파일은 프록시 추적을 꺼서 같은 메서드가 두 번 기록되지 않게 한다
+ *
+ * 대상 클래스의 public 인스턴스 메서드마다 TraceAdvice를 붙인다.
+ * 로그 메시지는 변환할 때 메서드마다 한 번 만들어 문자열 상수로 넣는다 (OrderServiceV1Impl.orderItem -> "OrderService.orderItem()")
+ */
+public final class TraceAgent {
+
+    static final String DEFAULT_INCLUDES = "com.choongang.proxy.app.v3.OrderServiceV3,"
+            + "com.choongang.proxy.app.v3.OrderRepositoryV3,"
+            + "com.choongang.proxy.app.v1.*Impl";
+
+    private static final Pattern SUFFIX = Pattern.compile("(V\\d+)?(Impl)?$");
+
+    private TraceAgent() {
+    }
+
+    public static void premain(String arguments, Instrumentation instrumentation) {
+        List<String> includes = parse(arguments == null || arguments.isBlank() ? DEFAULT_INCLUDES : arguments);
+        install(instrumentation, includes);
+        System.out.println("[trace-agent] 로그 추적 대상 클래스: " + includes);
+    }
+
+    public static ResettableClassFileTransformer install(Instrumentation instrumentation, List<String> includes) {
+        ElementMatcher.Junction<TypeDescription> types = none();
+        for (String include : includes) {
+            types = types.or(nameMatches(toRegex(include)));
+        }
+        Advice advice = Advice.withCustomMapping()
+                .bind(TraceAdvice.Message.class, new MessageMapping())
+                .to(TraceAdvice.class);
+        ElementMatcher.Junction<MethodDescription> methods = isPublic()
+                .and(not(isStatic())).and(not(isAbstract())).and(not(isConstructor()))
+                .and(not(isSynthetic())).and(not(isToString())).and(not(isEquals())).and(not(isHashCode()));
+
+        return new AgentBuilder.Default()
+                .disableClassFormatChanges() // 이미 로드된 클래스도 다시 변환할 수 있도록 필드/메서드를 추가하지 않는다
+                .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
+                .ignore(nameStartsWith("net.bytebuddy.").or(nameStartsWith("java.")).or(nameContains("$$")))
+                .type(types.and(not(isInterface())))
+                .transform((builder, type, classLoader, module, protectionDomain) -> builder.visit(advice.on(methods)))
+                .installOn(instrumentation);
+    }
+
+    static String message(String simpleClassName, String methodName) {
+        return SUFFIX.matcher(simpleClassName).replaceFirst("") + "." + methodName + "()";
+    }
+
+    private static String toRegex(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        for (String part : pattern.split("\\*", -1)) {
+            if (regex.length() > 0 || pattern.startsWith("*")) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(part));
+        }
+        return regex.toString();
+    }
+
+    private static List<String> parse(String arguments) {
+        List<String> includes = new ArrayList<>();
+        for (String include : arguments.split(",")) {
+            if (!include.isBlank()) {
+                includes.add(include.trim());
+            }
+        }
+        return includes;
+    }
+
+    // @TraceAdvice.Message 파라미터에 메서드별 메시지 문자열 상수를 넣는다
+    private static final class MessageMapping implements Advice.OffsetMapping {
+        @Override
+        public Target resolve(TypeDescription instrumentedType, MethodDescription instrumentedMethod, Assigner assigner,
+                              Advice.ArgumentHandler argumentHandler, Sort sort) {
+            return Target.ForStackManipulation.of(message(instrumentedType.getSimpleName(), instrumentedMethod.getName()));
+        }
+    }
+}
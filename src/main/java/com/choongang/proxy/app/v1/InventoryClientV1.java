@@ -0,0 +1,5 @@
+package com.choongang.proxy.app.v1;
+
+public interface InventoryClientV1 {
+    void reserve(String itemId); // 재고 확보
+}
@@ -0,0 +1,33 @@
+package com.choongang.proxy.app.v1;
+
+/**
+ * 재고 시스템 호출을 대신하는 로컬 구현 (네트워크 호출 시간을 sleep으로 흉내낸다)
+ */
+public class InventoryClientV1Impl implements InventoryClientV1 {
+
+    private final int latencyMs; // 흉내낼 호출 시간
+
+    public InventoryClientV1Impl() {
+        this(100);
+    }
+
+    // latencyMs = 0: 같은 클래스로 호출 시간 없이 실행 (JIT 워밍업)
+    public InventoryClientV1Impl(int latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    @Override
+    public void reserve(String itemId) {
+        sleep(latencyMs);
+    }
+
+    private void sleep(int millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            // 풀 종료(shutdownNow)가 작업을 멈출 수 있도록 인터럽트 상태를 되살리고 호출을 실패시킨다
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재고 시스템 호출 중 인터럽트", e);
+        }
+    }
+}
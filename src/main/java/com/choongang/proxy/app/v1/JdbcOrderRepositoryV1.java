@@ -0,0 +1,233 @@
+package com.choongang.proxy.app.v1;
+
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDBC 주문 저장소. 동시에 들어온 save() 호출을 모아서 여러 행을 한 번의 executeBatch()와 커밋으로 저장한다.
+ *
+ * 요청 스레드는 insert를 대기열에 넣고 결과를 기다리며, writer 스레드가 대기열에 쌓인 insert를
+ * 최대 maxBatchSize 개씩 꺼내 저장한다. 한 건만 있을 때는 바로 저장되므로 부하가 낮을 때 지연이 늘지 않는다.
+ * 대기열이 가득 차면 save()는 자리가 날 때까지 기다리고, close() 뒤의 save()는 기다리지 않고 IllegalStateException을 던진다.
+ *
+ * 배치에는 서로 관계없는 요청의 insert가 섞이므로 한 행 때문에 배치 전체가 실패하지 않게 한다:
+ * 컬럼에 맞지 않는 itemId는 대기열에 넣기 전에 거절하고, 그래도 executeBatch()가 실패하면 롤백한 뒤 한 건씩 다시 저장하여
+ * 실패한 행의 요청만 실패시킨다.
+ */
+@Slf4j
+public class JdbcOrderRepositoryV1 implements OrderRepositoryV1, AutoCloseable {
+
+    private static final String INSERT_SQL = "insert into orders (item_id, quantity, ordered_at) values (?, ?, ?)";
+    static final int MAX_ITEM_ID_LENGTH = 100; // schema.sql의 item_id VARCHAR(100)
+
+    private final DataSource dataSource;
+    private final LogTrace logTrace;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingInsert> queue;
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public JdbcOrderRepositoryV1(DataSource dataSource, LogTrace logTrace, int maxBatchSize, int queueCapacity, int writerThreads) {
+        this.dataSource = dataSource;
+        this.logTrace = logTrace;
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        for (int i = 0; i < writerThreads; i++) {
+            Thread writer = new Thread(this::runWriter, "order-jdbc-writer-" + (i + 1));
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+
+    @Override
+    public void save(String itemId) {
+        saveAll(itemId, 1);
+    }
+
+    @Override
+    public void saveAll(String itemId, int quantity) {
+        if (itemId.equals("ex")) {
+            throw new IllegalStateException("예외 발생!");
+        }
+        if (itemId.isBlank() || itemId.length() > MAX_ITEM_ID_LENGTH) {
+            throw new IllegalArgumentException("itemId는 1~" + MAX_ITEM_ID_LENGTH + "자여야 합니다: " + itemId.length() + "자");
+        }
+        TraceStatus status = null;
+        try {
+            status = logTrace.begin("JdbcOrderRepository.insert()");
+            if (!running) {
+                throw new IllegalStateException("종료된 저장소입니다");
+            }
+            PendingInsert insert = new PendingInsert(itemId, quantity, System.currentTimeMillis(), logTrace.currentTraceId());
+            queue.put(insert); // 대기열이 가득 차면 여기서 기다린다 (DB보다 빠르게 요청이 쌓이지 않도록)
+            if (!running && queue.remove(insert)) {
+                // 넣는 사이에 종료됨: writer가 가져가지 않았으면 남은 writer가 없을 수 있으므로 거절
+                throw new IllegalStateException("종료된 저장소입니다");
+            }
+            await(insert.done);
+            logTrace.end(status);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            IllegalStateException ex = new IllegalStateException("주문 저장 대기 중 인터럽트", e);
+            logTrace.exception(status, ex);
+            throw ex;
+        } catch (RuntimeException e) {
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
+
+    private void await(CompletableFuture<Void> done) {
+        try {
+            done.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("주문 저장 실패", e.getCause());
+        }
+    }
+
+    private void runWriter() {
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1); // 기다리는 동안 쌓인 insert를 한 번에 가져온다
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingInsert> batch) {
+        // 배치의 첫 번째 요청 로그 아래에 executeBatch 로그를 남긴다
+        TraceId previous = logTrace.currentTraceId();
+        logTrace.attach(batch.get(0).traceId);
+        TraceStatus status = null;
+        try {
+            status = logTrace.begin("JdbcOrderRepository.executeBatch()");
+            SQLException failure = null;
+            try {
+                executeBatch(batch);
+                for (PendingInsert insert : batch) {
+                    insert.done.complete(null);
+                }
+            } catch (BatchUpdateException e) {
+                log.warn("배치 저장 실패, {}건을 한 건씩 다시 저장: {}", batch.size(), e.getMessage());
+                failure = insertEach(batch);
+            }
+            if (failure == null) {
+                logTrace.end(status);
+            } else {
+                logTrace.exception(status, failure);
+            }
+        } catch (Exception e) {
+            logTrace.exception(status, e);
+            IllegalStateException failure = new IllegalStateException("주문 저장 실패: " + e.getMessage(), e);
+            for (PendingInsert insert : batch) {
+                insert.done.completeExceptionally(failure);
+            }
+        } finally {
+            logTrace.attach(previous);
+        }
+    }
+
+    private void executeBatch(List<PendingInsert> batch) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            // 같은 SQL은 드라이버의 statement 캐시(H2: QUERY_CACHE_SIZE)에서 재사용된다
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                for (PendingInsert insert : batch) {
+                    statement.setString(1, insert.itemId);
+                    statement.setInt(2, insert.quantity);
+                    statement.setTimestamp(3, new Timestamp(insert.orderedAtMs));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit(); // 배치 전체를 한 번의 커밋으로 저장
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true); // 풀에 반납하기 전에 원래 상태로
+            }
+        }
+    }
+
+    // 롤백된 배치를 자동 커밋으로 한 건씩 저장하고 행마다 결과를 알린다. 실패한 행이 있으면 첫 번째 실패를 반환
+    private SQLException insertEach(List<PendingInsert> batch) throws SQLException {
+        SQLException firstFailure = null;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (PendingInsert insert : batch) {
+                try {
+                    statement.setString(1, insert.itemId);
+                    statement.setInt(2, insert.quantity);
+                    statement.setTimestamp(3, new Timestamp(insert.orderedAtMs));
+                    statement.executeUpdate();
+                    insert.done.complete(null);
+                } catch (SQLException e) {
+                    insert.done.completeExceptionally(new IllegalStateException("주문 저장 실패: " + e.getMessage(), e));
+                    if (firstFailure == null) {
+                        firstFailure = e;
+                    }
+                }
+            }
+        }
+        return firstFailure;
+    }
+
+    // 저장을 기다리는 insert 수 (writer가 아직 꺼내지 않은 것)
+    public int queuedInserts() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false; // writer는 대기열에 남은 insert를 모두 저장한 뒤 종료
+        for (Thread writer : writers) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private static final class PendingInsert {
+        private final String itemId;
+        private final int quantity;
+        private final long orderedAtMs;
+        private final TraceId traceId; // insert를 요청한 스레드의 TraceId
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private PendingInsert(String itemId, int quantity, long orderedAtMs, TraceId traceId) {
+            this.itemId = itemId;
+            this.quantity = quantity;
+            this.orderedAtMs = orderedAtMs;
+            this.traceId = traceId;
+        }
+    }
+}
@@ -2,7 +2,12 @@ package com.choongang.proxy.app.v1;
 
 import org.springframework.web.bind.annotation.GetMapping;
 
+import java.util.List;
+
 public interface OrderControllerV1 {
     @GetMapping("/v1/request")
     String request(String itemId);
+
+    @GetMapping("/v1/request/batch")
+    List<OrderResult> requestBatch(List<String> itemIds);
 }
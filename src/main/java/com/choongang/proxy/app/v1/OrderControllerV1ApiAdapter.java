@@ -1,27 +1,84 @@
 package com.choongang.proxy.app.v1;
 
+import com.choongang.proxy.idempotency.IdempotencyStore;
+import com.choongang.proxy.shadow.ShadowTrafficMirror;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
 
 // 별도의 REST 컨트롤러를 만들어 프록시 객체를 주입받아 사용
 @RestController
 public class OrderControllerV1ApiAdapter {
 
+    public static final String REQUEST = "/v1/request";
+    public static final int MAX_BATCH_ITEMS = 100; // 배치 하나가 주문 스레드 풀을 모두 차지하지 않도록 요청당 상품 수를 제한
+
     // Spring이 OrderControllerV1 타입의 빈을 찾아서 주입
     // InterfaceProxyConfig에서 생성한 OrderControllerInterfaceProxy 인스턴스가 주입됨 (이걸 사용한 이유: 프록시 객체에 추가적인 로그 기능을 넣기 위해)
     private final OrderControllerV1 orderController;
+    private final ShadowTrafficMirror shadowMirror; // 요청 일부를 섀도 스택으로 복사 (null이면 복사하지 않음)
+    private final IdempotencyStore<String> idempotencyStore; // 같은 Idempotency-Key의 재시도는 첫 결과로 응답 (null이면 항상 실행)
 
-    // 생성자 주입
     public OrderControllerV1ApiAdapter(OrderControllerV1 orderController) {
+        this(orderController, null, null);
+    }
+
+    // 생성자 주입
+    @Autowired
+    public OrderControllerV1ApiAdapter(OrderControllerV1 orderController, ShadowTrafficMirror shadowMirror,
+                                       IdempotencyStore<String> idempotencyStore) {
         this.orderController = orderController; // 실제로는 프록시 객체가 주입됨
+        this.shadowMirror = shadowMirror;
+        this.idempotencyStore = idempotencyStore;
+    }
+
+    // 예: curl -H "Idempotency-Key: 7f3a..." /v1/request?itemId=item1 (타임아웃 뒤 같은 키로 재시도하면 주문을 다시 저장하지 않음)
+    @GetMapping(REQUEST)
+    public String request(@RequestParam("itemId") String itemId,
+                          @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        if (idempotencyStore == null || idempotencyKey == null) {
+            return order(itemId);
+        }
+        // 중복된 요청은 주문 경로(프록시, 섀도 복사)를 거치지 않는다
+        try {
+            return idempotencyStore.execute(IdempotencyStore.scopedKey(idempotencyKey, itemId), () -> order(itemId));
+        } catch (IdempotencyStore.InFlightTimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage()); // 첫 요청이 끝난 뒤 다시 재시도
+        }
+    }
+
+    private String order(String itemId) {
+        if (shadowMirror == null || !shadowMirror.sample(REQUEST)) {
+            // 여기서 실제 메서드 호출이 발생
+            return orderController.request(itemId); // 프록시의 request() 메서드 호출
+            //     ↑ 이 부분이 시퀀스 다이어그램의 화살표에 해당
+        }
+        // 복사할 요청: 원래 요청의 지연 시간과 오류 여부를 함께 넘긴다 (섀도 실행은 기다리지 않음)
+        long start = System.nanoTime();
+        try {
+            String result = orderController.request(itemId);
+            shadowMirror.mirror(REQUEST, itemId, System.nanoTime() - start, false);
+            return result;
+        } catch (RuntimeException e) {
+            shadowMirror.mirror(REQUEST, itemId, System.nanoTime() - start, true);
+            throw e;
+        }
     }
 
-    @GetMapping("/v1/request")
-    public String request(@RequestParam("itemId") String itemId) {
-        // 여기서 실제 메서드 호출이 발생
-        return orderController.request(itemId); // 프록시의 request() 메서드 호출
-        //     ↑ 이 부분이 시퀀스 다이어그램의 화살표에 해당
+    // 예: /v1/request/batch?itemIds=item1,item2,ex
+    @GetMapping("/v1/request/batch")
+    public List<OrderResult> requestBatch(@RequestParam("itemIds") List<String> itemIds) {
+        if (itemIds.size() > MAX_BATCH_ITEMS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "itemIds는 최대 " + MAX_BATCH_ITEMS + "개까지 요청할 수 있습니다: " + itemIds.size());
+        }
+        return orderController.requestBatch(itemIds); // 상품별 결과와 오류를 한 번에 반환
     }
 }
 
@@ -4,11 +4,16 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 //@RestController
 @RequiredArgsConstructor
 public class OrderControllerV1Impl implements OrderControllerV1 {
 
     private final OrderServiceV1 orderService;
+    private final Executor executor; // 배치 주문을 동시에 처리할 Executor (TraceId를 작업 스레드로 전달)
 
     /**
      * 주문 요청
@@ -21,4 +26,29 @@ public class OrderControllerV1Impl implements OrderControllerV1 {
         orderService.orderItem(itemId);
         return "ok";
     }
+
+    /**
+     * 여러 상품 주문 요청. 상품별 주문을 동시에 실행하므로 전체 시간은 가장 느린 주문 하나의 시간에 가까워진다.
+     * @param itemIds 상품 아이디 목록
+     * @return 상품별 결과 (요청 순서 유지)
+     */
+    @GetMapping("/v1/request/batch")
+    @Override
+    public List<OrderResult> requestBatch(List<String> itemIds) {
+        List<CompletableFuture<OrderResult>> futures = itemIds.stream()
+                .map(itemId -> CompletableFuture.supplyAsync(() -> order(itemId), executor))
+                .toList();
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    private OrderResult order(String itemId) {
+        try {
+            orderService.orderItem(itemId);
+            return OrderResult.ok(itemId);
+        } catch (Exception e) {
+            return OrderResult.fail(itemId, e); // 한 상품의 실패가 다른 상품 처리에 영향을 주지 않도록 결과로 기록
+        }
+    }
 }
@@ -0,0 +1,33 @@
+package com.choongang.proxy.app.v1;
+
+import com.choongang.proxy.index.OrderIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// 저장된 주문 조회. 저장과 동시에 호출되어도 잠금 없이 OrderIndex를 읽는다
+@RestController
+@RequiredArgsConstructor
+public class OrderQueryControllerV1 {
+
+    private final OrderIndex orderIndex;
+
+    // 상품의 주문 수와 최근 주문
+    @GetMapping("/v1/orders/{itemId}")
+    public ItemOrders orders(@PathVariable("itemId") String itemId) {
+        return new ItemOrders(itemId, orderIndex.count(itemId), orderIndex.recent(itemId));
+    }
+
+    // 주문이 많은 상품 순위. 예: /v1/orders?top=10
+    @GetMapping("/v1/orders")
+    public List<OrderIndex.ItemCount> top(@RequestParam(value = "top", defaultValue = "10") int top) {
+        return orderIndex.top(Math.min(Math.max(top, 1), 1000));
+    }
+
+    public record ItemOrders(String itemId, long count, List<OrderIndex.RecentOrder> recent) {
+    }
+}
@@ -2,4 +2,7 @@ package com.choongang.proxy.app.v1;
 
 public interface OrderRepositoryV1 {
     void save(String itemId);
+
+    // 같은 상품의 주문 quantity건을 한 번의 저장으로 처리
+    void saveAll(String itemId, int quantity);
 }
@@ -1,27 +1,47 @@
 package com.choongang.proxy.app.v1;
 
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 
 @Repository
-@RequiredArgsConstructor
 public class OrderRepositoryV1Impl implements OrderRepositoryV1 {
 
+    private final int latencyMs; // 흉내낼 저장 시간
+
+    public OrderRepositoryV1Impl() {
+        this(1000);
+    }
+
+    // latencyMs = 0: 같은 클래스로 저장 시간 없이 실행 (JIT 워밍업)
+    public OrderRepositoryV1Impl(int latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
     @Override
     public void save(String itemId) {
         // 저장 로직
         if (itemId.equals("ex")) {
             throw new IllegalStateException("예외 발생!");
         }
-        sleep(1000);
+        sleep(latencyMs);
+    }
+
+    @Override
+    public void saveAll(String itemId, int quantity) {
+        // 저장 로직 (여러 건을 한 번에 저장해도 저장소 호출 비용은 한 번)
+        if (itemId.equals("ex")) {
+            throw new IllegalStateException("예외 발생!");
+        }
+        sleep(latencyMs);
     }
 
     private void sleep(int millis) {
         try {
             Thread.sleep(millis);
         } catch (InterruptedException e) {
-            e.printStackTrace();
+            // 풀 종료(shutdownNow)가 작업을 멈출 수 있도록 인터럽트 상태를 되살리고 호출을 실패시킨다
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("주문 저장 중 인터럽트", e);
         }
     }
 
@@ -0,0 +1,28 @@
+package com.choongang.proxy.app.v1;
+
+import lombok.Getter;
+
+/**
+ * 배치 주문에서 상품 하나의 처리 결과
+ */
+@Getter
+public class OrderResult {
+
+    private final String itemId;
+    private final boolean success;
+    private final String error; // 실패한 경우 예외 메시지
+
+    private OrderResult(String itemId, boolean success, String error) {
+        this.itemId = itemId;
+        this.success = success;
+        this.error = error;
+    }
+
+    public static OrderResult ok(String itemId) {
+        return new OrderResult(itemId, true, null);
+    }
+
+    public static OrderResult fail(String itemId, Exception e) {
+        return new OrderResult(itemId, false, e.toString());
+    }
+}
@@ -1,17 +1,41 @@
 package com.choongang.proxy.app.v1;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.stereotype.Service;
 
-@Service
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+//@Service  // InterfaceProxyConfig에서 프록시와 함께 직접 생성한다
 @RequiredArgsConstructor
 public class OrderServiceV1Impl implements OrderServiceV1 {
 
     private final OrderRepositoryV1 orderRepository;
+    private final InventoryClientV1 inventoryClient;
+    private final PaymentClientV1 paymentClient;
+    private final Executor executor; // 외부 시스템 호출을 동시에 실행할 Executor (TraceId를 작업 스레드로 전달)
 
     @Override
     public void orderItem(String itemId) {
+        // 재고 확보와 결제 승인은 서로 독립적이므로 동시에 호출한다
+        CompletableFuture<Void> inventory = CompletableFuture.runAsync(() -> inventoryClient.reserve(itemId), executor);
+        CompletableFuture<Void> payment = CompletableFuture.runAsync(() -> paymentClient.authorize(itemId), executor);
+        awaitAll(inventory, payment);
+
+        // 두 호출이 모두 성공한 경우에만 주문을 저장
         orderRepository.save(itemId);
     }
 
+    private void awaitAll(CompletableFuture<?>... futures) {
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            // 작업 스레드에서 발생한 예외를 원래 예외 그대로 호출자에게 전달
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
 }
@@ -0,0 +1,5 @@
+package com.choongang.proxy.app.v1;
+
+public interface PaymentClientV1 {
+    void authorize(String itemId); // 결제 승인
+}
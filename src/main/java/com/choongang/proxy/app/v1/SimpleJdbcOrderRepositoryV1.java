@@ -0,0 +1,58 @@
+package com.choongang.proxy.app.v1;
+
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import lombok.RequiredArgsConstructor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * 호출마다 insert 한 건을 자동 커밋으로 실행하는 JDBC 주문 저장소 (JdbcOrderRepositoryV1 비교용)
+ */
+@RequiredArgsConstructor
+public class SimpleJdbcOrderRepositoryV1 implements OrderRepositoryV1 {
+
+    private static final String INSERT_SQL = "insert into orders (item_id, quantity, ordered_at) values (?, ?, ?)";
+
+    private final DataSource dataSource;
+    private final LogTrace logTrace;
+
+    @Override
+    public void save(String itemId) {
+        saveAll(itemId, 1);
+    }
+
+    @Override
+    public void saveAll(String itemId, int quantity) {
+        if (itemId.equals("ex")) {
+            throw new IllegalStateException("예외 발생!");
+        }
+        TraceStatus status = null;
+        try {
+            status = logTrace.begin("SimpleJdbcOrderRepository.insert()");
+            insert(itemId, quantity);
+            logTrace.end(status);
+        } catch (SQLException e) {
+            IllegalStateException ex = new IllegalStateException("주문 저장 실패: " + e.getMessage(), e);
+            logTrace.exception(status, ex);
+            throw ex;
+        } catch (RuntimeException e) {
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
+
+    private void insert(String itemId, int quantity) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            statement.setString(1, itemId);
+            statement.setInt(2, quantity);
+            statement.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+            statement.executeUpdate();
+        }
+    }
+}
@@ -13,6 +13,14 @@ public class OrderRepositoryV3 {
         sleep(1000);
     }
 
+    public void saveAll(String itemId, int quantity) {
+        // 저장 로직 (여러 건을 한 번에 저장해도 저장소 호출 비용은 한 번)
+        if (itemId.equals("ex")) {
+            throw new IllegalStateException("예외 발생!");
+        }
+        sleep(1000);
+    }
+
     private void sleep(int millis) {
         try {
             Thread.sleep(millis);
@@ -0,0 +1,24 @@
+package com.choongang.proxy.app.v4;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * 리액티브 주문 컨트롤러: 저장을 기다리는 동안 요청 스레드를 붙잡지 않는다
+ * (reactive 프로필에서는 WebFlux/Netty 이벤트 루프, 기본 서블릿 모드에서는 MVC 비동기 요청으로 처리됨)
+ */
+@RestController
+public class OrderControllerV4 {
+
+    private final OrderServiceV4 orderService;
+
+    public OrderControllerV4(OrderServiceV4 orderService) {
+        this.orderService = orderService;
+    }
+
+    @GetMapping("/v4/request")
+    public Mono<String> request(String itemId) {
+        return orderService.orderItem(itemId).thenReturn("ok");
+    }
+}
@@ -0,0 +1,20 @@
+package com.choongang.proxy.app.v4;
+
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@Repository
+public class OrderRepositoryV4 {
+
+    // 저장 로직: 1초 걸리는 저장을 스레드를 재우지 않고 타이머(Mono.delay)로 흉내낸다
+    public Mono<Void> save(String itemId) {
+        return Mono.defer(() -> {
+            if (itemId.equals("ex")) {
+                return Mono.error(new IllegalStateException("예외 발생!"));
+            }
+            return Mono.delay(Duration.ofMillis(1000)).then();
+        });
+    }
+}
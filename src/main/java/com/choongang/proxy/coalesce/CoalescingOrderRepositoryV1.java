@@ -0,0 +1,36 @@
+package com.choongang.proxy.coalesce;
+
+import com.choongang.proxy.app.v1.OrderRepositoryV1;
+
+/**
+ * OrderRepositoryV1 앞에서 같은 상품의 주문을 모아 saveAll()로 한 번에 저장한다.
+ * save()는 자기 주문이 저장될 때까지 기다렸다가 반환하므로 호출하는 쪽에서는 기존 저장소와 같다.
+ */
+public class CoalescingOrderRepositoryV1 implements OrderRepositoryV1, AutoCloseable {
+
+    private final OrderRepositoryV1 target;
+    private final WriteCoalescer coalescer;
+
+    public CoalescingOrderRepositoryV1(OrderRepositoryV1 target, CoalescingProperties properties) {
+        this.target = target;
+        this.coalescer = properties.createCoalescer(target::saveAll);
+    }
+
+    @Override
+    public void save(String itemId) {
+        coalescer.add(itemId, 1);
+    }
+
+    @Override
+    public void saveAll(String itemId, int quantity) {
+        coalescer.add(itemId, quantity);
+    }
+
+    @Override
+    public void close() throws Exception {
+        coalescer.close(); // 남은 주문을 먼저 저장한 뒤
+        if (target instanceof AutoCloseable closeable) {
+            closeable.close(); // 실제 저장소를 닫는다
+        }
+    }
+}
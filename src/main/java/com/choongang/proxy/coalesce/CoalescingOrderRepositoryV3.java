@@ -0,0 +1,30 @@
+package com.choongang.proxy.coalesce;
+
+import com.choongang.proxy.app.v3.OrderRepositoryV3;
+
+/**
+ * 인터페이스가 없는 OrderRepositoryV3를 상속하여, 같은 상품의 주문을 모아 saveAll()로 한 번에 저장한다.
+ */
+public class CoalescingOrderRepositoryV3 extends OrderRepositoryV3 implements AutoCloseable {
+
+    private final WriteCoalescer coalescer;
+
+    public CoalescingOrderRepositoryV3(CoalescingProperties properties) {
+        this.coalescer = properties.createCoalescer(super::saveAll); // 실제 저장은 부모 클래스의 saveAll()
+    }
+
+    @Override
+    public void save(String itemId) {
+        coalescer.add(itemId, 1);
+    }
+
+    @Override
+    public void saveAll(String itemId, int quantity) {
+        coalescer.add(itemId, quantity);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        coalescer.close();
+    }
+}
@@ -0,0 +1,26 @@
+package com.choongang.proxy.coalesce;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 주문 쓰기 병합 설정 (order.coalescing.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = false;
+    private int stripes = 16; // 카운터 스트라이프 수 (2의 거듭제곱)
+    private int maxPendingOrders = 1000; // 이만큼 쌓이면 즉시 저장
+    private long flushIntervalMs = 50; // 쌓인 주문이 적어도 이 간격마다 저장
+    private int writerThreads = 8; // 상품별 저장을 동시에 실행할 스레드 수
+    private int maxItems = 100_000; // 병합할 상품 수 (상품 아이디는 요청에서 오므로 제한, 넘으면 병합 없이 바로 저장)
+    private long writeTimeoutMs = 10_000; // 요청 스레드가 자기 주문의 저장을 기다리는 최대 시간 (넘으면 실패)
+
+    public WriteCoalescer createCoalescer(WriteCoalescer.BatchWriter writer) {
+        return new WriteCoalescer(writer, stripes, maxPendingOrders, flushIntervalMs, writerThreads, maxItems, writeTimeoutMs);
+    }
+}
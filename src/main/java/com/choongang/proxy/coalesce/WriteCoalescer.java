@@ -0,0 +1,250 @@
+package com.choongang.proxy.coalesce;
+
+import com.choongang.proxy.support.ItemIdInterner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 같은 상품에 대한 주문을 모아서(coalescing) 상품별로 한 번만 저장소에 쓴다.
+ *
+ * 주문은 상품 번호로 나뉜 스트라이프(stripe)에 기본형(int) 카운터로 쌓이고,
+ * 쌓인 주문 수가 maxPendingOrders 에 도달하거나 flushIntervalMs 가 지나면 한꺼번에 저장된다.
+ * add()를 호출한 스레드는 자기 주문이 포함된 저장이 끝날 때까지 writeTimeoutMs 동안만 기다린다
+ * (저장소가 멈춰도 요청 스레드가 모두 붙잡히지 않도록. 시간이 지나 실패한 주문도 다른 주문과 묶여 있으므로 나중에 저장될 수 있다).
+ * 병합하는 상품 수는 maxItems로 제한하고, 그 밖의 상품 주문은 병합하지 않고 호출한 스레드에서 바로 저장한다.
+ */
+@Slf4j
+public class WriteCoalescer implements AutoCloseable {
+
+    // 상품 하나의 누적 주문을 저장소에 쓰는 함수
+    @FunctionalInterface
+    public interface BatchWriter {
+        void write(String itemId, int quantity);
+    }
+
+    private final BatchWriter writer;
+    private final ItemIdInterner interner;
+    private final Stripe[] stripes;
+    private final int maxPendingOrders;
+    private final long writeTimeoutMs;
+    private final AtomicInteger pendingOrders = new AtomicInteger(); // 아직 저장되지 않은 주문 수
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService flusher; // 저장 시점을 결정하는 단일 스레드
+    private final ExecutorService writerExecutor; // 상품별 저장을 동시에 실행
+
+    private final LongAdder coalescedOrders = new LongAdder();
+    private final LongAdder backendWrites = new LongAdder();
+    private final LongAdder uncoalescedOrders = new LongAdder(); // maxItems를 넘는 상품이라 바로 저장한 주문
+    private final LongAdder writeTimeouts = new LongAdder(); // 저장을 기다리다 writeTimeoutMs가 지나 실패한 add()
+    private volatile boolean closed;
+
+    public WriteCoalescer(BatchWriter writer, int stripeCount, int maxPendingOrders, long flushIntervalMs, int writerThreads,
+                          int maxItems, long writeTimeoutMs) {
+        if (Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("stripeCount는 2의 거듭제곱이어야 합니다: " + stripeCount);
+        }
+        if (writeTimeoutMs <= 0) {
+            throw new IllegalArgumentException("writeTimeoutMs는 1 이상이어야 합니다: " + writeTimeoutMs);
+        }
+        this.writeTimeoutMs = writeTimeoutMs;
+        this.writer = writer;
+        this.interner = new ItemIdInterner(maxItems);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.maxPendingOrders = maxPendingOrders;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("order-coalesce-flush-"));
+        this.writerExecutor = Executors.newFixedThreadPool(writerThreads, new CustomizableThreadFactory("order-coalesce-write-"));
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 주문을 추가하고, 이 주문이 포함된 저장이 끝날 때까지 기다린다.
+     * 저장이 실패하면 저장소에서 발생한 예외를 그대로 던진다. 종료(close)된 뒤에는 기다리지 않고 IllegalStateException을 던진다.
+     * writeTimeoutMs 안에 저장이 끝나지 않으면 IllegalStateException을 던진다.
+     */
+    public void add(String itemId, int quantity) {
+        if (closed) {
+            throw new IllegalStateException("종료된 WriteCoalescer에는 주문을 추가할 수 없습니다");
+        }
+        int id = interner.intern(itemId);
+        if (id < 0) {
+            uncoalescedOrders.add(quantity);
+            backendWrites.increment();
+            writer.write(itemId, quantity);
+            return;
+        }
+        CompletableFuture<Void> written = stripes[id & (stripes.length - 1)].add(id, quantity);
+        if (closed) {
+            // close()의 마지막 flush 뒤에 들어온 주문: 직접 비운다 (쓰기 스레드가 종료되었으면 거절 예외로 완료됨)
+            flush();
+        }
+        if (pendingOrders.addAndGet(quantity) >= maxPendingOrders && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+        try {
+            written.get(writeTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("주문 병합 저장 실패", e.getCause());
+        } catch (TimeoutException e) {
+            writeTimeouts.increment();
+            throw new IllegalStateException("주문 저장이 " + writeTimeoutMs + "ms 안에 끝나지 않았습니다: " + itemId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("주문 저장 대기 중 인터럽트", e);
+        }
+    }
+
+    // 지금까지 쌓인 주문을 상품별로 한 번씩 저장한다 (flusher 스레드, 종료 중에는 close()/add() 호출 스레드)
+    private void flush() {
+        try {
+            List<PendingWrite> batch = new ArrayList<>();
+            for (Stripe stripe : stripes) {
+                stripe.drainTo(batch);
+            }
+            for (PendingWrite pending : batch) {
+                pendingOrders.addAndGet(-pending.quantity);
+                coalescedOrders.add(pending.quantity);
+                try {
+                    writerExecutor.execute(() -> write(pending));
+                } catch (RejectedExecutionException e) {
+                    pending.written.completeExceptionally(e); // 종료 중이면 기다리는 호출자에게 실패를 알림
+                }
+            }
+        } catch (Exception e) {
+            log.error("주문 병합 저장 실패", e); // 예약된 flush가 멈추지 않도록 예외를 삼킨다
+        }
+    }
+
+    private void write(PendingWrite pending) {
+        try {
+            backendWrites.increment();
+            writer.write(interner.name(pending.id), pending.quantity);
+            pending.written.complete(null);
+        } catch (Exception e) {
+            pending.written.completeExceptionally(e);
+        }
+    }
+
+    public long getCoalescedOrders() {
+        return coalescedOrders.sum();
+    }
+
+    public long getBackendWrites() {
+        return backendWrites.sum();
+    }
+
+    public long getUncoalescedOrders() {
+        return uncoalescedOrders.sum();
+    }
+
+    public long getWriteTimeouts() {
+        return writeTimeouts.sum();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush(); // 남은 주문을 마지막으로 저장
+        writerExecutor.shutdown();
+        writerExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        log.info("주문 병합 종료: orders={} backendWrites={}", getCoalescedOrders(), getBackendWrites());
+    }
+
+    private record PendingWrite(int id, int quantity, CompletableFuture<Void> written) {
+    }
+
+    /**
+     * 상품 번호 -> (누적 주문 수, 완료 신호) 를 담는 개방 주소법(open addressing) 해시 테이블
+     * 스트라이프마다 잠금이 따로 있으므로 서로 다른 스트라이프의 상품은 경합하지 않는다.
+     */
+    private static final class Stripe {
+
+        private int[] keys = new int[16]; // 상품 번호 + 1 (0은 빈 칸)
+        private int[] counts = new int[16];
+        @SuppressWarnings("unchecked")
+        private CompletableFuture<Void>[] waiters = new CompletableFuture[16];
+        private int size;
+
+        synchronized CompletableFuture<Void> add(int id, int quantity) {
+            int slot = find(keys, id);
+            if (keys[slot] == 0) {
+                keys[slot] = id + 1;
+                waiters[slot] = new CompletableFuture<>(); // 같은 저장 주기에 들어온 같은 상품 주문은 신호를 공유
+                if (++size * 4 > keys.length * 3) {
+                    resize();
+                    slot = find(keys, id);
+                }
+            }
+            counts[slot] += quantity;
+            return waiters[slot];
+        }
+
+        synchronized void drainTo(List<PendingWrite> out) {
+            if (size == 0) {
+                return;
+            }
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    out.add(new PendingWrite(keys[i] - 1, counts[i], waiters[i]));
+                }
+            }
+            Arrays.fill(keys, 0);
+            Arrays.fill(counts, 0);
+            Arrays.fill(waiters, null);
+            size = 0;
+        }
+
+        private static int find(int[] keys, int id) {
+            int mask = keys.length - 1;
+            int hash = id * 0x9E3779B9; // 연속된 번호가 한쪽에 몰리지 않도록 섞는다
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (keys[slot] != 0 && keys[slot] != id + 1) {
+                slot = (slot + 1) & mask; // 선형 탐사
+            }
+            return slot;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void resize() {
+            int[] oldKeys = keys;
+            int[] oldCounts = counts;
+            CompletableFuture<Void>[] oldWaiters = waiters;
+            keys = new int[oldKeys.length * 2];
+            counts = new int[oldKeys.length * 2];
+            waiters = new CompletableFuture[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = find(keys, oldKeys[i] - 1);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                    waiters[slot] = oldWaiters[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.choongang.proxy.config;
+
+import com.choongang.proxy.app.v3.OrderRepositoryV3;
+import com.choongang.proxy.coalesce.CoalescingOrderRepositoryV3;
+import com.choongang.proxy.coalesce.CoalescingProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+@EnableConfigurationProperties(CoalescingProperties.class)
+public class CoalescingConfig {
+
+    // OrderServiceV3는 OrderRepositoryV3 타입으로 주입받으므로, @Primary인 병합 저장소가 대신 주입된다
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "order.coalescing", name = "enabled", havingValue = "true")
+    public OrderRepositoryV3 coalescingOrderRepositoryV3(CoalescingProperties properties) {
+        return new CoalescingOrderRepositoryV3(properties);
+    }
+}
@@ -0,0 +1,65 @@
+package com.choongang.proxy.config;
+
+import com.choongang.proxy.trace.executor.ExecutorMetrics;
+import com.choongang.proxy.trace.executor.ExecutorMetricsController;
+import com.choongang.proxy.trace.logtrace.TraceHolderProperties;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ExecutorConfig {
+
+    // 배치 주문을 상품별로 나눠 동시에 처리하는 스레드 풀
+    // 스레드 수와 대기열 크기를 제한하고, 대기열이 가득 차면 요청 스레드가 직접 실행한다 (CallerRunsPolicy)
+    // defaultCandidate = false: 타입으로 주입되지 않도록 하여 Spring Boot 기본 applicationTaskExecutor 설정을 유지
+    // 스레드는 추적 상태 보관 방식에 맞춰 만든다 (trace.holder.type=span-stack 이면 SpanStackThread)
+    @Bean(defaultCandidate = false, destroyMethod = "shutdown")
+    public ThreadPoolExecutor orderBatchExecutor(@Value("${order.batch.threads:16}") int threads,
+                                                 @Value("${order.batch.queue-capacity:1024}") int queueCapacity,
+                                                 TraceHolderProperties traceHolder) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                traceHolder.createThreadFactory("order-batch-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // 주문 처리 중 재고/결제 같은 외부 시스템을 동시에 호출하는 스레드 풀
+    // 배치 주문 스레드가 이 풀의 작업을 기다리므로, 같은 풀을 쓰면 서로를 기다리다 멈출 수 있어 별도로 둔다
+    @Bean(defaultCandidate = false, destroyMethod = "shutdown")
+    public ThreadPoolExecutor orderBackendExecutor(@Value("${order.backend.threads:32}") int threads,
+                                                   @Value("${order.backend.queue-capacity:1024}") int queueCapacity,
+                                                   TraceHolderProperties traceHolder) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                traceHolder.createThreadFactory("order-backend-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // 두 풀을 감싸는 TraceContextExecutor(InterfaceProxyConfig)의 작업별 대기/실행 시간
+    @Bean
+    public ExecutorMetrics orderBatchExecutorMetrics() {
+        return new ExecutorMetrics();
+    }
+
+    @Bean
+    public ExecutorMetrics orderBackendExecutorMetrics() {
+        return new ExecutorMetrics();
+    }
+
+    @Bean
+    public ExecutorMetricsController executorMetricsController(@Qualifier("orderBatchExecutorMetrics") ExecutorMetrics orderBatch,
+                                                               @Qualifier("orderBackendExecutorMetrics") ExecutorMetrics orderBackend) {
+        Map<String, ExecutorMetrics> metrics = new LinkedHashMap<>();
+        metrics.put("order-batch", orderBatch);
+        metrics.put("order-backend", orderBackend);
+        return new ExecutorMetricsController(metrics);
+    }
+}
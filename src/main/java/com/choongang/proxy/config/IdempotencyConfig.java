@@ -0,0 +1,26 @@
+package com.choongang.proxy.config;
+
+import com.choongang.proxy.idempotency.IdempotencyProperties;
+import com.choongang.proxy.idempotency.IdempotencyStatsController;
+import com.choongang.proxy.idempotency.IdempotencyStore;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Idempotency-Key 헤더가 있는 /v1/request 요청의 중복 실행 제거 (order.idempotency.enabled=true 일 때 보관)
+// 조건부 빈 대신 실행 시점에 enabled를 확인한다: AOT로 처리한 jar(-Paot)에서도 켜고 끌 수 있도록
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    // DispatcherServlet 경로(OrderControllerV1ApiAdapter)와 경량 입구(OrderIngressServer)가 함께 쓴다
+    @Bean
+    public IdempotencyStore<String> orderIdempotencyStore(IdempotencyProperties properties) {
+        return properties.createStore();
+    }
+
+    @Bean
+    public IdempotencyStatsController idempotencyStatsController(IdempotencyStore<String> orderIdempotencyStore) {
+        return new IdempotencyStatsController(orderIdempotencyStore);
+    }
+}
@@ -0,0 +1,23 @@
+package com.choongang.proxy.config;
+
+import com.choongang.proxy.app.v1.OrderControllerV1;
+import com.choongang.proxy.idempotency.IdempotencyStore;
+import com.choongang.proxy.ingress.IngressProperties;
+import com.choongang.proxy.ingress.OrderIngressServer;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// GET /v1/request 전용 경량 입구 (ingress.enabled=true 일 때 ingress.port에서 시작)
+// 조건부 빈 대신 isAutoStartup()으로 켜고 끈다: AOT로 처리한 jar(-Paot)에서도 실행 시점에 설정할 수 있도록
+@Configuration
+@EnableConfigurationProperties(IngressProperties.class)
+public class IngressConfig {
+
+    @Bean
+    public OrderIngressServer orderIngressServer(IngressProperties properties, OrderControllerV1 orderController, LogTrace logTrace,
+                                                 IdempotencyStore<String> orderIdempotencyStore) {
+        return new OrderIngressServer(properties, orderController, logTrace, orderIdempotencyStore);
+    }
+}
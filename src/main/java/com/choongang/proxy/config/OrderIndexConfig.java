@@ -0,0 +1,16 @@
+package com.choongang.proxy.config;
+
+import com.choongang.proxy.index.OrderIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class OrderIndexConfig {
+
+    @Bean
+    public OrderIndex orderIndex(@Value("${order.index.max-items:65536}") int maxItems,
+                                 @Value("${order.index.recent-size:16}") int recentSize) {
+        return new OrderIndex(maxItems, recentSize);
+    }
+}
@@ -0,0 +1,31 @@
+package com.choongang.proxy.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * v1 주문 저장소 설정 (order.repository.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.repository")
+public class OrderRepositoryProperties {
+
+    private Type type = Type.SLEEP;
+    private final Jdbc jdbc = new Jdbc();
+
+    public enum Type {
+        SLEEP, // 저장 시간을 sleep으로 흉내내는 OrderRepositoryV1Impl
+        JDBC, // 동시에 들어온 insert를 배치로 저장하는 JdbcOrderRepositoryV1
+        SIMPLE_JDBC // 호출마다 insert 한 건을 실행하는 SimpleJdbcOrderRepositoryV1
+    }
+
+    @Getter
+    @Setter
+    public static class Jdbc {
+        private int maxBatchSize = 256; // executeBatch 한 번에 넣을 최대 행 수
+        private int queueCapacity = 10000; // 저장을 기다리는 insert 최대 개수
+        private int writerThreads = 2; // 배치를 저장하는 스레드 수 (각각 커넥션 하나 사용)
+    }
+}
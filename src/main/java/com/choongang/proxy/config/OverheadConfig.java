@@ -0,0 +1,40 @@
+package com.choongang.proxy.config;
+
+import com.choongang.proxy.trace.export.TraceExportProperties;
+import com.choongang.proxy.trace.logtrace.TraceHolderProperties;
+import com.choongang.proxy.trace.overhead.OverheadCalibrationLifecycle;
+import com.choongang.proxy.trace.overhead.OverheadController;
+import com.choongang.proxy.trace.overhead.OverheadProperties;
+import com.choongang.proxy.trace.overhead.RequestCpuFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// 추적 장치 비용 측정과 요청 CPU 대비 비율 (/v1/trace/overhead, trace.overhead.enabled=true 일 때 측정)
+// 조건부 빈 대신 실행 시점에 enabled를 확인한다: AOT로 처리한 jar(-Paot)에서도 켜고 끌 수 있도록
+@Configuration
+@EnableConfigurationProperties(OverheadProperties.class)
+public class OverheadConfig {
+
+    @Bean
+    public OverheadCalibrationLifecycle overheadCalibrationLifecycle(OverheadProperties properties, TraceExportProperties exportProperties,
+                                                                     TraceHolderProperties traceHolder) {
+        return new OverheadCalibrationLifecycle(properties, exportProperties, traceHolder);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestCpuFilter> requestCpuFilter(OverheadProperties properties) {
+        FilterRegistrationBean<RequestCpuFilter> registration = new FilterRegistrationBean<>(new RequestCpuFilter(properties.isEnabled()));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE); // 다른 필터(traceparent 연결 등)의 CPU 시간도 요청에 포함
+        return registration;
+    }
+
+    @Bean
+    public OverheadController overheadController(OverheadCalibrationLifecycle overheadCalibrationLifecycle,
+                                                 FilterRegistrationBean<RequestCpuFilter> requestCpuFilter) {
+        return new OverheadController(overheadCalibrationLifecycle, requestCpuFilter.getFilter());
+    }
+}
@@ -0,0 +1,29 @@
+package com.choongang.proxy.config;
+
+import com.choongang.proxy.app.v1.OrderControllerV1ApiAdapter;
+import com.choongang.proxy.app.v3.OrderControllerV3;
+import com.choongang.proxy.shadow.ShadowProperties;
+import com.choongang.proxy.shadow.ShadowStatsController;
+import com.choongang.proxy.shadow.ShadowTrafficMirror;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 실제 요청 일부를 다른 버전의 주문 스택으로 복사하여 비교 (shadow.sample-rate > 0 일 때 복사)
+@Configuration
+@EnableConfigurationProperties(ShadowProperties.class)
+public class ShadowConfig {
+
+    // /v1/request(인터페이스 프록시 v1) -> OrderControllerV3(클래스 프록시 v3)
+    @Bean(destroyMethod = "close")
+    public ShadowTrafficMirror shadowTrafficMirror(ShadowProperties properties, OrderControllerV3 orderControllerV3) {
+        ShadowTrafficMirror mirror = properties.createMirror();
+        mirror.register(OrderControllerV1ApiAdapter.REQUEST, orderControllerV3::request);
+        return mirror;
+    }
+
+    @Bean
+    public ShadowStatsController shadowStatsController(ShadowTrafficMirror shadowTrafficMirror) {
+        return new ShadowStatsController(shadowTrafficMirror);
+    }
+}
@@ -0,0 +1,17 @@
+package com.choongang.proxy.config;
+
+import com.choongang.proxy.agent.AgentTraceBridge;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// -javaagent로 실행했을 때 에이전트가 넣은 추적 코드를 logTrace 빈에 연결 (에이전트가 없으면 아무 영향 없음)
+@Configuration
+public class TraceAgentConfig {
+
+    @Bean
+    public SmartInitializingSingleton agentTraceBridgeInstaller(LogTrace logTrace) {
+        return () -> AgentTraceBridge.install(logTrace);
+    }
+}
@@ -0,0 +1,48 @@
+package com.choongang.proxy.config;
+
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.propagation.ReactiveTraceContextFilter;
+import com.choongang.proxy.trace.propagation.TraceContextFilter;
+import com.choongang.proxy.trace.propagation.TraceparentClientInterceptor;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// 서비스 간 호출을 W3C traceparent 헤더로 이어주는 설정
+@Configuration
+public class TraceContextConfig {
+
+    // 들어온 요청의 traceparent -> 현재 스레드 TraceId
+    @Bean
+    public FilterRegistrationBean<TraceContextFilter> traceContextFilter(LogTrace logTrace) {
+        FilterRegistrationBean<TraceContextFilter> registration = new FilterRegistrationBean<>(new TraceContextFilter(logTrace));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10); // 다른 필터의 로그도 같은 트랜잭션으로 남도록 앞쪽에 둔다
+        return registration;
+    }
+
+    // reactive 프로필(WebFlux): 들어온 요청의 traceparent -> Reactor Context의 TraceId (서블릿 모드에서는 사용되지 않음)
+    @Bean
+    public ReactiveTraceContextFilter reactiveTraceContextFilter() {
+        return new ReactiveTraceContextFilter();
+    }
+
+    // 현재 스레드 TraceId -> 나가는 요청의 traceparent
+    @Bean
+    public TraceparentClientInterceptor traceparentClientInterceptor(LogTrace logTrace) {
+        return new TraceparentClientInterceptor(logTrace);
+    }
+
+    @Bean
+    public RestClientCustomizer traceparentRestClientCustomizer(TraceparentClientInterceptor interceptor) {
+        return builder -> builder.requestInterceptor(interceptor);
+    }
+
+    @Bean
+    public RestTemplateCustomizer traceparentRestTemplateCustomizer(TraceparentClientInterceptor interceptor) {
+        return restTemplate -> restTemplate.getInterceptors().add(interceptor);
+    }
+}
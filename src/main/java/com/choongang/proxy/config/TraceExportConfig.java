@@ -0,0 +1,20 @@
+package com.choongang.proxy.config;
+
+import com.choongang.proxy.trace.export.SpanExporter;
+import com.choongang.proxy.trace.export.TraceExportProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// trace.export.enabled=true 이면 span을 바이너리 파일로도 내보낸다 (logTrace 빈이 ExportingLogTrace로 감싸짐)
+@Configuration
+@EnableConfigurationProperties(TraceExportProperties.class)
+public class TraceExportConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "trace.export", name = "enabled", havingValue = "true")
+    public SpanExporter spanExporter(TraceExportProperties properties) {
+        return properties.createWriter();
+    }
+}
@@ -0,0 +1,21 @@
+package com.choongang.proxy.config;
+
+import com.choongang.proxy.trace.logtrace.SpanStackTomcatCustomizer;
+import com.choongang.proxy.trace.logtrace.TraceHolderProperties;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 스레드별 추적 상태 보관 방식 (trace.holder.type=thread-local | span-stack)
+// span-stack이면 logTrace 빈이 SpanStackLogTrace가 되고, 주문 스레드 풀과 Tomcat 요청 스레드를 SpanStackThread로 만든다
+// 조건부 빈 대신 실행 시점에 type을 확인한다: AOT로 처리한 jar(-Paot)에서도 바꿀 수 있도록
+@Configuration
+@EnableConfigurationProperties(TraceHolderProperties.class)
+public class TraceHolderConfig {
+
+    @Bean
+    public SpanStackTomcatCustomizer spanStackTomcatCustomizer(TraceHolderProperties properties, ServerProperties serverProperties) {
+        return new SpanStackTomcatCustomizer(properties, serverProperties);
+    }
+}
@@ -0,0 +1,18 @@
+package com.choongang.proxy.config;
+
+import com.choongang.proxy.trace.pointcut.TracePointcut;
+import com.choongang.proxy.trace.pointcut.TracePointcutProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 프록시가 로그를 남길 메서드 선택 (trace.pointcut.includes / excludes)
+@Configuration
+@EnableConfigurationProperties(TracePointcutProperties.class)
+public class TracePointcutConfig {
+
+    @Bean
+    public TracePointcut tracePointcut(TracePointcutProperties properties) {
+        return properties.createPointcut();
+    }
+}
@@ -0,0 +1,24 @@
+package com.choongang.proxy.config;
+
+import com.choongang.proxy.trace.export.TraceExportProperties;
+import com.choongang.proxy.trace.logtrace.TraceHolderProperties;
+import com.choongang.proxy.trace.overhead.OverheadProperties;
+import com.choongang.proxy.trace.pointcut.TracePointcut;
+import com.choongang.proxy.warmup.WarmupLifecycle;
+import com.choongang.proxy.warmup.WarmupProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 웹 서버가 열리기 전 v1 주문 경로 JIT 워밍업 (warmup.enabled=true 일 때만 실행)
+// 조건부 빈 대신 실행 시점에 enabled를 확인한다: AOT로 처리한 jar(-Paot)에서도 켜고 끌 수 있도록
+@Configuration
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupConfig {
+
+    @Bean
+    public WarmupLifecycle warmupLifecycle(WarmupProperties properties, TracePointcut tracePointcut, TraceHolderProperties traceHolder,
+                                           TraceExportProperties exportProperties, OverheadProperties overheadProperties) {
+        return new WarmupLifecycle(properties, tracePointcut, traceHolder, exportProperties, overheadProperties);
+    }
+}
@@ -1,30 +1,128 @@
 package com.choongang.proxy.config.v1_proxy;
 
 import com.choongang.proxy.app.v1.*;
+import com.choongang.proxy.coalesce.CoalescingOrderRepositoryV1;
+import com.choongang.proxy.coalesce.CoalescingProperties;
+import com.choongang.proxy.config.OrderRepositoryProperties;
+import com.choongang.proxy.index.IndexingOrderRepositoryV1;
+import com.choongang.proxy.index.OrderIndex;
+import com.choongang.proxy.config.v1_proxy.interface_proxy.InventoryClientInterfaceProxy;
 import com.choongang.proxy.config.v1_proxy.interface_proxy.OrderControllerInterfaceProxy;
 import com.choongang.proxy.config.v1_proxy.interface_proxy.OrderRepositoryInterfaceProxy;
 import com.choongang.proxy.config.v1_proxy.interface_proxy.OrderServiceInterfaceProxy;
+import com.choongang.proxy.config.v1_proxy.interface_proxy.PaymentClientInterfaceProxy;
+import com.choongang.proxy.trace.executor.ExecutorMetrics;
+import com.choongang.proxy.trace.executor.TraceContextExecutor;
 import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.pointcut.TracePointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import javax.sql.DataSource;
+import java.util.concurrent.ThreadPoolExecutor;
+
+// LogTrace는 생성자로 받고 @Bean 메서드는 인자 없이 서로 호출한다
+// (인자를 넘기는 @Bean 메서드 호출은 AOT로 처리한 컨텍스트(-Paot)에서 팩토리 메서드를 찾지 못한다)
 @Configuration
+@EnableConfigurationProperties(OrderRepositoryProperties.class)
 public class InterfaceProxyConfig {
+
+     private final ThreadPoolExecutor orderBatchExecutor;
+     private final ThreadPoolExecutor orderBackendExecutor;
+     private final ExecutorMetrics orderBatchExecutorMetrics;
+     private final ExecutorMetrics orderBackendExecutorMetrics;
+     private final CoalescingProperties coalescingProperties;
+     private final OrderRepositoryProperties orderRepositoryProperties;
+     // 저장소 종류와 관계없이 시작할 때 SQL 초기화(schema.sql)가 DataSource를 만들고 커넥션 풀을 연다.
+     // 지연 초기화(fast 프로필)에서만 jdbc/simple-jdbc 저장소를 처음 만들 때까지 미뤄진다
+     private final ObjectProvider<DataSource> dataSource;
+     private final ObjectProvider<DataSourceScriptDatabaseInitializer> databaseInitializer;
+     private final OrderIndex orderIndex;
+     private final TracePointcut tracePointcut; // 프록시가 로그를 남길 메서드
+     private final LogTrace logTrace;
+
+     public InterfaceProxyConfig(@Qualifier("orderBatchExecutor") ThreadPoolExecutor orderBatchExecutor,
+                                 @Qualifier("orderBackendExecutor") ThreadPoolExecutor orderBackendExecutor,
+                                 @Qualifier("orderBatchExecutorMetrics") ExecutorMetrics orderBatchExecutorMetrics,
+                                 @Qualifier("orderBackendExecutorMetrics") ExecutorMetrics orderBackendExecutorMetrics,
+                                 CoalescingProperties coalescingProperties,
+                                 OrderRepositoryProperties orderRepositoryProperties,
+                                 ObjectProvider<DataSource> dataSource,
+                                 ObjectProvider<DataSourceScriptDatabaseInitializer> databaseInitializer,
+                                 OrderIndex orderIndex,
+                                 TracePointcut tracePointcut,
+                                 LogTrace logTrace) {
+         this.orderBatchExecutor = orderBatchExecutor;
+         this.orderBackendExecutor = orderBackendExecutor;
+         this.orderBatchExecutorMetrics = orderBatchExecutorMetrics;
+         this.orderBackendExecutorMetrics = orderBackendExecutorMetrics;
+         this.coalescingProperties = coalescingProperties;
+         this.orderRepositoryProperties = orderRepositoryProperties;
+         this.dataSource = dataSource;
+         this.databaseInitializer = databaseInitializer;
+         this.orderIndex = orderIndex;
+         this.tracePointcut = tracePointcut;
+         this.logTrace = logTrace;
+     }
+
+     @Bean
+     public OrderControllerV1 orderController() {
+         // 배치 주문의 작업 스레드에서도 같은 TraceId로 로그가 이어지도록 TraceContextExecutor로 감싼다
+         TraceContextExecutor executor = new TraceContextExecutor("order-batch", orderBatchExecutor, logTrace, orderBatchExecutorMetrics);
+         OrderControllerV1 orderControllerV1 = new OrderControllerV1Impl(orderService(), executor);
+         return new OrderControllerInterfaceProxy(orderControllerV1, logTrace, tracePointcut);
+     }
+
      @Bean
-     public OrderControllerV1 orderController(LogTrace logTrace) {
-         OrderControllerV1 orderControllerV1 = new OrderControllerV1Impl(orderService(logTrace));
-         return new OrderControllerInterfaceProxy(orderControllerV1, logTrace);
+     public OrderServiceV1 orderService() {
+         TraceContextExecutor executor = new TraceContextExecutor("order-backend", orderBackendExecutor, logTrace, orderBackendExecutorMetrics);
+         OrderServiceV1 orderServiceV1 = new OrderServiceV1Impl(orderRepository(),
+                 inventoryClient(), paymentClient(), executor);
+         return new OrderServiceInterfaceProxy(orderServiceV1, logTrace, tracePointcut);
+     }
+
+     @Bean
+     public OrderRepositoryV1 orderRepository() {
+         return new OrderRepositoryInterfaceProxy(orderRepositoryTarget(), logTrace, tracePointcut);
+     }
+
+     // 프록시가 감싸는 실제 저장소: 인덱스 반영 -> (쓰기 병합) -> 저장소 구현
+     // 쓰기 병합을 켜면 같은 상품 주문을 모아서 저장하는 계층을 앞에 둔다
+     // defaultCandidate = false: OrderRepositoryV1 타입 주입 대상에서 제외 (종료 시 close()는 Spring이 호출)
+     @Bean(defaultCandidate = false)
+     public OrderRepositoryV1 orderRepositoryTarget() {
+         OrderRepositoryProperties.Jdbc jdbc = orderRepositoryProperties.getJdbc();
+         OrderRepositoryV1 orderRepositoryV1 = switch (orderRepositoryProperties.getType()) {
+             case SLEEP -> new OrderRepositoryV1Impl();
+             case JDBC -> new JdbcOrderRepositoryV1(jdbcDataSource(), logTrace,
+                     jdbc.getMaxBatchSize(), jdbc.getQueueCapacity(), jdbc.getWriterThreads());
+             case SIMPLE_JDBC -> new SimpleJdbcOrderRepositoryV1(jdbcDataSource(), logTrace);
+         };
+         if (coalescingProperties.isEnabled()) {
+             orderRepositoryV1 = new CoalescingOrderRepositoryV1(orderRepositoryV1, coalescingProperties);
+         }
+         return new IndexingOrderRepositoryV1(orderRepositoryV1, orderIndex);
+     }
+
+     // 지연 초기화(fast 프로필)에서는 schema.sql 실행 빈도 처음 쓸 때 만들어지므로 DataSource보다 먼저 꺼낸다
+     private DataSource jdbcDataSource() {
+         databaseInitializer.getIfAvailable();
+         return dataSource.getObject();
      }
 
      @Bean
-     public OrderServiceV1 orderService(LogTrace logTrace) {
-         OrderServiceV1 orderServiceV1 = new OrderServiceV1Impl(orderRepository(logTrace));
-         return new OrderServiceInterfaceProxy(orderServiceV1, logTrace);
+     public InventoryClientV1 inventoryClient() {
+         InventoryClientV1 inventoryClientV1 = new InventoryClientV1Impl();
+         return new InventoryClientInterfaceProxy(inventoryClientV1, logTrace, tracePointcut);
      }
 
      @Bean
-     public OrderRepositoryV1 orderRepository(LogTrace logTrace) {
-         OrderRepositoryV1 orderRepositoryV1 = new OrderRepositoryV1Impl();
-         return new OrderRepositoryInterfaceProxy(orderRepositoryV1, logTrace);
+     public PaymentClientV1 paymentClient() {
+         PaymentClientV1 paymentClientV1 = new PaymentClientV1Impl();
+         return new PaymentClientInterfaceProxy(paymentClientV1, logTrace, tracePointcut);
      }
 }
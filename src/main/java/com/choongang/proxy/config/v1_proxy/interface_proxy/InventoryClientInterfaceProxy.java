@@ -0,0 +1,40 @@
+package com.choongang.proxy.config.v1_proxy.interface_proxy;
+
+import com.choongang.proxy.app.v1.InventoryClientV1;
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.pointcut.TracePointcut;
+
+public class InventoryClientInterfaceProxy implements InventoryClientV1 {
+
+    private final InventoryClientV1 target; // 실제 객체
+    private final LogTrace logTrace; // 로그 추적기 (기능 추가)
+    private final String reserveMessage; // 로그 메시지, null이면 추적하지 않고 바로 위임
+
+    public InventoryClientInterfaceProxy(InventoryClientV1 target, LogTrace logTrace) {
+        this(target, logTrace, TracePointcut.ALL);
+    }
+
+    public InventoryClientInterfaceProxy(InventoryClientV1 target, LogTrace logTrace, TracePointcut pointcut) {
+        this.target = target;
+        this.logTrace = logTrace;
+        this.reserveMessage = pointcut.message(InventoryClientV1.class, target.getClass(), "reserve", String.class);
+    }
+
+    @Override
+    public void reserve(String itemId) {
+        if (reserveMessage == null) {
+            target.reserve(itemId);
+            return;
+        }
+        TraceStatus status = null;
+        try {
+            status = logTrace.begin(reserveMessage); // 로그 시작
+            target.reserve(itemId); // 실제 객체 호출
+            logTrace.end(status); // 로그 종료
+        } catch (Exception e) {
+            logTrace.exception(status, e); // 예외 발생 시 로그 처리
+            throw e; // 예외를 다시 던짐
+        }
+    }
+}
@@ -1,15 +1,30 @@
 package com.choongang.proxy.config.v1_proxy.interface_proxy;
 
 import com.choongang.proxy.app.v1.OrderControllerV1;
+import com.choongang.proxy.app.v1.OrderResult;
 import com.choongang.proxy.trace.TraceStatus;
 import com.choongang.proxy.trace.logtrace.LogTrace;
-import lombok.RequiredArgsConstructor;
+import com.choongang.proxy.trace.pointcut.TracePointcut;
+
+import java.util.List;
 
-@RequiredArgsConstructor
 public class OrderControllerInterfaceProxy implements OrderControllerV1 {
 
     private final OrderControllerV1 target; // 실제 객체
     private final LogTrace logTrace; // 로그 추적기
+    private final String requestMessage; // 메서드별 로그 메시지, null이면 추적하지 않고 바로 위임
+    private final String requestBatchMessage;
+
+    public OrderControllerInterfaceProxy(OrderControllerV1 target, LogTrace logTrace) {
+        this(target, logTrace, TracePointcut.ALL);
+    }
+
+    public OrderControllerInterfaceProxy(OrderControllerV1 target, LogTrace logTrace, TracePointcut pointcut) {
+        this.target = target;
+        this.logTrace = logTrace;
+        this.requestMessage = pointcut.message(OrderControllerV1.class, target.getClass(), "request", String.class);
+        this.requestBatchMessage = pointcut.message(OrderControllerV1.class, target.getClass(), "requestBatch", List.class);
+    }
 
     /**
      * 프록시 객체가 실제 객체를 주입받음.  프록시 객체가 실제 객체를 사용한다
@@ -18,10 +33,13 @@ public class OrderControllerInterfaceProxy implements OrderControllerV1 {
      */
     @Override
     public String request(String itemId) {
+        if (requestMessage == null) {
+            return target.request(itemId);
+        }
         // 로그 시작
         TraceStatus status = null;
         try {
-            status = logTrace.begin("OrderController.request()");
+            status = logTrace.begin(requestMessage);
             String result = target.request(itemId); // 실제 객체 호출
             logTrace.end(status); // 로그 종료
             return result;
@@ -30,4 +48,21 @@ public class OrderControllerInterfaceProxy implements OrderControllerV1 {
             throw e; // 예외를 다시 던짐
         }
     }
+
+    @Override
+    public List<OrderResult> requestBatch(List<String> itemIds) {
+        if (requestBatchMessage == null) {
+            return target.requestBatch(itemIds);
+        }
+        TraceStatus status = null;
+        try {
+            status = logTrace.begin(requestBatchMessage);
+            List<OrderResult> result = target.requestBatch(itemIds); // 실제 객체 호출
+            logTrace.end(status);
+            return result;
+        } catch (Exception e) {
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
 }
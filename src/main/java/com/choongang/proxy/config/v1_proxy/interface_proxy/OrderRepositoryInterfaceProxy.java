@@ -3,13 +3,25 @@ package com.choongang.proxy.config.v1_proxy.interface_proxy;
 import com.choongang.proxy.app.v1.OrderRepositoryV1;
 import com.choongang.proxy.trace.TraceStatus;
 import com.choongang.proxy.trace.logtrace.LogTrace;
-import lombok.RequiredArgsConstructor;
+import com.choongang.proxy.trace.pointcut.TracePointcut;
 
-@RequiredArgsConstructor
 public class OrderRepositoryInterfaceProxy implements OrderRepositoryV1 {
 
     private final OrderRepositoryV1 target; // 실제 객체
     private final LogTrace logTrace; // 로그 추적기 (기능 추가)
+    private final String saveMessage; // 메서드별 로그 메시지, null이면 추적하지 않고 바로 위임
+    private final String saveAllMessage;
+
+    public OrderRepositoryInterfaceProxy(OrderRepositoryV1 target, LogTrace logTrace) {
+        this(target, logTrace, TracePointcut.ALL);
+    }
+
+    public OrderRepositoryInterfaceProxy(OrderRepositoryV1 target, LogTrace logTrace, TracePointcut pointcut) {
+        this.target = target;
+        this.logTrace = logTrace;
+        this.saveMessage = pointcut.message(OrderRepositoryV1.class, target.getClass(), "save", String.class);
+        this.saveAllMessage = pointcut.message(OrderRepositoryV1.class, target.getClass(), "saveAll", String.class, int.class);
+    }
 
     /**
      * 프록시 객체가 실제 객체를 주입받음.  프록시 객체가 실제 객체를 사용한다
@@ -18,10 +30,13 @@ public class OrderRepositoryInterfaceProxy implements OrderRepositoryV1 {
      */
     @Override
     public void save(String itemId) {
-
+        if (saveMessage == null) {
+            target.save(itemId);
+            return;
+        }
         TraceStatus status = null;
         try {
-            status = logTrace.begin("OrderRepository.save()"); // 로그 시작
+            status = logTrace.begin(saveMessage); // 로그 시작
             target.save(itemId); // 실제 객체 호출
             logTrace.end(status); // 로그 종료
         } catch (Exception e) {
@@ -29,4 +44,21 @@ public class OrderRepositoryInterfaceProxy implements OrderRepositoryV1 {
             throw e; // 예외를 다시 던짐
         }
     }
+
+    @Override
+    public void saveAll(String itemId, int quantity) {
+        if (saveAllMessage == null) {
+            target.saveAll(itemId, quantity);
+            return;
+        }
+        TraceStatus status = null;
+        try {
+            status = logTrace.begin(saveAllMessage);
+            target.saveAll(itemId, quantity);
+            logTrace.end(status);
+        } catch (Exception e) {
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
 }
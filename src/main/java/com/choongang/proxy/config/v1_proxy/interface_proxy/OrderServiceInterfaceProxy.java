@@ -3,13 +3,23 @@ package com.choongang.proxy.config.v1_proxy.interface_proxy;
 import com.choongang.proxy.app.v1.OrderServiceV1;
 import com.choongang.proxy.trace.TraceStatus;
 import com.choongang.proxy.trace.logtrace.LogTrace;
-import lombok.RequiredArgsConstructor;
+import com.choongang.proxy.trace.pointcut.TracePointcut;
 
-@RequiredArgsConstructor
 public class OrderServiceInterfaceProxy implements OrderServiceV1 {
 
     private final OrderServiceV1 target; // 실제 객체
     private final LogTrace logTrace; // 로그 추적기 (기능 추가)
+    private final String orderItemMessage; // 로그 메시지, null이면 추적하지 않고 바로 위임
+
+    public OrderServiceInterfaceProxy(OrderServiceV1 target, LogTrace logTrace) {
+        this(target, logTrace, TracePointcut.ALL);
+    }
+
+    public OrderServiceInterfaceProxy(OrderServiceV1 target, LogTrace logTrace, TracePointcut pointcut) {
+        this.target = target;
+        this.logTrace = logTrace;
+        this.orderItemMessage = pointcut.message(OrderServiceV1.class, target.getClass(), "orderItem", String.class);
+    }
 
     /**
      * 프록시 객체가 실제 객체를 주입받음.  프록시 객체가 실제 객체를 사용한다
@@ -18,9 +28,13 @@ public class OrderServiceInterfaceProxy implements OrderServiceV1 {
      */
     @Override
     public void orderItem(String itemId) {
+        if (orderItemMessage == null) {
+            target.orderItem(itemId);
+            return;
+        }
         TraceStatus status = null;
         try {
-            status = logTrace.begin("OrderService.orderItem()"); // 로그 시작
+            status = logTrace.begin(orderItemMessage); // 로그 시작
             target.orderItem(itemId); // 실제 객체 호출
             logTrace.end(status); // 로그 종료
         } catch (Exception e) {
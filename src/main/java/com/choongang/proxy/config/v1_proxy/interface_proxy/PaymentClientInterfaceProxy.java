@@ -0,0 +1,40 @@
+package com.choongang.proxy.config.v1_proxy.interface_proxy;
+
+import com.choongang.proxy.app.v1.PaymentClientV1;
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.pointcut.TracePointcut;
+
+public class PaymentClientInterfaceProxy implements PaymentClientV1 {
+
+    private final PaymentClientV1 target; // 실제 객체
+    private final LogTrace logTrace; // 로그 추적기 (기능 추가)
+    private final String authorizeMessage; // 로그 메시지, null이면 추적하지 않고 바로 위임
+
+    public PaymentClientInterfaceProxy(PaymentClientV1 target, LogTrace logTrace) {
+        this(target, logTrace, TracePointcut.ALL);
+    }
+
+    public PaymentClientInterfaceProxy(PaymentClientV1 target, LogTrace logTrace, TracePointcut pointcut) {
+        this.target = target;
+        this.logTrace = logTrace;
+        this.authorizeMessage = pointcut.message(PaymentClientV1.class, target.getClass(), "authorize", String.class);
+    }
+
+    @Override
+    public void authorize(String itemId) {
+        if (authorizeMessage == null) {
+            target.authorize(itemId);
+            return;
+        }
+        TraceStatus status = null;
+        try {
+            status = logTrace.begin(authorizeMessage); // 로그 시작
+            target.authorize(itemId); // 실제 객체 호출
+            logTrace.end(status); // 로그 종료
+        } catch (Exception e) {
+            logTrace.exception(status, e); // 예외 발생 시 로그 처리
+            throw e; // 예외를 다시 던짐
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.choongang.proxy.config.v4_postprocessor;
+
+import com.choongang.proxy.postprocessor.PackageLogTraceProxyPostProcessor;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.logtrace.ReactiveLogTrace;
+import com.choongang.proxy.trace.pointcut.TracePointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+// 지정한 패키지(trace.auto-proxy.packages)의 빈을 자동으로 로그 추적 프록시로 등록
+@Configuration
+public class BeanPostProcessorConfig {
+
+    // 빈 후처리기는 다른 빈보다 먼저 만들어지므로 static으로 등록하고, LogTrace는 프록시를 만들 때 가져온다
+    @Bean
+    @ConditionalOnProperty(prefix = "trace.auto-proxy", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public static PackageLogTraceProxyPostProcessor logTraceProxyPostProcessor(Environment environment,
+                                                                               ObjectProvider<LogTrace> logTrace,
+                                                                               ObjectProvider<TracePointcut> tracePointcut,
+                                                                               ObjectProvider<ReactiveLogTrace> reactiveLogTrace) {
+        String[] packages = environment.getProperty("trace.auto-proxy.packages", String[].class,
+                new String[]{"com.choongang.proxy.app.v2", "com.choongang.proxy.app.v3", "com.choongang.proxy.app.v4"});
+        return new PackageLogTraceProxyPostProcessor(List.of(packages), logTrace, tracePointcut, reactiveLogTrace);
+    }
+}
@@ -0,0 +1,26 @@
+package com.choongang.proxy.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 재시도된 주문 요청의 중복 제거 설정 (order.idempotency.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = false;
+    private int maxEntries = 65_536; // 보관할 최대 요청 키 수 (넘으면 가장 먼저 만료될 결과부터 버림)
+    private int stripes = 16; // 잠금 스트라이프 수 (2의 거듭제곱)
+    private long ttlSec = 600; // 완료된 결과를 보관하는 시간 (클라이언트 재시도 기간보다 길게)
+    private long waitTimeoutMs = 5_000; // 같은 키로 실행 중인 첫 요청을 기다리는 최대 시간 (넘으면 기다리던 요청만 실패)
+
+    public <V> IdempotencyStore<V> createStore() {
+        return new IdempotencyStore<>(enabled ? maxEntries : 0, stripes, TimeUnit.SECONDS.toMillis(ttlSec), waitTimeoutMs);
+    }
+}
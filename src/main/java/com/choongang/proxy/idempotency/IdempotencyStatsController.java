@@ -0,0 +1,18 @@
+package com.choongang.proxy.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// 재시도 중복 제거 통계: 실행/중복 응답/대기/대기 시간 초과/버린 결과 수
+@RestController
+@RequiredArgsConstructor
+public class IdempotencyStatsController {
+
+    private final IdempotencyStore<String> orderIdempotencyStore;
+
+    @GetMapping("/v1/idempotency/stats")
+    public IdempotencyStore.Stats stats() {
+        return orderIdempotencyStore.stats();
+    }
+}
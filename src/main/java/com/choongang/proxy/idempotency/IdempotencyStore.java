@@ -0,0 +1,340 @@
+package com.choongang.proxy.idempotency;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 클라이언트가 보낸 요청 키(Idempotency-Key)별로 최근 결과를 보관하여, 재시도된 요청을 다시 실행하지 않고 첫 결과를 돌려준다
+ *
+ * - 키의 hash로 스트라이프를 고르고, 스트라이프마다 잠금 하나와 선형 탐사(open addressing) 테이블 하나를 둔다.
+ *   hash/키/결과/만료 시각을 병렬 배열로 보관하여 항목마다 객체를 만들지 않는다 (부하율 1/2 이하)
+ * - 스트라이프마다 Bloom 필터를 두어 처음 보는 키(대부분의 요청)는 테이블을 탐사하지 않고 바로 빈 칸을 잡는다.
+ *   필터는 테이블을 다시 만들 때 남은 키로 새로 만들므로 필터에 든 키 수는 스트라이프 최대 항목 수를 넘지 않는다
+ * - 실행 중인 키는 결과 자리에 CompletableFuture를 두고, 같은 키로 들어온 요청은 첫 실행이 끝나기를 기다린다.
+ *   waitTimeoutMs 안에 끝나지 않으면 기다리던 요청만 InFlightTimeoutException으로 실패한다 (첫 실행은 계속 진행)
+ * - 완료된 결과는 ttl 동안 보관한다. 스트라이프가 가득 차면 만료된 항목을 지우고, 그래도 많으면
+ *   가장 먼저 만료될 완료 항목부터 버린다 (실행 중인 항목은 버리지 않음)
+ * - 실패한 실행은 보관하지 않는다: 기다리던 요청은 같은 예외를 받고, 그 다음 재시도는 다시 실행된다
+ */
+public class IdempotencyStore<V> {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final long IN_FLIGHT = Long.MAX_VALUE; // 실행 중인 항목의 만료 시각
+
+    private final Stripe[] stripes; // null이면 중복 제거하지 않음
+    private final long ttlMs;
+    private final long waitTimeoutMs;
+    private final LongSupplier clock;
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder duplicates = new LongAdder(); // 완료된 결과를 바로 돌려준 요청
+    private final LongAdder waits = new LongAdder(); // 실행 중인 첫 요청을 기다린 요청
+    private final LongAdder filterSkips = new LongAdder(); // Bloom 필터로 탐사를 건너뛴 새 키
+    private final LongAdder evictions = new LongAdder(); // 만료 전에 버린 결과
+    private final LongAdder bypassed = new LongAdder(); // 실행 중인 항목만으로 가득 차서 보관하지 못하고 실행한 요청
+    private final LongAdder waitTimeouts = new LongAdder(); // 첫 요청을 기다리다 waitTimeoutMs가 지나 실패한 요청
+
+    /**
+     * @param maxEntries 보관할 최대 키 수 (0 이하면 중복 제거하지 않고 바로 실행)
+     * @param stripes 잠금 스트라이프 수 (2의 거듭제곱)
+     * @param ttlMs 완료된 결과를 보관하는 시간
+     * @param waitTimeoutMs 같은 키로 실행 중인 첫 요청을 기다리는 최대 시간
+     */
+    public IdempotencyStore(int maxEntries, int stripes, long ttlMs, long waitTimeoutMs) {
+        this(maxEntries, stripes, ttlMs, waitTimeoutMs, System::currentTimeMillis);
+    }
+
+    IdempotencyStore(int maxEntries, int stripes, long ttlMs, long waitTimeoutMs, LongSupplier clock) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes는 2의 거듭제곱이어야 합니다: " + stripes);
+        }
+        if (waitTimeoutMs <= 0) {
+            throw new IllegalArgumentException("waitTimeoutMs는 1 이상이어야 합니다: " + waitTimeoutMs);
+        }
+        this.ttlMs = ttlMs;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.clock = clock;
+        if (maxEntries <= 0) {
+            this.stripes = null;
+            return;
+        }
+        int perStripe = Math.max(1, (maxEntries + stripes - 1) / stripes);
+        @SuppressWarnings("unchecked")
+        Stripe[] created = new IdempotencyStore.Stripe[stripes]; // 제네릭 클래스의 내부 클래스 배열은 raw 타입으로 만든다
+        for (int i = 0; i < stripes; i++) {
+            created[i] = new Stripe(perStripe);
+        }
+        this.stripes = created;
+    }
+
+    // 요청 키를 요청 대상(상품 아이디 등)과 묶는다: 같은 키를 다른 대상에 다시 써도 이전 결과를 돌려주지 않도록
+    public static String scopedKey(String idempotencyKey, String scope) {
+        return scope + '\n' + idempotencyKey;
+    }
+
+    /**
+     * key로 처음 들어온 요청이면 action을 실행하고 결과를 보관한다.
+     * 같은 key의 결과가 있으면 실행하지 않고 그 결과를, 실행 중이면 끝날 때까지 기다린 뒤 그 결과(또는 예외)를 돌려준다.
+     * @throws InFlightTimeoutException 실행 중인 첫 요청이 waitTimeoutMs 안에 끝나지 않음
+     */
+    public V execute(String key, Supplier<V> action) {
+        if (stripes == null || key == null) {
+            return action.get();
+        }
+        int hash = spread(key.hashCode());
+        // 스트라이프는 곱셈 해시의 위쪽 비트로 고른다 (테이블 칸은 hash의 아래 비트를 쓰므로 겹치지 않게)
+        Stripe stripe = stripes[((hash * 0x85EBCA6B) >>> 16) & (stripes.length - 1)];
+        CompletableFuture<V> first = new CompletableFuture<>();
+        int slot;
+        Object existing = null;
+        boolean inFlight = false;
+        synchronized (stripe) {
+            slot = stripe.find(hash, key, clock.getAsLong());
+            if (slot >= 0) {
+                existing = stripe.values[slot];
+                inFlight = stripe.expiresAt[slot] == IN_FLIGHT;
+            } else if (!stripe.insert(hash, key, first)) {
+                first = null;
+            }
+        }
+        if (slot < 0) {
+            return run(stripe, hash, first, action);
+        }
+        if (inFlight) {
+            waits.increment();
+            return await(existing);
+        }
+        duplicates.increment();
+        @SuppressWarnings("unchecked")
+        V result = (V) existing;
+        return result;
+    }
+
+    private V run(Stripe stripe, int hash, CompletableFuture<V> first, Supplier<V> action) {
+        executions.increment();
+        if (first == null) { // 보관할 자리가 없으면 중복 제거 없이 실행
+            bypassed.increment();
+            return action.get();
+        }
+        V result;
+        try {
+            result = action.get();
+        } catch (RuntimeException | Error e) {
+            synchronized (stripe) {
+                stripe.remove(stripe.slotOf(hash, first));
+            }
+            first.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (stripe) {
+            int slot = stripe.slotOf(hash, first); // 실행 중인 항목은 만료되거나 버려지지 않으므로 그대로 있다
+            stripe.values[slot] = result;
+            stripe.expiresAt[slot] = clock.getAsLong() + ttlMs;
+        }
+        first.complete(result);
+        return result;
+    }
+
+    // 첫 요청이 걸린 채로 끝나지 않아도 기다리는 요청(과 그 요청 스레드)이 무한히 쌓이지 않게 waitTimeoutMs까지만 기다린다
+    @SuppressWarnings("unchecked")
+    private V await(Object future) {
+        try {
+            return ((CompletableFuture<V>) future).get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // 첫 요청에서 발생한 예외를 원래 예외 그대로 전달
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            waitTimeouts.increment();
+            throw new InFlightTimeoutException(waitTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("같은 요청 키의 첫 실행을 기다리는 중에 중단되었습니다", e);
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    public Stats stats() {
+        return new Stats(stripes != null, executions.sum(), duplicates.sum(), waits.sum(), waitTimeouts.sum(),
+                filterSkips.sum(), evictions.sum(), bypassed.sum());
+    }
+
+    public record Stats(boolean enabled, long executions, long duplicates, long waits, long waitTimeouts,
+                        long filterSkips, long evictions, long bypassed) {
+    }
+
+    // 같은 요청 키의 첫 실행이 아직 끝나지 않아 기다리기를 그만둔 요청 (클라이언트는 잠시 뒤 같은 키로 다시 재시도하면 된다)
+    public static class InFlightTimeoutException extends IllegalStateException {
+
+        InFlightTimeoutException(long waitTimeoutMs) {
+            super("같은 Idempotency-Key의 요청이 아직 실행 중입니다 (" + waitTimeoutMs + "ms 동안 기다림)");
+        }
+    }
+
+    /**
+     * 스트라이프 하나: 선형 탐사 테이블과 Bloom 필터. 모든 메서드는 스트라이프 잠금을 잡고 호출한다.
+     * 칸 상태: 빈 칸(keys[i] == null) / 사용 중 / 지난 칸(만료되었거나 실패로 지운 항목, 탐사는 계속하고 새 항목이 다시 쓸 수 있음)
+     */
+    private final class Stripe {
+
+        private final int maxEntries;
+        private final int mask;
+        private int[] hashes;
+        private String[] keys;
+        private Object[] values; // 완료된 결과 또는 실행 중인 CompletableFuture
+        private long[] expiresAt;
+        private long[] filter;
+        private int filterShift; // 곱셈 해시의 위쪽 비트에서 필터 비트 번호를 고른다
+        private int filterKeys; // 마지막으로 다시 만든 뒤 필터에 넣은 키 수 (테이블에서 빈 칸이 아닌 칸 수 이상)
+
+        Stripe(int maxEntries) {
+            this.maxEntries = maxEntries;
+            int capacity = Integer.highestOneBit(Math.max(1, maxEntries * 2 - 1)) << 1; // maxEntries * 2 이상
+            this.mask = capacity - 1;
+            allocate(capacity);
+        }
+
+        private void allocate(int capacity) {
+            hashes = new int[capacity];
+            keys = new String[capacity];
+            values = new Object[capacity];
+            expiresAt = new long[capacity];
+            filter = new long[Math.max(1, capacity >>> 3)]; // 칸당 8비트, 키당 16비트 이상
+            filterShift = Integer.numberOfLeadingZeros(filter.length * 64) + 1;
+            filterKeys = 0;
+        }
+
+        // now 이후까지 유효한(또는 실행 중인) key의 칸, 없으면 -1
+        int find(int hash, String key, long now) {
+            if (!mightContain(hash)) {
+                return -1;
+            }
+            for (int i = hash & mask; keys[i] != null; i = (i + 1) & mask) {
+                if (hashes[i] == hash && expiresAt[i] > now && keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // execute()가 넣은 실행 중 항목의 칸
+        int slotOf(int hash, CompletableFuture<?> first) {
+            int i = hash & mask;
+            while (values[i] != first) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        // find()로 없음을 확인한 key를 실행 중 항목으로 넣는다. 실행 중인 항목만으로 가득 차 있으면 false
+        boolean insert(int hash, String key, CompletableFuture<?> first) {
+            if (filterKeys >= maxEntries && !rebuild()) {
+                return false;
+            }
+            long now = clock.getAsLong();
+            int i = hash & mask;
+            while (keys[i] != null && expiresAt[i] > now) { // 빈 칸이나 지난 칸
+                i = (i + 1) & mask;
+            }
+            hashes[i] = hash;
+            keys[i] = key;
+            values[i] = first;
+            expiresAt[i] = IN_FLIGHT;
+            addToFilter(hash);
+            return true;
+        }
+
+        void remove(int slot) {
+            values[slot] = null;
+            expiresAt[slot] = 0; // 지난 칸 (키는 남겨서 뒤의 항목 탐사가 끊기지 않게 한다)
+        }
+
+        private boolean mightContain(int hash) {
+            int bit1 = (hash * 0x9E3779B9) >>> filterShift;
+            int bit2 = (hash * 0xC2B2AE35) >>> filterShift;
+            if ((filter[bit1 >>> 6] & (1L << bit1)) != 0 && (filter[bit2 >>> 6] & (1L << bit2)) != 0) {
+                return true;
+            }
+            filterSkips.increment();
+            return false;
+        }
+
+        private void addToFilter(int hash) {
+            int bit1 = (hash * 0x9E3779B9) >>> filterShift;
+            int bit2 = (hash * 0xC2B2AE35) >>> filterShift;
+            filter[bit1 >>> 6] |= 1L << bit1;
+            filter[bit2 >>> 6] |= 1L << bit2;
+            filterKeys++;
+        }
+
+        // 유효한 항목만으로 테이블과 필터를 다시 만든다. 3/4를 넘게 남으면 가장 먼저 만료될 완료 항목부터 버린다
+        private boolean rebuild() {
+            long now = clock.getAsLong();
+            int live = 0;
+            int inFlight = 0;
+            for (int i = 0; i <= mask; i++) {
+                if (keys[i] != null && expiresAt[i] > now) {
+                    live++;
+                    if (expiresAt[i] == IN_FLIGHT) {
+                        inFlight++;
+                    }
+                }
+            }
+            if (inFlight >= maxEntries) {
+                return false;
+            }
+            int keep = maxEntries - Math.max(1, maxEntries >>> 2); // 다시 만들 때마다 최소 1/4은 비워서 자주 다시 만들지 않게 한다
+            long evictBefore = now; // 이 시각 이전에 만료되는 완료 항목은 버린다
+            if (live > keep && live > inFlight) {
+                long[] completed = new long[live - inFlight];
+                int n = 0;
+                for (int i = 0; i <= mask; i++) {
+                    if (keys[i] != null && expiresAt[i] > now && expiresAt[i] != IN_FLIGHT) {
+                        completed[n++] = expiresAt[i];
+                    }
+                }
+                Arrays.sort(completed);
+                int evict = Math.min(completed.length, live - keep);
+                evictBefore = completed[evict - 1] + 1;
+            }
+            int[] oldHashes = hashes;
+            String[] oldKeys = keys;
+            Object[] oldValues = values;
+            long[] oldExpiresAt = expiresAt;
+            allocate(mask + 1);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == null || oldExpiresAt[i] <= now) {
+                    continue;
+                }
+                if (oldExpiresAt[i] < evictBefore) {
+                    evictions.increment();
+                    continue;
+                }
+                int slot = oldHashes[i] & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                hashes[slot] = oldHashes[i];
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                expiresAt[slot] = oldExpiresAt[i];
+                addToFilter(oldHashes[i]);
+            }
+            return filterKeys < maxEntries;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.choongang.proxy.index;
+
+import com.choongang.proxy.app.v1.OrderRepositoryV1;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 저장이 성공한 주문을 OrderIndex에 반영하는 OrderRepositoryV1 데코레이터
+ */
+@RequiredArgsConstructor
+public class IndexingOrderRepositoryV1 implements OrderRepositoryV1, AutoCloseable {
+
+    private final OrderRepositoryV1 target;
+    private final OrderIndex orderIndex;
+
+    @Override
+    public void save(String itemId) {
+        target.save(itemId);
+        orderIndex.record(itemId, 1, System.currentTimeMillis()); // 저장이 끝난 주문만 인덱스에 반영
+    }
+
+    @Override
+    public void saveAll(String itemId, int quantity) {
+        target.saveAll(itemId, quantity);
+        orderIndex.record(itemId, quantity, System.currentTimeMillis());
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (target instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.choongang.proxy.index;
+
+import com.choongang.proxy.support.ItemIdInterner;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 저장된 주문을 상품별로 조회하기 위한 메모리 인덱스
+ *
+ * 상품 아이디는 int 번호로 바꾸고(ItemIdInterner), 번호 1024개 단위 세그먼트에
+ * - 주문 수: AtomicLongArray (기본형 배열)
+ * - 최근 주문: 힙 밖(direct ByteBuffer)의 상품별 링 버퍼 (recentSize 칸)
+ * 를 둔다. 쓰기는 CAS/원자 연산만 사용하고 읽기는 잠금 없이 수행된다.
+ *
+ * 세그먼트 하나의 링 버퍼는 1024 * recentSize * 24 바이트의 direct 메모리를 쓴다 (recentSize=16이면 384KB).
+ * 상품이 maxItems개까지 모두 쓰이면 direct 메모리는 약 maxItems * recentSize * 24 바이트
+ * (65536 * 16이면 24MB, 1048576 * 16이면 384MB)이므로 -XX:MaxDirectMemorySize와 함께 정한다.
+ * 상품 아이디는 요청에서 그대로 오므로 maxItems를 넘는 상품은 번호를 주지 않고(힙도 늘지 않음) 주문만 droppedOrders로 센다.
+ */
+public class OrderIndex {
+
+    private static final int SEGMENT_SHIFT = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT; // 세그먼트당 상품 수
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    // 최근 주문 한 칸: [stamp][orderedAtMs][quantity] (각 8바이트)
+    // stamp = 순번 + 1 (쓰는 중이면 -(순번 + 1), 한 번도 쓰지 않았으면 0). 읽는 쪽은 읽기 전후 stamp가 기대한 값인지 확인하여 쓰는 중인 칸을 건너뛴다
+    // 같은 칸을 한 바퀴 차이 나는 두 주문(seq, seq + recentSize)이 동시에 쓸 수 있으므로, 쓰는 쪽은 stamp를 CAS로 차지한 뒤에만 쓴다
+    private static final int ENTRY_BYTES = 24;
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final ItemIdInterner interner;
+    private final AtomicReferenceArray<Segment> segments;
+    private final int recentSize;
+    private final LongAdder droppedOrders = new LongAdder(); // maxItems를 넘는 상품의 주문 (인덱스에서 제외)
+
+    public OrderIndex(int maxItems, int recentSize) {
+        if (Integer.bitCount(recentSize) != 1) {
+            throw new IllegalArgumentException("recentSize는 2의 거듭제곱이어야 합니다: " + recentSize);
+        }
+        this.interner = new ItemIdInterner(maxItems);
+        this.recentSize = recentSize;
+        this.segments = new AtomicReferenceArray<>((maxItems + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+    }
+
+    public void record(String itemId, int quantity, long orderedAtMs) {
+        int id = interner.intern(itemId); // maxItems개가 이미 등록되어 있으면 -1 (등록하지 않음)
+        if (id < 0) {
+            droppedOrders.add(quantity);
+            return;
+        }
+        Segment segment = segment(id >>> SEGMENT_SHIFT);
+        int local = id & SEGMENT_MASK;
+        segment.counts.addAndGet(local, quantity);
+
+        long seq = segment.cursors.getAndIncrement(local); // 이 주문이 쓸 링 버퍼 칸 (상품별 순번)
+        int offset = entryOffset(local, seq);
+        ByteBuffer ring = segment.ring;
+        if (!claim(ring, offset, seq)) {
+            return; // 한 바퀴 뒤의 주문이 이미 이 칸을 차지함: 이 주문은 최근 주문에서 밀려난 것과 같다
+        }
+        VarHandle.storeStoreFence();
+        LONGS.set(ring, offset + 8, orderedAtMs);
+        LONGS.set(ring, offset + 16, (long) quantity);
+        LONGS.setRelease(ring, offset, seq + 1); // 쓰기 완료
+    }
+
+    // 칸의 stamp를 "seq가 쓰는 중"으로 바꾼다. 더 새로운 주문이 칸을 쓰고 있거나 썼으면 false
+    private static boolean claim(ByteBuffer ring, int offset, long seq) {
+        while (true) {
+            long stamp = (long) LONGS.getVolatile(ring, offset);
+            long owner = Math.abs(stamp) - 1; // 칸을 마지막으로 차지한 주문의 순번 (비어 있으면 -1)
+            if (owner > seq) {
+                return false;
+            }
+            if (stamp < 0) {
+                Thread.onSpinWait(); // 한 바퀴 앞 주문이 쓰는 중: 곧 끝나므로 기다렸다가 덮어쓴다
+                continue;
+            }
+            if (LONGS.compareAndSet(ring, offset, stamp, -(seq + 1))) {
+                return true;
+            }
+        }
+    }
+
+    public long count(String itemId) {
+        int id = interner.find(itemId);
+        Segment segment = id < 0 ? null : segments.get(id >>> SEGMENT_SHIFT);
+        return segment == null ? 0 : segment.counts.get(id & SEGMENT_MASK);
+    }
+
+    // 최근 주문 (최신순, 최대 recentSize 개)
+    public List<RecentOrder> recent(String itemId) {
+        int id = interner.find(itemId);
+        Segment segment = id < 0 ? null : segments.get(id >>> SEGMENT_SHIFT);
+        if (segment == null) {
+            return Collections.emptyList();
+        }
+        int local = id & SEGMENT_MASK;
+        long cursor = segment.cursors.get(local);
+        List<RecentOrder> result = new ArrayList<>(recentSize);
+        for (long seq = cursor - 1; seq >= 0 && seq >= cursor - recentSize; seq--) {
+            int offset = entryOffset(local, seq);
+            ByteBuffer ring = segment.ring;
+            long stamp = (long) LONGS.getAcquire(ring, offset);
+            long orderedAtMs = (long) LONGS.get(ring, offset + 8);
+            long quantity = (long) LONGS.get(ring, offset + 16);
+            VarHandle.loadLoadFence();
+            if (stamp == seq + 1 && (long) LONGS.getOpaque(ring, offset) == stamp) {
+                result.add(new RecentOrder(orderedAtMs, (int) quantity));
+            } // 아직 쓰는 중이거나 더 새로운 주문으로 덮어쓴 칸은 건너뛴다
+        }
+        return result;
+    }
+
+    // 주문 수가 많은 상품 n개 (많은 순)
+    public List<ItemCount> top(int n) {
+        String[] topItems = new String[n];
+        long[] topCounts = new long[n];
+        int size = 0;
+        int itemCount = interner.size();
+        for (int id = 0; id < itemCount; id++) {
+            Segment segment = segments.get(id >>> SEGMENT_SHIFT);
+            long count = segment == null ? 0 : segment.counts.get(id & SEGMENT_MASK);
+            if (count == 0 || (size == n && count <= topCounts[n - 1])) {
+                continue;
+            }
+            // 정렬된 상위 n개 배열에 삽입
+            int i = size < n ? size++ : n - 1;
+            while (i > 0 && topCounts[i - 1] < count) {
+                topCounts[i] = topCounts[i - 1];
+                topItems[i] = topItems[i - 1];
+                i--;
+            }
+            topCounts[i] = count;
+            topItems[i] = interner.name(id);
+        }
+        List<ItemCount> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new ItemCount(topItems[i], topCounts[i]));
+        }
+        return result;
+    }
+
+    public long getDroppedOrders() {
+        return droppedOrders.sum();
+    }
+
+    private int entryOffset(int local, long seq) {
+        return (local * recentSize + (int) (seq & (recentSize - 1))) * ENTRY_BYTES;
+    }
+
+    private Segment segment(int index) {
+        Segment segment = segments.get(index);
+        if (segment == null) {
+            segments.compareAndSet(index, null, new Segment(recentSize)); // 처음 쓰는 세그먼트만 할당
+            segment = segments.get(index);
+        }
+        return segment;
+    }
+
+    private static final class Segment {
+        private final AtomicLongArray counts = new AtomicLongArray(SEGMENT_SIZE);
+        private final AtomicLongArray cursors = new AtomicLongArray(SEGMENT_SIZE); // 상품별 다음 주문 순번
+        private final ByteBuffer ring;
+
+        private Segment(int recentSize) {
+            int bytes = SEGMENT_SIZE * recentSize * ENTRY_BYTES;
+            // 원자적 접근을 위해 8바이트 경계에 맞춘다
+            this.ring = ByteBuffer.allocateDirect(bytes + 8).alignedSlice(8).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    public record RecentOrder(long orderedAtMs, int quantity) {
+    }
+
+    public record ItemCount(String itemId, long count) {
+    }
+}
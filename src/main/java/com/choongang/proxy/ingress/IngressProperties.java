@@ -0,0 +1,17 @@
+package com.choongang.proxy.ingress;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("ingress")
+public class IngressProperties {
+
+    private boolean enabled = false;
+    private String host = "0.0.0.0";
+    private int port = 8081;
+    private int workerThreads = 200; // 블로킹 주문 처리를 실행할 스레드 수 (Tomcat 기본 최대 스레드 수와 같게)
+    private int queueCapacity = 10_000; // 가득 차면 503
+}
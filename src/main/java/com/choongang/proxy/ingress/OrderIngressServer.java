@@ -0,0 +1,184 @@
+package com.choongang.proxy.ingress;
+
+import com.choongang.proxy.app.v1.OrderControllerV1;
+import com.choongang.proxy.idempotency.IdempotencyStore;
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.propagation.TraceparentCodec;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 가장 많이 호출되는 GET /v1/request 전용 경량 HTTP 입구 (ingress.enabled=true, 별도 포트)
+ *
+ * DispatcherServlet의 핸들러 매핑, 인자 변환, 메시지 변환을 거치지 않고 Reactor Netty 이벤트 루프에서
+ * 경로와 itemId만 읽어 OrderControllerV1 빈(인터페이스 프록시)을 바로 호출한다. 요청/응답 버퍼는 Netty 풀에서 할당된다.
+ * 주문 처리는 블로킹이므로 이벤트 루프가 아닌 작업 스레드 풀에서 실행하고, 대기열이 가득 차면 503으로 거절한다.
+ * 같은 LogTrace와 프록시를 쓰며, traceparent 헤더는 TraceContextFilter와 같은 방식으로 작업 스레드에 연결한다.
+ * Idempotency-Key 헤더는 OrderControllerV1ApiAdapter와 같은 저장소로 중복 실행을 막는다 (재시도가 어느 입구로 와도 한 번만 주문).
+ */
+@Slf4j
+public class OrderIngressServer implements SmartLifecycle {
+
+    static final String PATH = "/v1/request";
+    private static final String ITEM_ID = "itemId";
+    private static final String TEXT_PLAIN = "text/plain;charset=UTF-8";
+
+    private final IngressProperties properties;
+    private final OrderControllerV1 orderController;
+    private final LogTrace logTrace;
+    private final IdempotencyStore<String> idempotencyStore; // null이면 항상 실행
+    private ThreadPoolExecutor workers;
+    private DisposableServer server;
+
+    public OrderIngressServer(IngressProperties properties, OrderControllerV1 orderController, LogTrace logTrace) {
+        this(properties, orderController, logTrace, null);
+    }
+
+    public OrderIngressServer(IngressProperties properties, OrderControllerV1 orderController, LogTrace logTrace,
+                              IdempotencyStore<String> idempotencyStore) {
+        this.properties = properties;
+        this.orderController = orderController;
+        this.logTrace = logTrace;
+        this.idempotencyStore = idempotencyStore;
+    }
+
+    @Override
+    public synchronized void start() {
+        workers = new ThreadPoolExecutor(properties.getWorkerThreads(), properties.getWorkerThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("ingress-worker-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        server = HttpServer.create()
+                .host(properties.getHost())
+                .port(properties.getPort())
+                .handle(this::handle)
+                .bindNow();
+        log.info("경량 ingress 시작: http://{}:{}{} (작업 스레드 {}개)", properties.getHost(), server.port(), PATH,
+                properties.getWorkerThreads());
+    }
+
+    private Publisher<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        String uri = request.uri();
+        int queryStart = uri.indexOf('?');
+        String path = queryStart < 0 ? uri : uri.substring(0, queryStart);
+        if (!PATH.equals(path)) {
+            return send(response, HttpResponseStatus.NOT_FOUND, "not found");
+        }
+        if (!HttpMethod.GET.equals(request.method())) {
+            return send(response, HttpResponseStatus.METHOD_NOT_ALLOWED, "method not allowed");
+        }
+        String itemId;
+        try {
+            itemId = queryStart < 0 ? null : queryParameter(uri, queryStart + 1, ITEM_ID);
+        } catch (IllegalArgumentException e) { // 잘못된 % 인코딩 (%G1, 끝에 남은 %)
+            return send(response, HttpResponseStatus.BAD_REQUEST, "itemId is malformed");
+        }
+        if (itemId == null) {
+            return send(response, HttpResponseStatus.BAD_REQUEST, "itemId is required");
+        }
+        TraceId remote = TraceparentCodec.parse(
+                request.requestHeaders().get(TraceparentCodec.TRACEPARENT), request.requestHeaders().get(TraceparentCodec.TRACESTATE));
+        String idempotencyKey = idempotencyStore == null ? null : request.requestHeaders().get(IdempotencyStore.HEADER);
+
+        Mono<String> result = Mono.create(sink -> {
+            try {
+                workers.execute(() -> {
+                    try {
+                        sink.success(idempotencyKey == null ? order(itemId, remote)
+                                : idempotencyStore.execute(IdempotencyStore.scopedKey(idempotencyKey, itemId), () -> order(itemId, remote)));
+                    } catch (Exception e) {
+                        sink.error(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                sink.error(e);
+            }
+        });
+        return result
+                .flatMap(body -> Mono.from(send(response, HttpResponseStatus.OK, body)))
+                .onErrorResume(RejectedExecutionException.class,
+                        e -> Mono.from(send(response, HttpResponseStatus.SERVICE_UNAVAILABLE, "busy")))
+                .onErrorResume(IdempotencyStore.InFlightTimeoutException.class,
+                        e -> Mono.from(send(response, HttpResponseStatus.CONFLICT, "in progress")))
+                .onErrorResume(e -> Mono.from(send(response, HttpResponseStatus.INTERNAL_SERVER_ERROR, "error")));
+    }
+
+    private String order(String itemId, TraceId remote) {
+        if (remote == null) {
+            return orderController.request(itemId); // 헤더가 없으면 첫 로그에서 새 TraceId 생성
+        }
+        TraceId previous = logTrace.currentTraceId();
+        logTrace.attach(remote);
+        try {
+            return orderController.request(itemId);
+        } finally {
+            logTrace.attach(previous);
+        }
+    }
+
+    private static Publisher<Void> send(HttpServerResponse response, HttpResponseStatus status, String body) {
+        return response.status(status)
+                .header(HttpHeaderNames.CONTENT_TYPE, TEXT_PLAIN)
+                .sendString(Mono.just(body));
+    }
+
+    // a=1&itemId=x 에서 name의 첫 번째 값. 인코딩된 값(%, +)일 때만 디코딩한다 (잘못된 인코딩이면 IllegalArgumentException)
+    static String queryParameter(String uri, int from, String name) {
+        int start = from;
+        while (start < uri.length()) {
+            int end = uri.indexOf('&', start);
+            if (end < 0) {
+                end = uri.length();
+            }
+            if (uri.startsWith(name, start) && start + name.length() < end && uri.charAt(start + name.length()) == '=') {
+                String value = uri.substring(start + name.length() + 1, end);
+                return value.indexOf('%') < 0 && value.indexOf('+') < 0 ? value : URLDecoder.decode(value, StandardCharsets.UTF_8);
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    public int getPort() {
+        return server == null ? -1 : server.port();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.disposeNow(Duration.ofSeconds(10));
+        server = null;
+        workers.shutdown();
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return properties.isEnabled();
+    }
+}
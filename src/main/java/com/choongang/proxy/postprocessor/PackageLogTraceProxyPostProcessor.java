@@ -0,0 +1,203 @@
+package com.choongang.proxy.postprocessor;
+
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.logtrace.ReactiveLogTrace;
+import com.choongang.proxy.trace.pointcut.TracePointcut;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cglib.core.SpringNamingPolicy;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.Dispatcher;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.objenesis.SpringObjenesis;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 지정한 패키지의 빈을 로그 추적 프록시(CGLIB 클래스 기반)로 바꿔서 등록한다.
+ * 인터페이스가 없는 v2, v3 클래스도 설정 클래스에 프록시를 직접 만들지 않고 추적할 수 있다.
+ *
+ * 프록시 클래스를 만들 때 메서드마다 할 일을 정해 콜백으로 연결해 둔다 (호출할 때는 찾는 과정이 없다)
+ *  - 추적 대상 메서드: 메시지를 미리 만든 MethodInterceptor -> MethodProxy.invoke(target)로 실제 객체를 직접 호출
+ *    (Mono를 반환하는 메서드는 ReactiveLogTrace로 감싸서 구독부터 종료 신호까지를 추적)
+ *  - 나머지 메서드: Dispatcher -> 실제 객체에 그대로 위임
+ * 프록시 객체는 Objenesis로 생성자를 호출하지 않고 만든다 (생성자 인자가 있는 클래스도 가능)
+ */
+@Slf4j
+public class PackageLogTraceProxyPostProcessor implements BeanPostProcessor, SmartInitializingSingleton {
+
+    private final List<String> basePackages;
+    private final ObjectProvider<LogTrace> logTraceProvider;
+    private final ObjectProvider<TracePointcut> pointcutProvider;
+    private final ObjectProvider<ReactiveLogTrace> reactiveLogTraceProvider;
+    private final SpringObjenesis objenesis = new SpringObjenesis();
+    private final Map<Class<?>, ProxyType> proxyTypes = new ConcurrentHashMap<>();
+
+    private int proxiedBeans;
+    private long proxyCreationNanos;
+
+    public PackageLogTraceProxyPostProcessor(List<String> basePackages, ObjectProvider<LogTrace> logTraceProvider,
+                                             ObjectProvider<TracePointcut> pointcutProvider,
+                                             ObjectProvider<ReactiveLogTrace> reactiveLogTraceProvider) {
+        this.basePackages = basePackages;
+        this.logTraceProvider = logTraceProvider;
+        this.pointcutProvider = pointcutProvider;
+        this.reactiveLogTraceProvider = reactiveLogTraceProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        // 다른 후처리기가 이미 CGLIB 프록시로 바꾼 빈(@Repository의 예외 변환 등)은 원래 클래스를 상속하고, 그 프록시에 위임한다
+        Class<?> beanClass = ClassUtils.getUserClass(bean);
+        if (!isTarget(beanClass)) {
+            return bean;
+        }
+        if (Modifier.isFinal(beanClass.getModifiers())) {
+            log.warn("final 클래스는 프록시를 만들 수 없습니다: {}", beanClass.getName());
+            return bean;
+        }
+        long start = System.nanoTime();
+        Object proxy = createProxy(bean, beanClass);
+        proxyCreationNanos += System.nanoTime() - start;
+        proxiedBeans++;
+        log.debug("로그 추적 프록시 생성 {} -> {}", beanName, proxy.getClass().getName());
+        return proxy;
+    }
+
+    private boolean isTarget(Class<?> beanClass) {
+        String packageName = beanClass.getPackageName();
+        for (String basePackage : basePackages) {
+            if (packageName.equals(basePackage) || packageName.startsWith(basePackage + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    Object createProxy(Object target, Class<?> targetClass) {
+        LogTrace logTrace = logTraceProvider.getObject();
+        ProxyType proxyType = proxyTypes.computeIfAbsent(targetClass, this::createProxyType);
+
+        // 0번 콜백은 실제 객체로 위임, 추적 대상 메서드는 메서드마다 자기 콜백을 가진다
+        Callback[] callbacks = new Callback[proxyType.messages().length + 1];
+        callbacks[0] = (Dispatcher) () -> target;
+        for (int i = 0; i < proxyType.messages().length; i++) {
+            String message = proxyType.messages()[i];
+            callbacks[i + 1] = proxyType.reactive()[i]
+                    ? new ReactiveLogTraceMethodInterceptor(target, reactiveLogTraceProvider.getIfAvailable(ReactiveLogTrace::new), message)
+                    : new LogTraceMethodInterceptor(target, logTrace, message);
+        }
+        Object proxy = objenesis.newInstance(proxyType.proxyClass(), false);
+        ((Factory) proxy).setCallbacks(callbacks);
+        return proxy;
+    }
+
+    // 추적할 메서드는 클래스로만 정해지므로 프록시 클래스는 클래스마다 한 번만 만든다 (같은 클래스의 빈이 여러 개여도 재사용)
+    private ProxyType createProxyType(Class<?> targetClass) {
+        TracePointcut pointcut = pointcutProvider.getIfAvailable(() -> TracePointcut.ALL);
+        List<String> messages = new ArrayList<>();
+        List<Boolean> reactive = new ArrayList<>();
+        Map<Method, Integer> callbackIndexes = new HashMap<>();
+        for (Method method : targetClass.getMethods()) {
+            int modifiers = method.getModifiers();
+            if (method.getDeclaringClass() == Object.class || Modifier.isFinal(modifiers) || Modifier.isStatic(modifiers)) {
+                continue;
+            }
+            String message = pointcut.message(targetClass, targetClass, method.getName(), method.getParameterTypes());
+            if (message != null) {
+                messages.add(message);
+                reactive.add(Mono.class.isAssignableFrom(method.getReturnType()));
+                callbackIndexes.put(method, messages.size());
+            }
+        }
+        Class<?>[] callbackTypes = new Class<?>[messages.size() + 1];
+        callbackTypes[0] = Dispatcher.class;
+        Arrays.fill(callbackTypes, 1, callbackTypes.length, MethodInterceptor.class);
+
+        Enhancer enhancer = new Enhancer();
+        enhancer.setSuperclass(targetClass);
+        enhancer.setClassLoader(targetClass.getClassLoader());
+        enhancer.setNamingPolicy(SpringNamingPolicy.INSTANCE);
+        enhancer.setUseFactory(true);
+        enhancer.setUseCache(false); // 클래스별 캐시는 proxyTypes에서 관리
+        enhancer.setCallbackFilter(method -> callbackIndexes.getOrDefault(method, 0));
+        enhancer.setCallbackTypes(callbackTypes);
+        boolean[] reactiveMethods = new boolean[reactive.size()];
+        for (int i = 0; i < reactiveMethods.length; i++) {
+            reactiveMethods[i] = reactive.get(i);
+        }
+        return new ProxyType(enhancer.createClass(), messages.toArray(String[]::new), reactiveMethods);
+    }
+
+    private record ProxyType(Class<?> proxyClass, String[] messages, boolean[] reactive) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        log.info("로그 추적 프록시 {}개 생성 ({}ms, 대상 패키지 {})", proxiedBeans, proxyCreationNanos / 1_000_000, basePackages);
+    }
+
+    // 메서드 하나를 추적하는 콜백. 메시지와 실제 객체를 생성 시점에 고정한다
+    private static final class LogTraceMethodInterceptor implements MethodInterceptor {
+
+        private final Object target;
+        private final LogTrace logTrace;
+        private final String message;
+
+        private LogTraceMethodInterceptor(Object target, LogTrace logTrace, String message) {
+            this.target = target;
+            this.logTrace = logTrace;
+            this.message = message;
+        }
+
+        @Override
+        public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            TraceStatus status = null;
+            try {
+                status = logTrace.begin(message);
+                Object result = methodProxy.invoke(target, args); // 리플렉션 없이 실제 객체 메서드 호출
+                logTrace.end(status);
+                return result;
+            } catch (Exception e) {
+                logTrace.exception(status, e);
+                throw e;
+            }
+        }
+    }
+
+    // Mono를 반환하는 메서드의 콜백. 호출 시점이 아니라 반환한 Mono를 구독할 때 단계가 시작된다
+    private static final class ReactiveLogTraceMethodInterceptor implements MethodInterceptor {
+
+        private final Object target;
+        private final ReactiveLogTrace reactiveLogTrace;
+        private final String message;
+
+        private ReactiveLogTraceMethodInterceptor(Object target, ReactiveLogTrace reactiveLogTrace, String message) {
+            this.target = target;
+            this.reactiveLogTrace = reactiveLogTrace;
+            this.message = message;
+        }
+
+        @Override
+        public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            Mono<?> result = (Mono<?>) methodProxy.invoke(target, args);
+            return result == null ? null : reactiveLogTrace.trace(message, result);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.choongang.proxy.shadow;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("shadow")
+public class ShadowProperties {
+
+    private double sampleRate = 0.0; // 섀도 스택으로 복사할 요청 비율 (0이면 끔, 1이면 전부)
+    private int queueCapacity = 1000; // 가득 차면 복사하지 않고 버린다 (원래 요청은 기다리지 않음)
+    private int threads = 8; // 섀도 요청을 실행할 스레드 수
+
+    public ShadowTrafficMirror createMirror() {
+        return new ShadowTrafficMirror(sampleRate, queueCapacity, threads);
+    }
+}
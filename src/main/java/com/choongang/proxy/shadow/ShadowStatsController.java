@@ -0,0 +1,23 @@
+package com.choongang.proxy.shadow;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// 섀도 비교 결과: 엔드포인트별 원래/섀도 지연 시간과 오류 차이
+@RestController
+@RequiredArgsConstructor
+public class ShadowStatsController {
+
+    private final ShadowTrafficMirror shadowTrafficMirror;
+
+    @GetMapping("/v1/shadow/stats")
+    public ShadowStats stats() {
+        return new ShadowStats(shadowTrafficMirror.queued(), shadowTrafficMirror.snapshot());
+    }
+
+    public record ShadowStats(int queued, List<ShadowTrafficMirror.EndpointSnapshot> endpoints) {
+    }
+}
@@ -0,0 +1,160 @@
+package com.choongang.proxy.shadow;
+
+import com.choongang.proxy.support.LatencyHistogram;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 실제 요청 일부를 섀도 스택(다른 버전의 주문 스택)으로 복사하여 지연 시간과 오류를 나란히 비교한다
+ *
+ * 원래 요청이 끝난 뒤 그 지연 시간/오류 여부와 함께 제한된 대기열에 offer()로 넣기만 하므로 원래 요청은 기다리지 않는다.
+ * 대기열이 가득 차면 복사를 버리고 dropped로 센다. 섀도 스레드는 엔드포인트에 등록된 섀도 호출을 실행하고,
+ * 결과는 버린 채 엔드포인트별 지연 시간 히스토그램(마이크로초)과 오류 차이만 기록한다.
+ */
+@Slf4j
+public class ShadowTrafficMirror implements AutoCloseable {
+
+    private final double sampleRate;
+    private final BlockingQueue<ShadowRequest> queue;
+    private final Map<String, ShadowTarget> targets = new ConcurrentHashMap<>();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public ShadowTrafficMirror(double sampleRate, int queueCapacity, int threads) {
+        this.sampleRate = sampleRate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (sampleRate <= 0) {
+            return; // 꺼져 있으면 스레드를 만들지 않는다
+        }
+        ThreadFactory threadFactory = new CustomizableThreadFactory("shadow-");
+        for (int i = 0; i < threads; i++) {
+            Thread worker = threadFactory.newThread(this::work);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    // 엔드포인트의 섀도 호출 등록 (예: /v1/request -> OrderControllerV3.request)
+    public void register(String endpoint, ShadowTarget target) {
+        targets.put(endpoint, target);
+    }
+
+    // 이번 요청을 복사할지 결정. 복사하지 않을 요청은 시간도 재지 않도록 원래 요청 전에 호출한다
+    public boolean sample(String endpoint) {
+        return sampleRate > 0 && targets.containsKey(endpoint)
+                && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * 원래 요청이 끝난 뒤 호출. 기다리지 않으며 대기열이 가득 차면 버린다
+     * @param primaryNanos 원래 요청의 지연 시간
+     * @param primaryError 원래 요청이 예외로 끝났는지
+     */
+    public void mirror(String endpoint, String argument, long primaryNanos, boolean primaryError) {
+        EndpointStats endpointStats = stats(endpoint);
+        if (!queue.offer(new ShadowRequest(endpoint, argument, primaryNanos, primaryError))) {
+            endpointStats.dropped.incrementAndGet();
+        }
+    }
+
+    private void work() {
+        while (running) {
+            ShadowRequest request;
+            try {
+                request = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            ShadowTarget target = targets.get(request.endpoint());
+            long start = System.nanoTime();
+            boolean shadowError = false;
+            try {
+                target.call(request.argument()); // 결과는 버린다
+            } catch (Exception e) {
+                shadowError = true;
+                log.debug("섀도 요청 오류 {} {}: {}", request.endpoint(), request.argument(), e.toString());
+            }
+            stats(request.endpoint()).record(request.primaryNanos(), request.primaryError(), System.nanoTime() - start, shadowError);
+        }
+    }
+
+    private EndpointStats stats(String endpoint) {
+        return stats.computeIfAbsent(endpoint, key -> new EndpointStats());
+    }
+
+    public List<EndpointSnapshot> snapshot() {
+        List<EndpointSnapshot> snapshots = new ArrayList<>();
+        stats.forEach((endpoint, endpointStats) -> snapshots.add(endpointStats.snapshot(endpoint)));
+        return snapshots;
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    @FunctionalInterface
+    public interface ShadowTarget {
+        void call(String argument) throws Exception;
+    }
+
+    private record ShadowRequest(String endpoint, String argument, long primaryNanos, boolean primaryError) {
+    }
+
+    private static final class EndpointStats {
+
+        private final LatencyHistogram primaryMicros = new LatencyHistogram();
+        private final LatencyHistogram shadowMicros = new LatencyHistogram();
+        private final AtomicLong dropped = new AtomicLong();
+        // 오류 차이: 둘 다 성공 / 원래만 실패 / 섀도만 실패 / 둘 다 실패
+        private final AtomicLong bothOk = new AtomicLong();
+        private final AtomicLong primaryErrorOnly = new AtomicLong();
+        private final AtomicLong shadowErrorOnly = new AtomicLong();
+        private final AtomicLong bothError = new AtomicLong();
+
+        void record(long primaryNanos, boolean primaryError, long shadowNanos, boolean shadowError) {
+            primaryMicros.record(primaryNanos / 1000);
+            shadowMicros.record(shadowNanos / 1000);
+            AtomicLong counter = primaryError
+                    ? (shadowError ? bothError : primaryErrorOnly)
+                    : (shadowError ? shadowErrorOnly : bothOk);
+            counter.incrementAndGet();
+        }
+
+        EndpointSnapshot snapshot(String endpoint) {
+            return new EndpointSnapshot(endpoint, primaryMicros.getCount(), dropped.get(),
+                    LatencySummary.of(primaryMicros), LatencySummary.of(shadowMicros),
+                    bothOk.get(), primaryErrorOnly.get(), shadowErrorOnly.get(), bothError.get());
+        }
+    }
+
+    public record EndpointSnapshot(String endpoint, long mirrored, long dropped, LatencySummary primary, LatencySummary shadow,
+                                   long bothOk, long primaryErrorOnly, long shadowErrorOnly, long bothError) {
+    }
+
+    // 지연 시간 요약 (ms)
+    public record LatencySummary(double meanMs, double p50Ms, double p90Ms, double p99Ms, double maxMs) {
+
+        static LatencySummary of(LatencyHistogram micros) {
+            return new LatencySummary(micros.getMean() / 1000, micros.percentile(50) / 1000.0, micros.percentile(90) / 1000.0,
+                    micros.percentile(99) / 1000.0, micros.getMax() / 1000.0);
+        }
+    }
+}
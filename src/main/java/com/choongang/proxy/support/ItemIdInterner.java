@@ -0,0 +1,63 @@
+package com.choongang.proxy.support;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 상품 아이디(String)를 0부터 시작하는 int 번호로 바꿔준다.
+ * 한 번 부여한 번호는 바뀌지 않으므로, 이후에는 int 번호로 배열/기본형 맵을 바로 사용할 수 있다.
+ * 상품 아이디는 요청에서 그대로 들어오므로 등록 수를 maxSize로 제한한다 (번호를 되돌려 쓰지 않으므로 제거 대신 등록 거절).
+ */
+public class ItemIdInterner {
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private volatile String[] names; // 번호 -> 상품 아이디
+    private volatile int size;
+
+    public ItemIdInterner(int maxSize) {
+        this.maxSize = maxSize;
+        this.names = new String[Math.max(1, Math.min(maxSize, 1024))];
+    }
+
+    // 상품 번호. 처음 보는 상품이면 등록하고, 이미 maxSize개가 등록되어 있으면 -1
+    public int intern(String itemId) {
+        Integer id = ids.get(itemId);
+        if (id != null) {
+            return id;
+        }
+        if (size >= maxSize) {
+            return -1; // 가득 찬 뒤에는 맵에 넣지 않는다
+        }
+        id = ids.computeIfAbsent(itemId, this::register); // 처음 보는 상품만 등록
+        return id == null ? -1 : id;
+    }
+
+    // 이미 등록된 상품의 번호 (없으면 -1). 조회만 할 때 번호가 새로 생기지 않도록 사용
+    public int find(String itemId) {
+        Integer id = ids.get(itemId);
+        return id == null ? -1 : id;
+    }
+
+    public String name(int id) {
+        return names[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // 가득 찼으면 null (computeIfAbsent가 등록하지 않음)
+    private synchronized Integer register(String itemId) {
+        int id = size;
+        if (id >= maxSize) {
+            return null;
+        }
+        if (id == names.length) {
+            names = Arrays.copyOf(names, (int) Math.min((long) id * 2, maxSize));
+        }
+        names[id] = itemId;
+        size = id + 1;
+        return id;
+    }
+}
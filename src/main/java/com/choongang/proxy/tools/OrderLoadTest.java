@@ -0,0 +1,223 @@
+package com.choongang.proxy.tools;
+
+import com.choongang.proxy.support.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 주문 API 부하 테스트 (닫힌 루프: 동시 사용자 수만큼 스레드가 응답을 받자마자 다음 요청)
+ *
+ * 사용법: gradle loadTest --args="[--url URL] [--concurrency N] [--duration-sec N] [--warmup-sec N] [--async] [--server-pid PID]"
+ * 예) 프록시(v1) vs 에이전트 비교
+ *   java -jar app.jar                                                        -> gradle loadTest
+ *   java -javaagent:trace-agent.jar -jar app.jar --spring.profiles.active=agent -> gradle loadTest
+ * 예) 동시 요청 1만 개: 서블릿 v1 vs WebFlux v4
+ *   java -jar app.jar                                  -> gradle loadTest --args="--async --concurrency 10000 --server-pid PID"
+ *   java -jar app.jar --spring.profiles.active=reactive -> gradle loadTest --args="--async --concurrency 10000 --server-pid PID --url http://localhost:8080/v4/request?itemId=item"
+ *
+ * --async: 사용자마다 스레드를 두지 않고 응답이 오면 다음 요청을 보내는 비동기 체인으로 동시 요청을 유지한다 (수천 단위 동시성)
+ * --server-pid: 측정 중 서버 프로세스의 RSS와 스레드 수를 샘플링하여 최대값과 동시 요청 1만 개당 메모리 증가량을 출력하고,
+ *               서버가 쓴 CPU 시간으로 CPU 1초(코어 하나)당 처리한 요청 수를 계산한다 (리눅스)
+ * 예) 경량 입구 vs Tomcat/MVC: java -jar app.jar --ingress.enabled=true
+ *   -> gradle loadTest --args="--server-pid PID"                                          (MVC, 8080)
+ *   -> gradle loadTest --args="--server-pid PID --url http://localhost:8081/v1/request?itemId=item" (ingress)
+ */
+public final class OrderLoadTest {
+
+    private OrderLoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String url = "http://localhost:8080/v1/request?itemId=item";
+        int concurrency = 50;
+        int durationSec = 30;
+        int warmupSec = 10;
+        boolean async = false;
+        long serverPid = -1;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url" -> url = args[++i];
+                case "--concurrency" -> concurrency = Integer.parseInt(args[++i]);
+                case "--duration-sec" -> durationSec = Integer.parseInt(args[++i]);
+                case "--warmup-sec" -> warmupSec = Integer.parseInt(args[++i]);
+                case "--async" -> async = true;
+                case "--server-pid" -> serverPid = Long.parseLong(args[++i]);
+                default -> throw new IllegalArgumentException("알 수 없는 옵션: " + args[i]);
+            }
+        }
+        System.out.printf("부하 테스트 %s 동시 %d%s, 워밍업 %ds, 측정 %ds%n", url, concurrency, async ? "(비동기)" : "", warmupSec, durationSec);
+        ServerSampler sampler = serverPid > 0 ? new ServerSampler(serverPid) : null;
+        long idleRssKb = sampler == null ? -1 : sampler.sample().rssKb();
+        Result warmup = async ? runAsync(url, concurrency, warmupSec) : run(url, concurrency, warmupSec);
+        System.out.printf("워밍업: %,d건%n", warmup.requests());
+        long startCpuTicks = sampler == null ? -1 : sampler.cpuTicks();
+        if (sampler != null) {
+            sampler.start();
+        }
+        Result result = async ? runAsync(url, concurrency, durationSec) : run(url, concurrency, durationSec);
+        result.print(durationSec);
+        if (sampler != null) {
+            sampler.stop();
+            System.out.printf("서버 RSS 유휴 %,d MB, 최대 %,d MB (동시 요청 1만 개당 +%,d MB), 최대 스레드 %,d개%n",
+                    idleRssKb / 1024, sampler.peakRssKb / 1024,
+                    (sampler.peakRssKb - idleRssKb) * 10_000 / concurrency / 1024, sampler.peakThreads);
+            double cpuSec = (sampler.cpuTicks() - startCpuTicks) / (double) ServerSampler.CLOCK_TICKS_PER_SEC;
+            System.out.printf("서버 CPU %.2fs, CPU 1초당 %,.0f건%n", cpuSec, result.requests() / cpuSec);
+        }
+    }
+
+    static Result run(String url, int concurrency, int durationSec) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+        LatencyHistogram latencyMicros = new LatencyHistogram();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + Duration.ofSeconds(durationSec).toNanos();
+
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencyMicros.record((System.nanoTime() - start) / 1000);
+                }
+            }, "load-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return new Result(latencyMicros, errors.get());
+    }
+
+    // 닫힌 루프를 스레드 없이 유지: 응답(또는 오류)을 받으면 같은 사용자가 다음 요청을 보낸다
+    static Result runAsync(String url, int concurrency, int durationSec) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(60)).GET().build();
+        LatencyHistogram latencyMicros = new LatencyHistogram();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + Duration.ofSeconds(durationSec).toNanos();
+        CountDownLatch finished = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            sendNext(client, request, deadline, latencyMicros, errors, finished);
+        }
+        finished.await();
+        return new Result(latencyMicros, errors.get());
+    }
+
+    private static void sendNext(HttpClient client, HttpRequest request, long deadline, LatencyHistogram latencyMicros,
+                                 AtomicLong errors, CountDownLatch finished) {
+        if (System.nanoTime() >= deadline) {
+            finished.countDown();
+            return;
+        }
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, e) -> {
+            if (e != null || response.statusCode() >= 400) {
+                errors.incrementAndGet();
+            }
+            latencyMicros.record((System.nanoTime() - start) / 1000);
+            sendNext(client, request, deadline, latencyMicros, errors, finished);
+        });
+    }
+
+    // /proc/{pid}/status의 VmRSS, Threads를 주기적으로 읽어 최대값을 기록
+    static final class ServerSampler {
+
+        static final int CLOCK_TICKS_PER_SEC = 100; // 리눅스 USER_HZ
+
+        private final Path status;
+        private final Path stat;
+        private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        private volatile long peakRssKb;
+        private volatile long peakThreads;
+
+        ServerSampler(long pid) {
+            this.status = Path.of("/proc", Long.toString(pid), "status");
+            this.stat = Path.of("/proc", Long.toString(pid), "stat");
+        }
+
+        // 프로세스가 사용한 CPU 시간 (utime + stime, 단위 1/100초)
+        long cpuTicks() {
+            try {
+                String line = Files.readString(stat);
+                String[] fields = line.substring(line.lastIndexOf(')') + 2).split(" "); // fields[0]은 stat의 3번째 항목(state)
+                return Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+
+        void start() {
+            scheduler.scheduleAtFixedRate(() -> {
+                Sample sample = sample();
+                peakRssKb = Math.max(peakRssKb, sample.rssKb());
+                peakThreads = Math.max(peakThreads, sample.threads());
+            }, 0, 200, TimeUnit.MILLISECONDS);
+        }
+
+        void stop() throws InterruptedException {
+            scheduler.shutdown();
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        }
+
+        Sample sample() {
+            long rssKb = -1;
+            long threads = -1;
+            try {
+                for (String line : Files.readAllLines(status)) {
+                    if (line.startsWith("VmRSS:")) {
+                        rssKb = Long.parseLong(line.substring(6).replace("kB", "").trim());
+                    } else if (line.startsWith("Threads:")) {
+                        threads = Long.parseLong(line.substring(8).trim());
+                    }
+                }
+            } catch (IOException e) {
+                // 서버 프로세스가 없거나 리눅스가 아님
+            }
+            return new Sample(rssKb, threads);
+        }
+
+        record Sample(long rssKb, long threads) {
+        }
+    }
+
+    record Result(LatencyHistogram latencyMicros, long errors) {
+
+        long requests() {
+            return latencyMicros.getCount();
+        }
+
+        void print(int durationSec) {
+            System.out.printf("요청 %,d건 (%.1f req/s), 오류 %,d건%n", requests(), (double) requests() / durationSec, errors);
+            System.out.printf("지연 시간(ms) 평균 %.2f p50 %.2f p90 %.2f p99 %.2f 최대 %.2f%n",
+                    latencyMicros.getMean() / 1000, latencyMicros.percentile(50) / 1000.0, latencyMicros.percentile(90) / 1000.0,
+                    latencyMicros.percentile(99) / 1000.0, latencyMicros.getMax() / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.choongang.proxy.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 시작 시간 벤치마크: 애플리케이션 프로세스를 띄워 첫 요청이 성공할 때까지의 시간과 그 시점의 RSS를 잰다
+ *
+ * 사용법: gradle startupBenchmark [-Paot] [--args="[--runs N] [--url URL] [--baseline-jar 변경 전.jar]"]
+ * 비교 대상
+ *   before       java -jar 변경 전.jar                               (--baseline-jar를 준 경우만, 빠른 시작 작업 이전 커밋으로 만든 jar)
+ *   eager        java -jar app.jar --app.diagnostics.print-beans=true (변경 전 설정: 즉시 초기화, 웹 로그 TRACE, 빈 목록 출력)
+ *   default      java -jar app.jar                                   (기본 설정: 빈 목록 출력만 꺼짐)
+ *   fast         java -jar app.jar --spring.profiles.active=fast     (지연 초기화, 웹 로그 INFO)
+ *   fast+cds     build/cds에 풀어 놓은 jar + CDS 아카이브 + fast 프로필 (-Paot면 AOT로 처리한 빈 정의까지 사용)
+ * RSS는 /proc/{pid}/status의 VmRSS (리눅스에서만 측정)
+ *
+ * eager는 설정만 변경 전으로 되돌린 것이고 코드는 현재 jar이다 (InterfaceProxyConfig 변경, 이후에 추가된 빈 포함).
+ * 변경 전 코드 그대로의 시간은 before로 잰다: git worktree add /tmp/before {커밋}~1 && (cd /tmp/before && gradle bootJar)
+ */
+public final class StartupBenchmark {
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of("build/libs/project-0.0.1-SNAPSHOT.jar");
+        Path cdsDir = Path.of("build/cds");
+        String url = "http://localhost:8080/v1/orders?top=1";
+        int runs = 3;
+        boolean aot = false;
+        Path baselineJar = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--jar" -> jar = Path.of(args[++i]);
+                case "--baseline-jar" -> baselineJar = Path.of(args[++i]);
+                case "--cds-dir" -> cdsDir = Path.of(args[++i]);
+                case "--url" -> url = args[++i];
+                case "--runs" -> runs = Integer.parseInt(args[++i]);
+                case "--aot" -> aot = true;
+                default -> throw new IllegalArgumentException("알 수 없는 옵션: " + args[i]);
+            }
+        }
+        String java = ProcessHandle.current().info().command().orElse("java");
+        Path absoluteJar = jar.toAbsolutePath();
+
+        List<Case> cases = new ArrayList<>();
+        if (baselineJar != null) {
+            cases.add(new Case("before", null, List.of(java, "-jar", baselineJar.toAbsolutePath().toString())));
+        }
+        cases.add(new Case("eager", null, List.of(java, "-jar", absoluteJar.toString(), "--app.diagnostics.print-beans=true")));
+        cases.add(new Case("default", null, List.of(java, "-jar", absoluteJar.toString())));
+        cases.add(new Case("fast", null, List.of(java, "-jar", absoluteJar.toString(), "--spring.profiles.active=fast")));
+        // CDS 아카이브는 학습 실행과 같은 클래스 경로여야 하므로 build/cds 안에서 같은 상대 경로로 실행한다
+        Path archive = cdsDir.resolve("app.jsa");
+        if (Files.exists(archive)) {
+            List<String> command = new ArrayList<>(List.of(java, "-XX:SharedArchiveFile=app.jsa"));
+            if (aot) {
+                command.add("-Dspring.aot.enabled=true");
+            }
+            command.addAll(List.of("-jar", jar.getFileName().toString(), "--spring.profiles.active=fast"));
+            cases.add(new Case(aot ? "fast+cds+aot" : "fast+cds", cdsDir.toFile(), command));
+        } else {
+            System.out.println("CDS 아카이브 없음(" + archive + "): gradle cdsArchive 로 만든 뒤 다시 실행");
+        }
+
+        System.out.printf("시작 시간 측정 %s, 케이스별 %d회%n", url, runs);
+        for (Case c : cases) {
+            long[] millis = new long[runs];
+            long[] rssKb = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                Sample sample = measure(c, url);
+                millis[run] = sample.millis();
+                rssKb[run] = sample.rssKb();
+            }
+            Arrays.sort(millis);
+            Arrays.sort(rssKb);
+            System.out.printf("%-14s 첫 요청까지 중앙값 %,6d ms (최소 %,6d ms)  RSS 중앙값 %,7d KB%n",
+                    c.name(), millis[runs / 2], millis[0], rssKb[runs / 2]);
+        }
+    }
+
+    static Sample measure(Case c, String url) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+        ProcessBuilder builder = new ProcessBuilder(c.command())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        if (c.workingDir() != null) {
+            builder.directory(c.workingDir());
+        }
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            long deadline = start + TimeUnit.SECONDS.toNanos(120);
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(c.name() + ": 첫 요청 전에 프로세스 종료 (exit " + process.exitValue() + ")");
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(c.name() + ": 120초 안에 첫 요청 실패");
+                }
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() < 500) {
+                        break;
+                    }
+                } catch (ConnectException e) {
+                    // 아직 포트가 열리지 않음
+                }
+                Thread.sleep(20);
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new Sample(millis, rssKb(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    // /proc/{pid}/status의 "VmRSS:  123456 kB" (리눅스가 아니면 -1)
+    static long rssKb(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.substring(6).replace("kB", "").trim());
+            }
+        }
+        return -1;
+    }
+
+    record Case(String name, File workingDir, List<String> command) {
+    }
+
+    record Sample(long millis, long rssKb) {
+    }
+}
@@ -0,0 +1,194 @@
+package com.choongang.proxy.tools;
+
+import com.choongang.proxy.tools.TraceLogChunk.BoundaryFrame;
+import com.choongang.proxy.tools.TraceLogChunk.MessageStats;
+import com.choongang.proxy.tools.TraceLogChunk.SlowTrace;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * LogTrace 텍스트 로그(|-->, |<--, time=Nms) 분석기
+ *
+ * 사용법: gradle analyzeTraceLog --args="[--threads N] [--chunk-mb N] [--top N] [--overhead-ns N] app.log [app.1.log ...]"
+ *   --overhead-ns  span 하나의 추적 장치 비용(/v1/trace/overhead의 nanosPerSpan). 주면 자기 시간에서 뺀 self-adj 열을 더 보여준다
+ *
+ * 파일을 chunk-mb 크기의 구간(줄 단위)으로 나누어 메모리 매핑하고, 여러 스레드가 동시에 한 번씩만 읽는다.
+ * 구간 결과는 파일 순서대로 병합하므로 구간 경계에 걸친 단계의 자기 시간도 계산된다.
+ * 메모리 사용량은 메시지 종류 수, 경계에 걸친 단계 수, top 개수에만 비례한다 (파일 크기와 무관).
+ */
+public final class TraceLogAnalyzer {
+
+    private final int threads;
+    private final long chunkBytes;
+    private final int topTraces;
+
+    public TraceLogAnalyzer(int threads, long chunkBytes, int topTraces) {
+        if (chunkBytes <= 0 || chunkBytes > Integer.MAX_VALUE - 1024 * 1024) {
+            throw new IllegalArgumentException("chunkBytes 범위 오류: " + chunkBytes);
+        }
+        this.threads = threads;
+        this.chunkBytes = chunkBytes;
+        this.topTraces = topTraces;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        long chunkMb = 64;
+        int top = 10;
+        double overheadNanos = 0;
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--chunk-mb" -> chunkMb = Long.parseLong(args[++i]);
+                case "--top" -> top = Integer.parseInt(args[++i]);
+                case "--overhead-ns" -> overheadNanos = Double.parseDouble(args[++i]);
+                default -> files.add(Path.of(args[i]));
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("사용법: TraceLogAnalyzer [--threads N] [--chunk-mb N] [--top N] [--overhead-ns N] <log file>...");
+            System.exit(1);
+        }
+        long start = System.nanoTime();
+        Report report = new TraceLogAnalyzer(threads, chunkMb * 1024 * 1024, top).analyze(files);
+        report.print(System.out, overheadNanos);
+        System.out.printf("분석 시간: %dms (스레드 %d개)%n", (System.nanoTime() - start) / 1_000_000, threads);
+    }
+
+    public Report analyze(List<Path> files) throws IOException {
+        List<FileChannel> channels = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "trace-log-analyzer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<TraceLogChunk>> chunks = new ArrayList<>();
+            for (Path file : files) {
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                channels.add(channel);
+                long start = 0;
+                long size = channel.size();
+                while (start < size) {
+                    long end = nextLineStart(channel, Math.min(size, start + chunkBytes));
+                    long chunkStart = start;
+                    chunks.add(executor.submit(() -> {
+                        TraceLogChunk chunk = new TraceLogChunk(topTraces);
+                        chunk.parse(channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, end - chunkStart));
+                        return chunk;
+                    }));
+                    start = end;
+                }
+            }
+            return merge(chunks);
+        } finally {
+            executor.shutdownNow();
+            for (FileChannel channel : channels) {
+                channel.close();
+            }
+        }
+    }
+
+    // position 이후 첫 줄의 시작 위치 (청크가 줄 중간에서 잘리지 않도록)
+    private static long nextLineStart(FileChannel channel, long position) throws IOException {
+        long size = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private Report merge(List<Future<TraceLogChunk>> chunks) throws IOException {
+        Map<String, MessageStats> messages = new HashMap<>();
+        Map<Long, Long> carriedChildTime = new HashMap<>(); // 앞 청크들에서 부모가 끝나지 않은 자식 시간
+        List<SlowTrace> slowest = new ArrayList<>();
+        long lines = 0;
+        long traceLines = 0;
+        for (Future<TraceLogChunk> future : chunks) {
+            TraceLogChunk chunk = get(future);
+            lines += chunk.lines;
+            traceLines += chunk.traceLines;
+            chunk.messages.forEach((message, stats) -> messages.computeIfAbsent(message, MessageStats::new).merge(stats));
+            for (BoundaryFrame frame : chunk.boundaryFrames) {
+                Long carried = carriedChildTime.remove(frame.frame());
+                long selfTime = frame.remainingMs() - (carried == null ? 0 : carried);
+                messages.get(frame.message()).addSelfTime(Math.max(0, selfTime));
+            }
+            chunk.openChildTime.forEach((frame, timeMs) -> carriedChildTime.merge(frame, timeMs, Long::sum));
+            slowest.addAll(chunk.slowest);
+        }
+        slowest.sort(Comparator.comparingLong(SlowTrace::timeMs).reversed());
+        List<MessageStats> sorted = new ArrayList<>(messages.values());
+        sorted.sort(Comparator.comparingLong((MessageStats stats) -> stats.latency.getSum()).reversed());
+        return new Report(sorted, slowest.subList(0, Math.min(topTraces, slowest.size())), lines, traceLines);
+    }
+
+    private static TraceLogChunk get(Future<TraceLogChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("분석 중단", e);
+        } catch (ExecutionException e) {
+            throw new IOException("로그 청크 분석 실패", e.getCause());
+        }
+    }
+
+    public record Report(List<MessageStats> messages, List<SlowTrace> slowest, long lines, long traceLines) {
+
+        public MessageStats message(String message) {
+            return messages.stream().filter(stats -> stats.message.equals(message)).findFirst().orElse(null);
+        }
+
+        public void print(PrintStream out) {
+            print(out, 0);
+        }
+
+        public void print(PrintStream out, double overheadNanosPerSpan) {
+            boolean adjusted = overheadNanosPerSpan > 0;
+            out.printf("전체 %,d줄, 추적 로그 %,d줄%n%n", lines, traceLines);
+            out.println("== 메시지별 실행 시간 (ms) ==");
+            if (adjusted) {
+                out.printf("self-adj: 자기 시간 - 호출 수 x %.0fns (추적 장치 비용)%n", overheadNanosPerSpan);
+            }
+            out.printf("%10s %7s %7s %7s %7s %7s %10s %10s%s  %s%n",
+                    "count", "error%", "p50", "p90", "p99", "max", "total", "self", adjusted ? String.format(" %10s", "self-adj") : "", "message");
+            for (MessageStats stats : messages) {
+                long count = stats.latency.getCount();
+                out.printf("%,10d %6.2f%% %7d %7d %7d %7d %,10d %,10d%s  %s%n",
+                        count, count == 0 ? 0 : stats.errors * 100.0 / count,
+                        stats.latency.percentile(50), stats.latency.percentile(90), stats.latency.percentile(99),
+                        stats.latency.getMax(), stats.latency.getSum(), stats.selfTimeMs,
+                        adjusted ? String.format(" %,10d", stats.adjustedSelfTimeMs(overheadNanosPerSpan)) : "", stats.message);
+            }
+            out.println();
+            out.println("== 가장 느린 트레이스 (레벨 0) ==");
+            for (SlowTrace trace : slowest) {
+                out.printf("[%s] %,dms %s%s%n", trace.id(), trace.timeMs(), trace.message(), trace.error() ? " (예외)" : "");
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.choongang.proxy.tools;
+
+import com.choongang.proxy.support.LatencyHistogram;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 로그 파일의 한 구간(줄 단위로 자른 청크)을 읽어 집계한다. 청크마다 스레드 하나가 처리한다.
+ *
+ * 읽는 줄 형식 (ThreadLocalLogTrace, FieldLogTrace, HelloTraceV1/V2)
+ *   [id] |   |-->OrderService.orderItem()
+ *   [id] |   |<--OrderService.orderItem() time=12ms
+ *   [id] |   |<X-OrderService.orderItem() time=12ms ex=java.lang.IllegalStateException: 예외 발생!
+ *   [id] OrderController.request() time=15ms          (레벨 0은 접두사 없음)
+ *
+ * 자기 시간(self time) = 실행 시간 - 바로 아래 레벨 단계들의 실행 시간 합.
+ * 같은 [id]의 (레벨 + 1) 종료 줄을 (id, 레벨)별로 더해 두었다가 부모 단계의 종료 줄에서 뺀다.
+ * 시작 줄이 이 청크에 없는 단계는 앞 청크에 자식이 있을 수 있으므로 BoundaryFrame으로 남겨 병합할 때 마무리한다.
+ */
+final class TraceLogChunk {
+
+    final Map<String, MessageStats> messages = new HashMap<>();
+    // 부모가 이 청크에서 끝나지 않은 자식 실행 시간 합: (id, 부모 레벨) -> ms
+    final Map<Long, Long> openChildTime = new HashMap<>();
+    final List<BoundaryFrame> boundaryFrames = new ArrayList<>();
+    final PriorityQueue<SlowTrace> slowest = new PriorityQueue<>((a, b) -> Long.compare(a.timeMs(), b.timeMs()));
+    long lines;
+    long traceLines;
+
+    private final int topTraces;
+    // 이 청크에서 시작 줄을 보았지만 아직 끝나지 않은 단계 수: (id, 레벨) -> 개수
+    // 배치 요청처럼 같은 트랜잭션의 같은 레벨 단계가 여러 스레드에서 동시에 실행되면 개수가 2 이상이 된다
+    private final Map<Long, Integer> begun = new HashMap<>();
+    private byte[] scratch = new byte[256];
+
+    TraceLogChunk(int topTraces) {
+        this.topTraces = topTraces;
+    }
+
+    void parse(ByteBuffer buffer) {
+        int limit = buffer.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            lines++;
+            parseLine(buffer, lineStart, contentEnd);
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    private void parseLine(ByteBuffer buffer, int start, int end) {
+        int bracket = findTraceId(buffer, start, end);
+        if (bracket < 0) {
+            return;
+        }
+        long id = parseHexId(buffer, bracket + 1);
+        int p = bracket + 11; // "[xxxxxxxx] " 다음
+        int level = 0;
+        boolean begin = false;
+        boolean complete = false;
+        while (p + 4 <= end && buffer.get(p) == '|') {
+            byte b1 = buffer.get(p + 1);
+            byte b2 = buffer.get(p + 2);
+            byte b3 = buffer.get(p + 3);
+            p += 4;
+            level++;
+            if (b1 == ' ' && b2 == ' ' && b3 == ' ') {
+                continue;
+            }
+            begin = b1 == '-' && b2 == '-' && b3 == '>';
+            complete = (b1 == '<' && b2 == '-' && b3 == '-') || (b1 == '<' && b2 == 'X' && b3 == '-');
+            break;
+        }
+        if (level > 0 && !begin && !complete) {
+            return; // 접두사 형식이 아님
+        }
+
+        int time = begin ? -1 : indexOf(buffer, p, end, " time=");
+        if (time < 0) {
+            if (!complete) {
+                traceLines++;
+                begun.merge(key(id, level), 1, Integer::sum);
+            }
+            return;
+        }
+        long timeMs = 0;
+        int digit = time + 6;
+        while (digit < end && buffer.get(digit) >= '0' && buffer.get(digit) <= '9') {
+            timeMs = timeMs * 10 + (buffer.get(digit++) - '0');
+        }
+        if (digit == time + 6 || digit + 2 > end || buffer.get(digit) != 'm' || buffer.get(digit + 1) != 's') {
+            return;
+        }
+        boolean error = indexOf(buffer, digit + 2, end, " ex=") >= 0;
+        traceLines++;
+        complete(id, level, message(buffer, p, time), timeMs, error);
+    }
+
+    private void complete(long id, int level, String message, long timeMs, boolean error) {
+        MessageStats stats = messages.computeIfAbsent(message, MessageStats::new);
+        stats.record(timeMs, error);
+
+        long frame = key(id, level);
+        if (level > 0) {
+            openChildTime.merge(key(id, level - 1), timeMs, Long::sum);
+        }
+        Long childTime = openChildTime.remove(frame);
+        long remaining = timeMs - (childTime == null ? 0 : childTime);
+        if (removeBegun(frame)) {
+            stats.addSelfTime(Math.max(0, remaining));
+        } else {
+            boundaryFrames.add(new BoundaryFrame(frame, message, remaining));
+        }
+
+        if (level == 0 && topTraces > 0) {
+            if (slowest.size() < topTraces) {
+                slowest.add(new SlowTrace(String.format("%08x", id), message, timeMs, error));
+            } else if (slowest.peek().timeMs() < timeMs) {
+                slowest.poll();
+                slowest.add(new SlowTrace(String.format("%08x", id), message, timeMs, error));
+            }
+        }
+    }
+
+    // 시작 줄을 본 단계 하나를 끝낸다. 이 청크에서 시작하지 않았으면 false
+    private boolean removeBegun(long frame) {
+        Integer count = begun.get(frame);
+        if (count == null) {
+            return false;
+        }
+        if (count == 1) {
+            begun.remove(frame);
+        } else {
+            begun.put(frame, count - 1);
+        }
+        return true;
+    }
+
+    private String message(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    static long key(long id, int level) {
+        return (id << 8) | (level & 0xFF);
+    }
+
+    // "[8자리 hex] " 위치 (스레드 이름 등 다른 대괄호는 건너뜀)
+    private static int findTraceId(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i + 11 <= end; i++) {
+            if (buffer.get(i) == '[' && buffer.get(i + 9) == ']' && buffer.get(i + 10) == ' ' && parseHexId(buffer, i + 1) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long parseHexId(ByteBuffer buffer, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            byte b = buffer.get(i);
+            int digit = b >= '0' && b <= '9' ? b - '0' : b >= 'a' && b <= 'f' ? b - 'a' + 10 : -1;
+            if (digit < 0) {
+                return -1;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private static int indexOf(ByteBuffer buffer, int from, int end, String ascii) {
+        int length = ascii.length();
+        outer:
+        for (int i = from; i + length <= end; i++) {
+            for (int j = 0; j < length; j++) {
+                if (buffer.get(i + j) != ascii.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    // 시작 줄이 이 청크에 없던 단계. remainingMs에서 앞 청크에 남은 자식 시간을 빼야 자기 시간이 된다
+    record BoundaryFrame(long frame, String message, long remainingMs) {
+    }
+
+    record SlowTrace(String id, String message, long timeMs, boolean error) {
+    }
+
+    static final class MessageStats {
+        final String message;
+        final LatencyHistogram latency = new LatencyHistogram();
+        long errors;
+        long selfTimeMs;
+
+        MessageStats(String message) {
+            this.message = message;
+        }
+
+        void record(long timeMs, boolean error) {
+            latency.record(timeMs);
+            if (error) {
+                errors++;
+            }
+        }
+
+        void addSelfTime(long timeMs) {
+            selfTimeMs += timeMs;
+        }
+
+        // 자기 시간에서 span마다 추적 장치 비용(/v1/trace/overhead의 nanosPerSpan)을 뺀 값
+        long adjustedSelfTimeMs(double overheadNanosPerSpan) {
+            return Math.max(0, selfTimeMs - Math.round(latency.getCount() * overheadNanosPerSpan / 1_000_000));
+        }
+
+        void merge(MessageStats other) {
+            latency.merge(other.latency);
+            errors += other.errors;
+            selfTimeMs += other.selfTimeMs;
+        }
+    }
+}
@@ -1,31 +1,95 @@
 package com.choongang.proxy.trace;
 
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class TraceId {
-    private String id; // 트랜잭션 ID
-    private int level; // 깊이
+    private final String id; // 트랜잭션 ID (로그 표시용, 128비트 trace id의 앞 8자리 hex)
+    private final int level; // 깊이
+
+    // W3C Trace Context(traceparent)와 호환되는 식별자. 서비스 간 호출을 하나의 트랜잭션으로 이어준다
+    private final long traceIdHigh; // 128비트 trace id 상위 64비트
+    private final long traceIdLow; // 128비트 trace id 하위 64비트
+    private final long spanId; // 이 단계(span)의 id
+    private final long parentSpanId; // 호출한 단계의 span id (없으면 0)
+    private final int flags; // trace-flags (01 = sampled)
+    private final TraceId parent; // 이전 단계 (createPreviousId()에서 그대로 돌려준다)
+    private final String vendorState; // 전달받은 tracestate 중 다른 서비스의 항목 (다음 서비스로 그대로 전달, 없으면 null)
 
     public TraceId() {
-        this.id = createId();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        this.traceIdHigh = nonZero(random.nextLong());
+        this.traceIdLow = random.nextLong();
+        this.spanId = nonZero(random.nextLong());
+        this.parentSpanId = 0L;
+        this.flags = 1;
         this.level = 0;
+        this.parent = null;
+        this.vendorState = null;
+        this.id = createId(traceIdHigh);
     }
 
-    private TraceId(String id, int level) {
+    private TraceId(String id, long traceIdHigh, long traceIdLow, long spanId, long parentSpanId, int flags, int level, TraceId parent,
+                    String vendorState) {
         this.id = id;
+        this.traceIdHigh = traceIdHigh;
+        this.traceIdLow = traceIdLow;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.flags = flags;
         this.level = level;
+        this.parent = parent;
+        this.vendorState = vendorState;
+    }
+
+    /**
+     * 다른 서비스에서 전달받은 호출 정보(traceparent)로 TraceId를 만든다.
+     * 반환된 TraceId는 호출한 쪽의 단계를 나타내며, 이 서비스의 첫 로그는 그 다음 레벨(level + 1)로 시작한다.
+     * @param remoteSpanId 호출한 쪽 span id (traceparent의 parent-id)
+     * @param level 호출한 쪽 레벨. 모르면 -1 (이 서비스의 첫 로그가 레벨 0으로 시작)
+     */
+    public static TraceId fromRemote(long traceIdHigh, long traceIdLow, long remoteSpanId, int flags, int level) {
+        return fromRemote(traceIdHigh, traceIdLow, remoteSpanId, flags, level, null);
     }
 
-    private String createId() {
-        return UUID.randomUUID().toString().substring(0, 8);
+    /**
+     * @param vendorState 전달받은 tracestate에서 이 프로젝트의 항목을 뺀 나머지 (없으면 null)
+     */
+    public static TraceId fromRemote(long traceIdHigh, long traceIdLow, long remoteSpanId, int flags, int level, String vendorState) {
+        return new TraceId(createId(traceIdHigh), traceIdHigh, traceIdLow, remoteSpanId, 0L, flags, level, null, vendorState);
+    }
+
+    private static String createId(long traceIdHigh) {
+        char[] chars = new char[8];
+        for (int i = 0; i < 8; i++) {
+            chars[i] = Character.forDigit((int) (traceIdHigh >>> (60 - i * 4)) & 0xF, 16);
+        }
+        return new String(chars);
+    }
+
+    private static long nonZero(long value) {
+        return value == 0 ? 1 : value;
     }
 
     public TraceId createNextId() {
-        return new TraceId(id, level + 1);
+        long nextSpanId = nonZero(ThreadLocalRandom.current().nextLong());
+        return new TraceId(id, traceIdHigh, traceIdLow, nextSpanId, spanId, flags, level + 1, this, vendorState);
     }
 
     public TraceId createPreviousId() {
-        return new TraceId(id, level - 1);
+        if (parent != null) {
+            return parent; // 이전 단계의 span 정보를 그대로 복원
+        }
+        return new TraceId(id, traceIdHigh, traceIdLow, parentSpanId, 0L, flags, level - 1, null, vendorState);
+    }
+
+    /**
+     * 이 단계가 끝난 뒤 보관할 TraceId (LogTrace 구현체가 end/exception에서 사용)
+     * 첫 단계라도 attach()로 붙인 호출 정보(원격 traceparent, 제출한 스레드의 TraceId) 아래에서 시작했으면 그 호출 정보로 돌아간다:
+     * 같은 요청의 다음 첫 단계도 같은 트랜잭션으로 이어지고, 붙인 쪽(TraceContextFilter 등)이 끝날 때 원래 값으로 되돌린다.
+     * 새 트랜잭션의 첫 단계면 null
+     */
+    public TraceId createReleasedId() {
+        return isFirstLevel() && parent == null ? null : createPreviousId();
     }
 
     public boolean isFirstLevel() {
@@ -39,4 +103,28 @@ public class TraceId {
     public int getLevel() {
         return level;
     }
+
+    public long getTraceIdHigh() {
+        return traceIdHigh;
+    }
+
+    public long getTraceIdLow() {
+        return traceIdLow;
+    }
+
+    public long getSpanId() {
+        return spanId;
+    }
+
+    public long getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public String getVendorState() {
+        return vendorState;
+    }
 }
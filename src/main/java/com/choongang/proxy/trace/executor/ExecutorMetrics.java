@@ -0,0 +1,58 @@
+package com.choongang.proxy.trace.executor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executor 작업의 대기 시간(queue wait)과 실행 시간(run)을 따로 집계한다.
+ * 대기 시간이 크면 스레드 풀 포화, 실행 시간이 크면 호출 대상 자체가 느린 것이다.
+ */
+public class ExecutorMetrics {
+
+    private final LongAdder taskCount = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final LongAdder totalRunNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+
+    public void record(long queueWaitNanos, long runNanos) {
+        taskCount.increment();
+        totalQueueWaitNanos.add(queueWaitNanos);
+        totalRunNanos.add(runNanos);
+        maxQueueWaitNanos.accumulateAndGet(queueWaitNanos, Math::max);
+        maxRunNanos.accumulateAndGet(runNanos, Math::max);
+    }
+
+    public long getTaskCount() {
+        return taskCount.sum();
+    }
+
+    public long getAvgQueueWaitMicros() {
+        return average(totalQueueWaitNanos.sum());
+    }
+
+    public long getAvgRunMicros() {
+        return average(totalRunNanos.sum());
+    }
+
+    public long getMaxQueueWaitMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxQueueWaitNanos.get());
+    }
+
+    public long getMaxRunMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxRunNanos.get());
+    }
+
+    private long average(long totalNanos) {
+        long count = taskCount.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos / count);
+    }
+
+    @Override
+    public String toString() {
+        return "tasks=" + getTaskCount()
+                + " queueWait(avg/max)=" + getAvgQueueWaitMicros() + "/" + getMaxQueueWaitMicros() + "us"
+                + " run(avg/max)=" + getAvgRunMicros() + "/" + getMaxRunMicros() + "us";
+    }
+}
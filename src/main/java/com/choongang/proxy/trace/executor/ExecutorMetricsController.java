@@ -0,0 +1,20 @@
+package com.choongang.proxy.trace.executor;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// 주문 스레드 풀별 작업 대기 시간(queueWait)과 실행 시간(run): 대기 시간이 크면 풀 포화, 실행 시간이 크면 호출 대상이 느림
+@RestController
+@RequiredArgsConstructor
+public class ExecutorMetricsController {
+
+    private final Map<String, ExecutorMetrics> metrics; // Executor 이름 -> 지표
+
+    @GetMapping("/v1/executor/stats")
+    public Map<String, ExecutorMetrics> stats() {
+        return metrics;
+    }
+}
@@ -0,0 +1,60 @@
+package com.choongang.proxy.trace.executor;
+
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 작업을 제출한 스레드의 TraceId를 작업 스레드로 전달하는 Executor 래퍼
+ * 작업 스레드에서 시작한 로그는 제출한 스레드 로그의 하위 레벨(level + 1)로 이어진다.
+ * 작업마다 대기 시간(제출 ~ 실행 시작)과 실행 시간을 따로 측정하여 ExecutorMetrics에 기록한다.
+ * (ExecutorConfig의 ExecutorMetrics 빈을 넘기면 /v1/executor/stats 에서 조회할 수 있다)
+ */
+@Slf4j
+public class TraceContextExecutor implements Executor {
+
+    @Getter
+    private final String name; // 로그와 지표에 표시할 Executor 이름
+    private final Executor delegate; // 실제 작업을 실행하는 Executor
+    private final LogTrace logTrace;
+    @Getter
+    private final ExecutorMetrics metrics;
+
+    public TraceContextExecutor(String name, Executor delegate, LogTrace logTrace) {
+        this(name, delegate, logTrace, new ExecutorMetrics());
+    }
+
+    public TraceContextExecutor(String name, Executor delegate, LogTrace logTrace, ExecutorMetrics metrics) {
+        this.name = name;
+        this.delegate = delegate;
+        this.logTrace = logTrace;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        TraceId submitterTraceId = logTrace.currentTraceId(); // 제출한 스레드의 TraceId
+        long submitNanos = System.nanoTime();
+        delegate.execute(() -> {
+            long startNanos = System.nanoTime();
+            // 작업 스레드가 원래 가지고 있던 TraceId (CallerRunsPolicy로 제출 스레드에서 실행되는 경우 대비)
+            TraceId previous = logTrace.currentTraceId();
+            logTrace.attach(submitterTraceId);
+            try {
+                command.run();
+            } finally {
+                logTrace.attach(previous); // 작업 스레드의 원래 상태로 복구
+                long queueWaitNanos = startNanos - submitNanos;
+                long runNanos = System.nanoTime() - startNanos;
+                metrics.record(queueWaitNanos, runNanos);
+                if (log.isDebugEnabled()) {
+                    log.debug("[{}] {} queueWait={}us run={}us", submitterTraceId == null ? "-" : submitterTraceId.getId(),
+                            name, queueWaitNanos / 1000, runNanos / 1000);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,11 @@
+package com.choongang.proxy.trace.export;
+
+// 파일에서 읽은 span 한 건
+public record ExportedSpan(long traceIdHigh, long traceIdLow, long spanId, long parentSpanId, int level,
+                           String message, long startTimeMs, long durationMs, boolean error) {
+
+    // 로그의 [id]와 같은 값 (trace id 앞 8자리 hex)
+    public String id() {
+        return String.format("%08x", traceIdHigh >>> 32);
+    }
+}
@@ -0,0 +1,76 @@
+package com.choongang.proxy.trace.export;
+
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LogTrace 데코레이터: 기존 LogTrace의 동작(TraceId 관리, 텍스트 로그)은 그대로 두고,
+ * 끝난 단계를 SpanExporter로도 내보낸다.
+ *
+ * 내보내기가 실패해도 추적 대상 호출은 실패하지 않는다: 예외는 droppedSpans로 세고,
+ * target.end()/exception()은 항상 호출하여 스레드의 TraceId(레벨)가 남지 않게 한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ExportingLogTrace implements LogTrace {
+
+    private final LogTrace target;
+    private final SpanExporter exporter;
+    private final LongAdder droppedSpans = new LongAdder(); // exporter 예외로 내보내지 못한 span
+
+    @Override
+    public TraceStatus begin(String message) {
+        return target.begin(message);
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        try {
+            export(status, false);
+        } finally {
+            target.end(status);
+        }
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        try {
+            export(status, true);
+        } finally {
+            target.exception(status, e);
+        }
+    }
+
+    private void export(TraceStatus status, boolean error) {
+        if (status == null) {
+            return; // NoLogTrace
+        }
+        try {
+            exporter.export(status.getTraceId(), status.getMessage(), status.getStartTimeMs(), System.currentTimeMillis(), error);
+        } catch (RuntimeException e) {
+            droppedSpans.increment();
+            if (droppedSpans.sum() == 1) {
+                log.warn("span 내보내기 실패 (이후 실패는 droppedSpans로만 센다)", e);
+            }
+        }
+    }
+
+    public long getDroppedSpans() {
+        return droppedSpans.sum();
+    }
+
+    @Override
+    public TraceId currentTraceId() {
+        return target.currentTraceId();
+    }
+
+    @Override
+    public void attach(TraceId traceId) {
+        target.attach(traceId);
+    }
+}
@@ -0,0 +1,210 @@
+package com.choongang.proxy.trace.export;
+
+import com.choongang.proxy.trace.TraceId;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.choongang.proxy.trace.export.SpanFileFormat.*;
+
+/**
+ * span을 바이너리 형식(SpanFileFormat)으로 메모리 매핑 파일에 기록한다.
+ *
+ * 파일 전체(fileSize)를 미리 매핑해 두고 버퍼에 바로 쓰므로 span마다 시스템 콜이 없다.
+ * 파일이 가득 차면 새 파일로 넘어가고(사전과 기준 시간도 새로 시작), 오래된 파일은 maxFiles 개만 남긴다.
+ * 새 파일을 열지 못하면(디스크 가득 참 등) 예외를 던지지 않고 span을 버리며(droppedSpans), 1초 뒤 다시 연다.
+ *
+ * 모든 스레드가 this 락 하나로 기록하므로, span이 매우 많은 부하에서는 이 락이 경합 지점이 된다.
+ */
+@Slf4j
+public class MappedSpanFileWriter implements SpanExporter {
+
+    private final Path directory;
+    private final String prefix;
+    private final int fileSize;
+    private final int maxFiles;
+    private final ArrayDeque<Path> files = new ArrayDeque<>();
+
+    // 아래 필드는 모두 this 락 안에서만 사용
+    private final Map<String, Integer> dictionary = new HashMap<>(); // 현재 파일의 메시지 사전
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int fileSequence;
+    private long previousStartMs;
+    private long previousTraceIdHigh;
+    private long previousTraceIdLow;
+    private boolean hasPreviousTrace;
+    private boolean closed;
+    private long nextOpenAttemptMs; // 파일 열기 실패 후 다시 시도할 시각
+    private long exportedSpans;
+    private long droppedSpans;
+
+    public MappedSpanFileWriter(Path directory, String prefix, int fileSize, int maxFiles) {
+        if (fileSize < 4096) {
+            throw new IllegalArgumentException("fileSize는 4096 이상이어야 합니다: " + fileSize);
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.fileSize = fileSize;
+        this.maxFiles = Math.max(1, maxFiles);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        openNextFile(); // 처음 열 때 실패하면 설정 오류이므로 예외를 그대로 던진다
+    }
+
+    @Override
+    public synchronized void export(TraceId traceId, String message, long startTimeMs, long endTimeMs, boolean error) {
+        if (closed) {
+            return;
+        }
+        if (buffer == null && !tryOpenNextFile()) {
+            droppedSpans++; // 파일을 열지 못한 상태
+            return;
+        }
+        Integer messageId = dictionary.get(message);
+        byte[] messageBytes = messageId == null ? message.getBytes(StandardCharsets.UTF_8) : null;
+        int required = MAX_SPAN_SIZE + (messageBytes == null ? 0 : 1 + 5 + 5 + messageBytes.length);
+        if (buffer.remaining() < required + 1) { // 끝 표시(0) 한 바이트는 남겨 둔다
+            if (!tryOpenNextFile()) {
+                droppedSpans++;
+                return;
+            }
+            if (buffer.remaining() < required + 1) {
+                droppedSpans++; // 파일 하나에 들어가지 않는 메시지
+                return;
+            }
+            messageId = null;
+            messageBytes = message.getBytes(StandardCharsets.UTF_8);
+        }
+        if (messageId == null) {
+            messageId = dictionary.size();
+            dictionary.put(message, messageId);
+            buffer.put((byte) DICT);
+            putVarint(buffer, messageId);
+            putVarint(buffer, messageBytes.length);
+            buffer.put(messageBytes);
+        }
+
+        boolean newTrace = !hasPreviousTrace
+                || traceId.getTraceIdHigh() != previousTraceIdHigh || traceId.getTraceIdLow() != previousTraceIdLow;
+        boolean root = traceId.getParentSpanId() == 0;
+        int tag = SPAN | (error ? FLAG_ERROR : 0) | (newTrace ? FLAG_NEW_TRACE : 0) | (root ? FLAG_ROOT : 0);
+        buffer.put((byte) tag);
+        putVarint(buffer, messageId);
+        if (newTrace) {
+            buffer.putLong(traceId.getTraceIdHigh());
+            buffer.putLong(traceId.getTraceIdLow());
+            previousTraceIdHigh = traceId.getTraceIdHigh();
+            previousTraceIdLow = traceId.getTraceIdLow();
+            hasPreviousTrace = true;
+        }
+        buffer.putLong(traceId.getSpanId());
+        if (!root) {
+            buffer.putLong(traceId.getParentSpanId());
+        }
+        putVarint(buffer, Math.max(0, traceId.getLevel()));
+        putVarint(buffer, zigzag(startTimeMs - previousStartMs)); // 끝난 순서로 기록하므로 음수일 수 있다
+        putVarint(buffer, Math.max(0, endTimeMs - startTimeMs));
+        previousStartMs = startTimeMs;
+        exportedSpans++;
+    }
+
+    // 새 파일을 연다. 실패하면 현재 파일은 닫힌 상태(buffer == null)로 두고 false
+    private boolean tryOpenNextFile() {
+        long now = System.currentTimeMillis();
+        if (now < nextOpenAttemptMs) {
+            finishCurrentFile();
+            return false;
+        }
+        try {
+            openNextFile();
+            return true;
+        } catch (UncheckedIOException e) {
+            nextOpenAttemptMs = now + 1000; // 실패한 파일 열기를 span마다 반복하지 않는다
+            log.warn("span 파일 열기 실패, 1초 동안 span을 버립니다", e);
+            return false;
+        }
+    }
+
+    private void openNextFile() {
+        finishCurrentFile();
+        Path file = directory.resolve(String.format("%s-%d-%04d.spans", prefix, System.currentTimeMillis(), fileSequence++));
+        try {
+            FileChannel opened = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                buffer = opened.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            } catch (IOException e) {
+                opened.close(); // 매핑에 실패한 파일은 남기지 않는다
+                deleteQuietly(file);
+                throw e;
+            }
+            channel = opened;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        files.addLast(file);
+        while (files.size() > maxFiles) {
+            deleteQuietly(files.removeFirst());
+        }
+
+        dictionary.clear();
+        hasPreviousTrace = false;
+        previousStartMs = System.currentTimeMillis();
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        buffer.putLong(previousStartMs);
+    }
+
+    // 기록한 위치까지만 남기고 파일을 닫는다 (남은 영역은 0 = 끝 표시)
+    private void finishCurrentFile() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            buffer.force();
+            channel.truncate(buffer.position() + 1L);
+            channel.close();
+        } catch (IOException e) {
+            log.warn("span 파일 닫기 실패", e);
+        }
+        channel = null;
+        buffer = null;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("오래된 span 파일 삭제 실패 {}", file, e);
+        }
+    }
+
+    public synchronized long getExportedSpans() {
+        return exportedSpans;
+    }
+
+    public synchronized long getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            finishCurrentFile();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.choongang.proxy.trace.export;
+
+import com.choongang.proxy.trace.TraceId;
+
+// 끝난 단계(span)를 외부(파일 등)로 내보낸다. 여러 스레드에서 동시에 호출된다
+public interface SpanExporter extends AutoCloseable {
+
+    void export(TraceId traceId, String message, long startTimeMs, long endTimeMs, boolean error);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,65 @@
+package com.choongang.proxy.trace.export;
+
+import java.nio.ByteBuffer;
+
+/**
+ * span 파일 형식 (모든 정수는 big-endian, varint는 7비트씩 하위부터)
+ *
+ * 헤더 : magic(int "PXSP") version(byte) baseTimeMs(long)
+ * 사전 : DICT(byte) id(varint) length(varint) UTF-8 메시지
+ *        파일마다 메시지 문자열을 한 번만 쓰고, span은 id로 참조한다
+ * span : SPAN|flags(byte) messageId(varint) [traceIdHigh(long) traceIdLow(long)] spanId(long) [parentSpanId(long)]
+ *        level(varint) 시작 시간 변화량(zigzag varint, 직전 span 기준) 실행 시간 ms(varint)
+ *        - FLAG_NEW_TRACE: 직전 span과 trace id가 다를 때만 trace id를 쓴다
+ *        - FLAG_ROOT: 부모 span이 없으면 parentSpanId를 생략한다
+ * 끝   : 0 (파일의 남은 영역은 0으로 채워져 있다)
+ */
+final class SpanFileFormat {
+
+    static final int MAGIC = 0x50585350;
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = 4 + 1 + 8;
+
+    static final int TYPE_MASK = 0x0F;
+    static final int END = 0;
+    static final int DICT = 1;
+    static final int SPAN = 2;
+
+    static final int FLAG_ERROR = 0x10;
+    static final int FLAG_NEW_TRACE = 0x20;
+    static final int FLAG_ROOT = 0x40;
+
+    // span 한 건의 최대 크기: tag + messageId + trace id + span id + parent id + level + 시작 시간 + 실행 시간
+    static final int MAX_SPAN_SIZE = 1 + 5 + 16 + 8 + 8 + 5 + 10 + 10;
+
+    private SpanFileFormat() {
+    }
+
+    static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("잘못된 varint");
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,134 @@
+package com.choongang.proxy.trace.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import static com.choongang.proxy.trace.export.SpanFileFormat.*;
+
+/**
+ * MappedSpanFileWriter가 기록한 파일을 처음부터 span 단위로 읽는다.
+ * 파일을 읽기 전용으로 매핑하고 필요한 부분만 순서대로 읽으므로 파일 전체를 메모리에 올리지 않는다.
+ * 기록 중인 파일은 마지막까지 온전하게 쓰인 span까지만 읽는다.
+ */
+public class SpanFileReader implements Iterator<ExportedSpan>, Closeable {
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final List<String> dictionary = new ArrayList<>();
+    private long previousStartMs;
+    private long traceIdHigh;
+    private long traceIdLow;
+    private ExportedSpan next;
+    private boolean finished;
+
+    public SpanFileReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            channel.close();
+            throw new IOException("span 파일이 아닙니다: " + file);
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            channel.close();
+            throw new IOException("지원하지 않는 span 파일 버전: " + version);
+        }
+        this.previousStartMs = buffer.getLong();
+    }
+
+    // 디렉터리에서 prefix로 시작하는 span 파일 목록 (기록된 순서)
+    public static List<Path> listFiles(Path directory, String prefix) throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(prefix + "-") && name.endsWith(".spans");
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            next = readNext();
+            finished = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public ExportedSpan next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ExportedSpan span = next;
+        next = null;
+        return span;
+    }
+
+    private ExportedSpan readNext() {
+        try {
+            while (buffer.hasRemaining()) {
+                int tag = buffer.get() & 0xFF;
+                switch (tag & TYPE_MASK) {
+                    case END:
+                        return null;
+                    case DICT:
+                        readDictionary();
+                        break;
+                    case SPAN:
+                        return readSpan(tag);
+                    default:
+                        throw new IllegalStateException("알 수 없는 레코드: " + tag);
+                }
+            }
+            return null;
+        } catch (BufferUnderflowException e) {
+            return null; // 기록 중이던 마지막 레코드
+        }
+    }
+
+    private void readDictionary() {
+        int id = (int) getVarint(buffer);
+        byte[] bytes = new byte[(int) getVarint(buffer)];
+        buffer.get(bytes);
+        if (id != dictionary.size()) {
+            throw new IllegalStateException("사전 순서가 맞지 않습니다: " + id);
+        }
+        dictionary.add(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private ExportedSpan readSpan(int tag) {
+        String message = dictionary.get((int) getVarint(buffer));
+        if ((tag & FLAG_NEW_TRACE) != 0) {
+            traceIdHigh = buffer.getLong();
+            traceIdLow = buffer.getLong();
+        }
+        long spanId = buffer.getLong();
+        long parentSpanId = (tag & FLAG_ROOT) != 0 ? 0 : buffer.getLong();
+        int level = (int) getVarint(buffer);
+        long startTimeMs = previousStartMs + unzigzag(getVarint(buffer));
+        long durationMs = getVarint(buffer);
+        previousStartMs = startTimeMs;
+        return new ExportedSpan(traceIdHigh, traceIdLow, spanId, parentSpanId, level, message,
+                startTimeMs, durationMs, (tag & FLAG_ERROR) != 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,23 @@
+package com.choongang.proxy.trace.export;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@Getter
+@Setter
+@ConfigurationProperties("trace.export")
+public class TraceExportProperties {
+
+    private boolean enabled = false;
+    private String directory = "logs/spans";
+    private String prefix = "spans";
+    private int fileSizeMb = 64; // 파일 하나의 크기 (미리 매핑하는 크기)
+    private int maxFiles = 10; // 남겨둘 파일 수
+
+    public MappedSpanFileWriter createWriter() {
+        return new MappedSpanFileWriter(Path.of(directory), prefix, fileSizeMb * 1024 * 1024, maxFiles);
+    }
+}
@@ -51,11 +51,7 @@ public class FieldLogTrace implements LogTrace{
     }
 
     private void releaseTraceId() {
-        if (traceIdHolder.isFirstLevel()) {
-            traceIdHolder = null; // TraceId를 초기화
-        } else {
-            traceIdHolder = traceIdHolder.createPreviousId(); // TraceId의 레벨을 하나 줄임
-        }
+        traceIdHolder = traceIdHolder.createReleasedId(); // TraceId의 레벨을 하나 줄임 (새 트랜잭션의 첫 단계면 null로 초기화)
     }
 
     @Override
@@ -63,6 +59,16 @@ public class FieldLogTrace implements LogTrace{
         complete(status, e);
     }
 
+    @Override
+    public TraceId currentTraceId() {
+        return traceIdHolder;
+    }
+
+    @Override
+    public void attach(TraceId traceId) {
+        traceIdHolder = traceId;
+    }
+
     private static String addSpace(String prefix, int level) {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < level; i++) {
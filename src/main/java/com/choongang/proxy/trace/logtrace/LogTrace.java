@@ -1,5 +1,6 @@
 package com.choongang.proxy.trace.logtrace;
 
+import com.choongang.proxy.trace.TraceId;
 import com.choongang.proxy.trace.TraceStatus;
 
 public interface LogTrace {
@@ -10,5 +11,10 @@ public interface LogTrace {
 
     void exception(TraceStatus status, Exception e);
 
+    // 현재 스레드가 보관 중인 TraceId를 반환 (없으면 null). 다른 스레드로 추적 정보를 넘길 때 사용
+    TraceId currentTraceId();
+
+    // 다른 스레드에서 가져온 TraceId를 현재 스레드에 연결한다. null이면 보관 중인 TraceId를 제거
+    void attach(TraceId traceId);
 
 }
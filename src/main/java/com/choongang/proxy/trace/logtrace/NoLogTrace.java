@@ -0,0 +1,32 @@
+package com.choongang.proxy.trace.logtrace;
+
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.TraceStatus;
+
+/**
+ * 아무것도 기록하지 않는 LogTrace (추적을 끄거나 성능 측정에서 추적 비용을 빼고 싶을 때 사용)
+ */
+public class NoLogTrace implements LogTrace {
+
+    @Override
+    public TraceStatus begin(String message) {
+        return null;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+    }
+
+    @Override
+    public TraceId currentTraceId() {
+        return null;
+    }
+
+    @Override
+    public void attach(TraceId traceId) {
+    }
+}
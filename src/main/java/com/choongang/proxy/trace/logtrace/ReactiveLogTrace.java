@@ -0,0 +1,80 @@
+package com.choongang.proxy.trace.logtrace;
+
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import static com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace.COMPLETE_PREFIX;
+import static com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace.EX_PREFIX;
+import static com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace.START_PREFIX;
+import static com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace.addSpace;
+
+/**
+ * Mono를 반환하는 단계의 로그 추적기 (ThreadLocalLogTrace와 같은 형식으로 로그를 남긴다)
+ *
+ * 리액티브 흐름은 한 요청이 여러 스레드를 옮겨 다니므로 TraceId를 ThreadLocal이 아닌 Reactor Context에 보관한다.
+ * 구독할 때 하위 구독자의 Context에서 부모 TraceId를 꺼내 다음 레벨을 만들고, 그 TraceId를 상위(source)의 Context로 넘긴다.
+ * 시간은 구독 시점부터 종료 신호(완료, 오류, 취소)까지 잰다 (Mono를 만든 시점이 아님).
+ */
+@Slf4j
+public class ReactiveLogTrace {
+
+    public static final String TRACE_ID_KEY = TraceId.class.getName();
+    private static final String CANCEL_PREFIX = "<C-";
+
+    private final SpanExporter exporter; // null이면 내보내지 않음
+
+    public ReactiveLogTrace() {
+        this(null);
+    }
+
+    public ReactiveLogTrace(SpanExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    public <T> Mono<T> trace(String message, Mono<T> source) {
+        return Mono.deferContextual(context -> {
+            TraceId parent = context.getOrDefault(TRACE_ID_KEY, null);
+            TraceId traceId = parent == null ? new TraceId() : parent.createNextId();
+            long startTimeMs = System.currentTimeMillis();
+            if (log.isInfoEnabled()) {
+                log.info("[{}] {}{}", traceId.getId(), addSpace(START_PREFIX, traceId.getLevel()), message);
+            }
+            return source
+                    .doOnSuccess(value -> complete(traceId, message, startTimeMs, COMPLETE_PREFIX, null))
+                    .doOnError(e -> complete(traceId, message, startTimeMs, EX_PREFIX, e))
+                    .doOnCancel(() -> complete(traceId, message, startTimeMs, CANCEL_PREFIX, null))
+                    .contextWrite(ctx -> ctx.put(TRACE_ID_KEY, traceId));
+        });
+    }
+
+    private void complete(TraceId traceId, String message, long startTimeMs, String prefix, Throwable e) {
+        long stopTimeMs = System.currentTimeMillis();
+        long resultTimeMs = stopTimeMs - startTimeMs;
+        if (exporter != null) {
+            exporter.export(traceId, message, startTimeMs, stopTimeMs, !COMPLETE_PREFIX.equals(prefix)); // 오류, 취소는 error
+        }
+        if (log.isInfoEnabled()) {
+            if (e == null) {
+                log.info("[{}] {}{} time={}ms", traceId.getId(), addSpace(prefix, traceId.getLevel()), message, resultTimeMs);
+            } else {
+                log.info("[{}] {}{} time={}ms ex={}", traceId.getId(), addSpace(prefix, traceId.getLevel()), message, resultTimeMs, e.toString());
+            }
+        }
+    }
+
+    // 다른 서비스에서 전달받은 TraceId(traceparent)를 Context에 넣는다. 이후 첫 단계는 그 다음 레벨로 시작
+    public static Context withTraceId(Context context, TraceId traceId) {
+        return traceId == null ? context : context.put(TRACE_ID_KEY, traceId);
+    }
+
+    // 현재 구독의 TraceId (없으면 빈 Mono)
+    public static Mono<TraceId> currentTraceId() {
+        return Mono.deferContextual(context -> {
+            TraceId traceId = context.getOrDefault(TRACE_ID_KEY, null);
+            return Mono.justOrEmpty(traceId);
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package com.choongang.proxy.trace.logtrace;
+
+import com.choongang.proxy.trace.TraceId;
+
+/**
+ * 스레드 하나의 현재 단계(span). TraceId가 이전 단계를 가리키므로 current가 곧 단계 스택의 맨 위다.
+ * 만든 스레드에서만 읽고 쓴다 (SpanStackThread의 필드 또는 SpanStackLogTrace의 ThreadLocal 대체 경로).
+ */
+final class SpanStack {
+
+    TraceId current;
+}
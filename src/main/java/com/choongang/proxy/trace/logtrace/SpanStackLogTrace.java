@@ -0,0 +1,78 @@
+package com.choongang.proxy.trace.logtrace;
+
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.TraceStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace.COMPLETE_PREFIX;
+import static com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace.EX_PREFIX;
+import static com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace.START_PREFIX;
+import static com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace.addSpace;
+
+/**
+ * 스레드마다 단계 스택(SpanStack) 하나를 두고 호출마다 한 번만 찾는 로그 추적기 (ThreadLocalLogTrace와 같은 형식으로 로그를 남긴다)
+ *
+ * ThreadLocalLogTrace는 begin()에서 ThreadLocal get/set/get, end()에서 get/set(remove)을 하지만
+ * 여기서는 스택을 한 번 찾은 뒤 그 필드만 바꾼다.
+ *  - SpanStackThread(SpanStackThreadFactory로 만든 풀 스레드): 스레드 필드를 바로 사용
+ *  - 그 밖의 스레드: ThreadLocal 한 번 조회 (스택 객체는 스레드가 살아 있는 동안 재사용)
+ * 스택은 스레드에 속하므로 같은 스레드의 SpanStackLogTrace 인스턴스는 단계 스택을 함께 쓴다.
+ */
+@Slf4j
+public class SpanStackLogTrace implements LogTrace {
+
+    private static final ThreadLocal<SpanStack> FOREIGN_THREAD_STACKS = ThreadLocal.withInitial(SpanStack::new);
+
+    static SpanStack currentStack() {
+        return Thread.currentThread() instanceof SpanStackThread thread ? thread.spanStack : FOREIGN_THREAD_STACKS.get();
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        SpanStack stack = currentStack();
+        TraceId parent = stack.current;
+        TraceId traceId = parent == null ? new TraceId() : parent.createNextId();
+        stack.current = traceId;
+        long startTimeMs = System.currentTimeMillis();
+        if (log.isInfoEnabled()) {
+            log.info("[{}] {}{}", traceId.getId(), addSpace(START_PREFIX, traceId.getLevel()), message);
+        }
+        return new TraceStatus(traceId, startTimeMs, message);
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        long stopTimeMs = System.currentTimeMillis();
+        long resultTimeMs = stopTimeMs - status.getStartTimeMs();
+        TraceId traceId = status.getTraceId();
+        if (log.isInfoEnabled()) {
+            if (e == null) {
+                log.info("[{}] {}{} time={}ms", traceId.getId(), addSpace(COMPLETE_PREFIX, traceId.getLevel()), status.getMessage(), resultTimeMs);
+            } else {
+                log.info("[{}] {}{} time={}ms ex={}", traceId.getId(), addSpace(EX_PREFIX, traceId.getLevel()), status.getMessage(), resultTimeMs, e.toString());
+            }
+        }
+        SpanStack stack = currentStack();
+        TraceId current = stack.current;
+        stack.current = current.createReleasedId();
+    }
+
+    @Override
+    public TraceId currentTraceId() {
+        return currentStack().current;
+    }
+
+    @Override
+    public void attach(TraceId traceId) {
+        currentStack().current = traceId; // null이면 비움, 아니면 이후 begin()이 그 다음 레벨로 시작
+    }
+}
@@ -0,0 +1,14 @@
+package com.choongang.proxy.trace.logtrace;
+
+/**
+ * 단계 스택을 필드로 가진 스레드. SpanStackLogTrace는 이 스레드에서 ThreadLocal을 찾지 않고 필드를 바로 쓴다.
+ * SpanStackThreadFactory로 만든다.
+ */
+public class SpanStackThread extends Thread {
+
+    final SpanStack spanStack = new SpanStack();
+
+    public SpanStackThread(ThreadGroup group, Runnable task, String name) {
+        super(group, task, name);
+    }
+}
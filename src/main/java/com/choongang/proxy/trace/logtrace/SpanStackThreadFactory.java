@@ -0,0 +1,21 @@
+package com.choongang.proxy.trace.logtrace;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * SpanStackThread를 만드는 스레드 팩토리 (이름, 데몬 여부, 우선순위 설정은 CustomizableThreadFactory와 같음)
+ */
+public class SpanStackThreadFactory extends CustomizableThreadFactory {
+
+    public SpanStackThreadFactory(String threadNamePrefix) {
+        super(threadNamePrefix);
+    }
+
+    @Override
+    public Thread createThread(Runnable runnable) {
+        Thread thread = new SpanStackThread(getThreadGroup(), runnable, nextThreadName());
+        thread.setPriority(getThreadPriority());
+        thread.setDaemon(isDaemon());
+        return thread;
+    }
+}
@@ -0,0 +1,56 @@
+package com.choongang.proxy.trace.logtrace;
+
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.tomcat.util.threads.TaskQueue;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * trace.holder.type=span-stack 이면 Tomcat 요청 스레드를 SpanStackThread로 만든다 (요청 처리 중 추적이 빠른 경로를 탄다)
+ *
+ * Tomcat이 내부에서 만드는 실행기와 같은 구성(TaskQueue + Tomcat ThreadPoolExecutor)에 스레드 팩토리만 바꿔서 넣는다.
+ * 외부 실행기는 Tomcat이 크기를 바꾸거나 종료하지 않으므로 server.tomcat.threads.* 를 직접 읽고, 빈이 없어질 때 종료한다.
+ */
+public class SpanStackTomcatCustomizer implements TomcatProtocolHandlerCustomizer<ProtocolHandler>, DisposableBean {
+
+    private final TraceHolderProperties properties;
+    private final ServerProperties.Tomcat.Threads threads;
+    private final List<ThreadPoolExecutor> executors = new ArrayList<>();
+
+    public SpanStackTomcatCustomizer(TraceHolderProperties properties, ServerProperties serverProperties) {
+        this.properties = properties;
+        this.threads = serverProperties.getTomcat().getThreads();
+    }
+
+    @Override
+    public void customize(ProtocolHandler protocolHandler) {
+        if (properties.getType() != TraceHolder.SPAN_STACK || !(protocolHandler instanceof AbstractProtocol<?> protocol)) {
+            return;
+        }
+        SpanStackThreadFactory threadFactory = new SpanStackThreadFactory(ObjectName.unquote(protocol.getName()) + "-exec-"); // Tomcat 기본 이름과 같게 (getName()은 따옴표로 감싼 JMX 이름)
+        threadFactory.setDaemon(true);
+        TaskQueue queue = new TaskQueue(threads.getMaxQueueCapacity());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads.getMinSpare(), threads.getMax(), 60, TimeUnit.SECONDS, queue, threadFactory);
+        queue.setParent(executor);
+        protocol.setExecutor(executor);
+        synchronized (executors) {
+            executors.add(executor);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        synchronized (executors) {
+            executors.forEach(ThreadPoolExecutor::shutdown);
+            executors.clear();
+        }
+    }
+}
@@ -7,9 +7,9 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ThreadLocalLogTrace implements LogTrace{
 
-    private static final String START_PREFIX = "-->";
-    private static final String COMPLETE_PREFIX = "<--";
-    private static final String EX_PREFIX = "<X-";
+    static final String START_PREFIX = "-->";
+    static final String COMPLETE_PREFIX = "<--";
+    static final String EX_PREFIX = "<X-";
 
     //private TraceId traceIdHolder; // TraceId를 보관하는 필드
     private ThreadLocal<TraceId> traceIdHolder = new ThreadLocal<>(); // ThreadLocal을 사용하여 TraceId를 보관
@@ -19,7 +19,9 @@ public class ThreadLocalLogTrace implements LogTrace{
         syncTraceId();
         TraceId traceId = traceIdHolder.get();
         long startTimeMs = System.currentTimeMillis();
-        log.info("[{}] {}{}", traceId.getId(), addSpace(START_PREFIX, traceId.getLevel()), message);
+        if (log.isInfoEnabled()) { // 텍스트 로그를 끈 경우 들여쓰기 문자열도 만들지 않는다
+            log.info("[{}] {}{}", traceId.getId(), addSpace(START_PREFIX, traceId.getLevel()), message);
+        }
         return new TraceStatus(traceId, startTimeMs, message);
     }
 
@@ -43,10 +45,12 @@ public class ThreadLocalLogTrace implements LogTrace{
         long resultTimeMs = stopTimeMs - status.getStartTimeMs();
         TraceId traceId = status.getTraceId();
 
-        if (e == null) {
-            log.info("[{}] {}{} time={}ms", traceId.getId(), addSpace(COMPLETE_PREFIX, traceId.getLevel()), status.getMessage(), resultTimeMs);
-        } else {
-            log.info("[{}] {}{} time={}ms ex={}", traceId.getId(), addSpace(EX_PREFIX, traceId.getLevel()), status.getMessage(), resultTimeMs, e.toString());
+        if (log.isInfoEnabled()) {
+            if (e == null) {
+                log.info("[{}] {}{} time={}ms", traceId.getId(), addSpace(COMPLETE_PREFIX, traceId.getLevel()), status.getMessage(), resultTimeMs);
+            } else {
+                log.info("[{}] {}{} time={}ms ex={}", traceId.getId(), addSpace(EX_PREFIX, traceId.getLevel()), status.getMessage(), resultTimeMs, e.toString());
+            }
         }
 
         releaseTraceId();
@@ -56,10 +60,11 @@ public class ThreadLocalLogTrace implements LogTrace{
     private void releaseTraceId() {
         // ThreadLocal에서 TraceId를 가져옴
         TraceId traceId = this.traceIdHolder.get();
-        if (traceId.isFirstLevel()) {
+        TraceId released = traceId.createReleasedId(); // 붙여 둔 원격 호출 정보가 있으면 그 단계로 돌아간다
+        if (released == null) {
             traceIdHolder.remove(); // ThreadLocal에서 TraceId를 제거
         } else {
-            traceIdHolder.set(traceId.createPreviousId());
+            traceIdHolder.set(released);
         }
     }
 
@@ -68,7 +73,21 @@ public class ThreadLocalLogTrace implements LogTrace{
         complete(status, e);
     }
 
-    private static String addSpace(String prefix, int level) {
+    @Override
+    public TraceId currentTraceId() {
+        return traceIdHolder.get();
+    }
+
+    @Override
+    public void attach(TraceId traceId) {
+        if (traceId == null) {
+            traceIdHolder.remove();
+        } else {
+            traceIdHolder.set(traceId); // 이후 begin()은 전달받은 TraceId의 다음 레벨로 시작
+        }
+    }
+
+    static String addSpace(String prefix, int level) {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < level; i++) {
             sb.append(i == level - 1 ? "|" + prefix : "|   ");
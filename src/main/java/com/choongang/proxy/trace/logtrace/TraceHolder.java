@@ -0,0 +1,48 @@
+package com.choongang.proxy.trace.logtrace;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * 스레드별 추적 상태(현재 TraceId)를 보관하는 방식 (trace.holder.type)
+ */
+public enum TraceHolder {
+
+    THREAD_LOCAL(ThreadLocalLogTrace.class) { // ThreadLocal<TraceId> (begin/end마다 여러 번 조회)
+        @Override
+        public LogTrace createLogTrace() {
+            return new ThreadLocalLogTrace();
+        }
+
+        @Override
+        public CustomizableThreadFactory createThreadFactory(String threadNamePrefix) {
+            return new CustomizableThreadFactory(threadNamePrefix);
+        }
+    },
+    SPAN_STACK(SpanStackLogTrace.class) { // SpanStackThread 필드, 다른 스레드는 ThreadLocal (호출마다 한 번 조회)
+        @Override
+        public LogTrace createLogTrace() {
+            return new SpanStackLogTrace();
+        }
+
+        @Override
+        public CustomizableThreadFactory createThreadFactory(String threadNamePrefix) {
+            return new SpanStackThreadFactory(threadNamePrefix);
+        }
+    };
+
+    private final Class<? extends LogTrace> logTraceClass;
+
+    TraceHolder(Class<? extends LogTrace> logTraceClass) {
+        this.logTraceClass = logTraceClass;
+    }
+
+    public abstract LogTrace createLogTrace();
+
+    // 이 방식의 빠른 경로를 쓰는 풀 스레드 팩토리
+    public abstract CustomizableThreadFactory createThreadFactory(String threadNamePrefix);
+
+    // 추적 로그를 남기는 로거 이름이 되는 클래스
+    public Class<? extends LogTrace> logTraceClass() {
+        return logTraceClass;
+    }
+}
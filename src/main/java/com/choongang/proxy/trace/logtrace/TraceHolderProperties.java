@@ -0,0 +1,25 @@
+package com.choongang.proxy.trace.logtrace;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * 추적 상태 보관 방식 설정 (trace.holder.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties("trace.holder")
+public class TraceHolderProperties {
+
+    private TraceHolder type = TraceHolder.THREAD_LOCAL;
+
+    public LogTrace createLogTrace() {
+        return type.createLogTrace();
+    }
+
+    public CustomizableThreadFactory createThreadFactory(String threadNamePrefix) {
+        return type.createThreadFactory(threadNamePrefix);
+    }
+}
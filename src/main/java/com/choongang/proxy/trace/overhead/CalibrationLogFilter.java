@@ -0,0 +1,111 @@
+package com.choongang.proxy.trace.overhead;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 추적 비용을 재는 스레드가 남기는 로그만 버린다 (다른 스레드의 실제 요청 로그는 그대로)
+ *
+ * isInfoEnabled() 같은 레벨 확인(format == null)은 통과시켜서 로그 메시지 인자 준비까지는 운영과 같이 실행되고,
+ * 실제 로그 호출에서 이벤트를 만들기 전에 버린다. logback이 아니면 설치하지 않는다.
+ *
+ * encodeOutput(true)인 동안에는 버리기 전에 운영과 같은 이벤트를 만들어 그 로거에 설정된 appender의 encoder로 인코딩한다
+ * (OverheadCalibrator의 LOG_OUTPUT 항목). 인코딩한 바이트는 쓰지 않으므로 콘솔/파일에 쓰는 시간은 빠진다.
+ */
+final class CalibrationLogFilter extends TurboFilter {
+
+    private final LoggerContext context;
+    private volatile Thread silencedThread;
+    private volatile boolean encodeOutput;
+    private final Map<String, List<Encoder<ILoggingEvent>>> encoders = new ConcurrentHashMap<>(); // 로거 이름별, 측정마다 새로 찾음
+    private volatile int sink;
+
+    private CalibrationLogFilter(LoggerContext context) {
+        this.context = context;
+    }
+
+    // logback이 아니면 null
+    static CalibrationLogFilter install() {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return null;
+        }
+        CalibrationLogFilter filter = new CalibrationLogFilter(context);
+        filter.setContext(context);
+        filter.setName("trace-overhead-calibration");
+        filter.start();
+        context.addTurboFilter(filter);
+        return filter;
+    }
+
+    void silence(Thread thread) {
+        encoders.clear(); // 측정 사이에 바뀐 appender 설정을 다시 읽는다
+        this.silencedThread = thread;
+    }
+
+    // 측정 스레드에서만 바꾼다
+    void encodeOutput(boolean encodeOutput) {
+        this.encodeOutput = encodeOutput;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || Thread.currentThread() != silencedThread) {
+            return FilterReply.NEUTRAL;
+        }
+        if (encodeOutput && level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            ILoggingEvent event = new LoggingEvent(Logger.FQCN, logger, level, format, t, params);
+            int length = 0;
+            for (Encoder<ILoggingEvent> encoder : encoders.computeIfAbsent(logger.getName(), this::findEncoders)) {
+                length += encoder.encode(event).length;
+            }
+            sink = length;
+        }
+        return FilterReply.DENY;
+    }
+
+    // 로거부터 루트까지 additivity를 따라 붙어 있는 OutputStreamAppender의 encoder (실제 로그가 거치는 encoder)
+    private List<Encoder<ILoggingEvent>> findEncoders(String loggerName) {
+        List<Encoder<ILoggingEvent>> found = new ArrayList<>();
+        String name = loggerName;
+        while (true) {
+            Logger logger = name.isEmpty() ? context.getLogger(Logger.ROOT_LOGGER_NAME) : context.exists(name);
+            if (logger != null) {
+                Iterator<Appender<ILoggingEvent>> appenders = logger.iteratorForAppenders();
+                while (appenders.hasNext()) {
+                    if (appenders.next() instanceof OutputStreamAppender<ILoggingEvent> output && output.getEncoder() != null) {
+                        found.add(output.getEncoder());
+                    }
+                }
+                if (!logger.isAdditive()) {
+                    return found;
+                }
+            }
+            if (name.isEmpty()) {
+                return found;
+            }
+            int dot = name.lastIndexOf('.');
+            name = dot < 0 ? "" : name.substring(0, dot);
+        }
+    }
+
+    void uninstall() {
+        context.getTurboFilterList().remove(this);
+        stop();
+    }
+}
@@ -0,0 +1,147 @@
+package com.choongang.proxy.trace.overhead;
+
+import com.choongang.proxy.trace.export.MappedSpanFileWriter;
+import com.choongang.proxy.trace.export.TraceExportProperties;
+import com.choongang.proxy.trace.logtrace.TraceHolderProperties;
+import com.choongang.proxy.trace.overhead.OverheadCalibrator.OverheadReport;
+import com.choongang.proxy.trace.overhead.OverheadCalibrator.ProbeResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 추적 비용을 시작할 때 한 번, 그 뒤 interval-sec 마다 다시 잰다 (trace.overhead.enabled=true)
+ *
+ * 측정은 전용 스레드 하나(logTrace 빈과 같은 보관 방식의 스레드)에서만 하고, 측정하는 동안 그 스레드의 로그는 CalibrationLogFilter로 버린다
+ * (로그 출력 비용은 버리기 전에 설정된 encoder로 인코딩해서 따로 잰다).
+ * span 내보내기가 켜져 있으면 임시 디렉터리의 span 파일로 같은 비용을 재고 종료할 때 지운다 (실제 span 파일은 건드리지 않음).
+ * 첫 측정은 JIT 워밍업 다음, 웹 서버가 열리기 전에 끝난다.
+ */
+@Slf4j
+public class OverheadCalibrationLifecycle implements SmartLifecycle {
+
+    // JIT 워밍업(SMART_LIFECYCLE_PHASE - 2048) 다음, 웹 서버 시작(SMART_LIFECYCLE_PHASE - 1024) 전
+    static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2047;
+
+    private final OverheadProperties properties;
+    private final TraceExportProperties exportProperties;
+    private final TraceHolderProperties traceHolder;
+    private volatile boolean running;
+    private volatile OverheadReport report;
+    private ScheduledExecutorService scheduler;
+    private CalibrationLogFilter logFilter;
+    private MappedSpanFileWriter calibrationExporter;
+    private Path exportDirectory;
+
+    public OverheadCalibrationLifecycle(OverheadProperties properties, TraceExportProperties exportProperties,
+                                        TraceHolderProperties traceHolder) {
+        this.properties = properties;
+        this.exportProperties = exportProperties;
+        this.traceHolder = traceHolder;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (exportProperties.isEnabled()) {
+            try {
+                exportDirectory = Files.createTempDirectory("trace-overhead-");
+            } catch (IOException e) {
+                throw new IllegalStateException("추적 비용 측정용 디렉터리를 만들 수 없습니다", e);
+            }
+            calibrationExporter = new MappedSpanFileWriter(exportDirectory, "calibration", 1024 * 1024, 1);
+        }
+        logFilter = CalibrationLogFilter.install();
+        OverheadCalibrator calibrator = properties.createCalibrator(traceHolder.getType(), calibrationExporter, logFilter);
+        CustomizableThreadFactory threadFactory = traceHolder.createThreadFactory("trace-overhead-calibrator-");
+        threadFactory.setDaemon(true);
+        scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        try {
+            scheduler.submit(() -> calibrate(calibrator)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("추적 비용 측정 실패", e.getCause());
+        }
+        if (properties.getIntervalSec() > 0) {
+            scheduler.scheduleWithFixedDelay(() -> calibrate(calibrator),
+                    properties.getIntervalSec(), properties.getIntervalSec(), TimeUnit.SECONDS);
+        }
+    }
+
+    private void calibrate(OverheadCalibrator calibrator) {
+        try {
+            OverheadReport report;
+            if (logFilter != null) {
+                logFilter.silence(Thread.currentThread()); // 측정하는 동안의 로그만 버린다 (결과 로그는 남김)
+            }
+            try {
+                report = calibrator.calibrate();
+            } finally {
+                if (logFilter != null) {
+                    logFilter.silence(null);
+                }
+            }
+            this.report = report;
+            log.info("추적 비용 측정 ({}ms): span당 {}ns (LogTrace {}ns + 로그 인코딩 {}ns + 프록시 {}ns)", report.elapsedMs(),
+                    Math.round(report.nanosPerSpan()), Math.round(report.logTraceNanosPerSpan()),
+                    Math.round(report.logOutputNanosPerSpan()), Math.round(report.proxyNanosPerSpan()));
+            if (log.isDebugEnabled()) {
+                for (ProbeResult result : report.results()) {
+                    log.debug("  {} {}: {}ns/span", result.kind(), result.name(), Math.round(result.nanosPerSpan()));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("추적 비용 측정 실패", e); // 다음 주기에 다시 시도
+        }
+    }
+
+    public OverheadReport getReport() {
+        return report;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (logFilter != null) {
+            logFilter.uninstall();
+            logFilter = null;
+        }
+        if (calibrationExporter != null) {
+            calibrationExporter.close();
+            calibrationExporter = null;
+            try {
+                FileSystemUtils.deleteRecursively(exportDirectory);
+            } catch (IOException e) {
+                log.warn("추적 비용 측정용 디렉터리 삭제 실패: {}", exportDirectory, e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
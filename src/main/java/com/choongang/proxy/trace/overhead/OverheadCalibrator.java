@@ -0,0 +1,218 @@
+package com.choongang.proxy.trace.overhead;
+
+import com.choongang.proxy.app.v1.OrderRepositoryV1;
+import com.choongang.proxy.config.v1_proxy.interface_proxy.OrderRepositoryInterfaceProxy;
+import com.choongang.proxy.postprocessor.PackageLogTraceProxyPostProcessor;
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.export.ExportingLogTrace;
+import com.choongang.proxy.trace.export.SpanExporter;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.logtrace.NoLogTrace;
+import com.choongang.proxy.trace.logtrace.ReactiveLogTrace;
+import com.choongang.proxy.trace.logtrace.TraceHolder;
+import com.choongang.proxy.trace.pointcut.TracePointcut;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * 빈 메서드를 추적 경로로 호출해서 추적 장치(LogTrace 구현체, 프록시 종류)가 span 하나에 쓰는 시간을 잰다
+ *
+ * 측정 항목(Probe)마다 추적한 호출과 추적하지 않은 호출을 같은 횟수만큼 재고, 그 차이를 span 수로 나눈다.
+ * 첫 라운드는 JIT 워밍업으로 버리고 나머지 라운드의 중앙값을 쓴다.
+ *  - LOG_TRACE: 루트 단계와 하위 단계(begin/end 두 쌍)를 만드는 비용. 실제 logTrace 빈과 같은 조합을 안쪽부터 하나씩 감싸서 잰다
+ *  - LOG_OUTPUT: 같은 호출이 남기는 텍스트 로그를 설정된 appender의 encoder로 인코딩하는 비용 - 버리는 경우 (CalibrationLogFilter)
+ *  - REACTIVE: ReactiveLogTrace.trace()로 감싼 Mono를 구독하는 비용 (v4 경로, 서블릿 요청 비용에는 넣지 않음)
+ *  - PROXY: NoLogTrace로 추적하는 빈 메서드 호출 - 직접 호출 (프록시 디스패치 비용만)
+ * span 하나의 비용은 LOG_TRACE 최댓값 + LOG_OUTPUT + PROXY 최댓값 (어느 프록시를 거친 span인지 모르므로 상한으로 잡는다)
+ * LOG_TRACE에서는 텍스트 로그가 isInfoEnabled 분기와 포맷 인자 준비까지만 실행되고, 이벤트 생성과 인코딩은 LOG_OUTPUT에 따로 잡힌다.
+ * 인코딩한 바이트를 콘솔/파일에 쓰는 시간(출력 대상에 따라 다름)은 어느 항목에도 들어가지 않는다.
+ */
+public class OverheadCalibrator {
+
+    static final String ROOT_MESSAGE = "OverheadCalibrator.root()";
+    static final String CHILD_MESSAGE = "OverheadCalibrator.child()";
+    private static final String ITEM = "calibration";
+
+    public enum Kind {
+        LOG_TRACE, LOG_OUTPUT, REACTIVE, PROXY
+    }
+
+    // traced와 direct는 같은 일을 하되 traced만 추적 장치를 거친다. spansPerCall은 traced 한 번에 만드는 span 수
+    public record Probe(String name, Kind kind, int spansPerCall, IntSupplier traced, IntSupplier direct) {
+    }
+
+    public record ProbeResult(String name, Kind kind, double nanosPerSpan) {
+    }
+
+    public record OverheadReport(long measuredAtMs, long elapsedMs, List<ProbeResult> results,
+                                 double logTraceNanosPerSpan, double logOutputNanosPerSpan, double proxyNanosPerSpan) {
+
+        // 서블릿 요청에서 span 하나가 쓰는 추적 비용 (상한, 로그를 실제로 쓰는 시간은 제외)
+        public double nanosPerSpan() {
+            return logTraceNanosPerSpan + logOutputNanosPerSpan + proxyNanosPerSpan;
+        }
+    }
+
+    private final List<Probe> probes;
+    private final int calls;
+    private final int rounds;
+    private volatile int sink;
+
+    public OverheadCalibrator(List<Probe> probes, int calls, int rounds) {
+        if (calls <= 0 || rounds <= 0) {
+            throw new IllegalArgumentException("calls, rounds는 1 이상이어야 합니다: " + calls + ", " + rounds);
+        }
+        this.probes = List.copyOf(probes);
+        this.calls = calls;
+        this.rounds = rounds;
+    }
+
+    /**
+     * 애플리케이션에서 쓰는 추적 장치 조합 (ProxyApplication.logTrace, reactiveLogTrace 빈과 같은 구성)
+     * @param traceHolder logTrace 빈의 추적 상태 보관 방식 (trace.holder.type)
+     * @param calibrationExporter span 내보내기가 켜져 있을 때 측정용으로 쓸 exporter (실제 span 파일과 분리), 꺼져 있으면 null
+     * @param logFilter 측정 스레드의 로그를 버리는 필터 (logback이 아니면 null, 그때는 LOG_OUTPUT을 재지 않음)
+     */
+    static List<Probe> activeProbes(TraceHolder traceHolder, SpanExporter calibrationExporter, CalibrationLogFilter logFilter) {
+        List<Probe> probes = new ArrayList<>();
+        LogTrace logTrace = traceHolder.createLogTrace();
+        probes.add(logTraceProbe(traceHolder.logTraceClass().getSimpleName(), logTrace));
+        if (logFilter != null) {
+            probes.add(logOutputProbe(traceHolder.logTraceClass().getSimpleName() + "(log output)", logTrace, logFilter));
+        }
+        if (calibrationExporter != null) {
+            logTrace = new ExportingLogTrace(logTrace, calibrationExporter);
+            probes.add(logTraceProbe("+ExportingLogTrace", logTrace));
+        }
+        probes.add(logTraceProbe("+SpanCountingLogTrace", new SpanCountingLogTrace(logTrace)));
+        probes.add(reactiveProbe("ReactiveLogTrace", new ReactiveLogTrace(calibrationExporter)));
+        probes.add(interfaceProxyProbe());
+        probes.add(classProxyProbe());
+        return probes;
+    }
+
+    public static Probe logTraceProbe(String name, LogTrace logTrace) {
+        return new Probe(name, Kind.LOG_TRACE, 2, () -> {
+            TraceStatus root = logTrace.begin(ROOT_MESSAGE);
+            TraceStatus child = logTrace.begin(CHILD_MESSAGE);
+            logTrace.end(child);
+            logTrace.end(root);
+            return 1;
+        }, () -> 1);
+    }
+
+    // 텍스트 로그를 남기는 LogTrace의 호출을 encoder로 인코딩하는 경우와 버리는 경우로 나눠 잰다
+    static Probe logOutputProbe(String name, LogTrace logTrace, CalibrationLogFilter logFilter) {
+        IntSupplier call = logTraceProbe(name, logTrace).traced();
+        return new Probe(name, Kind.LOG_OUTPUT, 2, () -> {
+            logFilter.encodeOutput(true);
+            try {
+                return call.getAsInt();
+            } finally {
+                logFilter.encodeOutput(false);
+            }
+        }, call);
+    }
+
+    public static Probe reactiveProbe(String name, ReactiveLogTrace reactiveLogTrace) {
+        Mono<Integer> source = Mono.just(1);
+        return new Probe(name, Kind.REACTIVE, 1,
+                () -> reactiveLogTrace.trace(CHILD_MESSAGE, source).block(), source::block);
+    }
+
+    // v1 인터페이스 프록시 (config/v1_proxy)
+    public static Probe interfaceProxyProbe() {
+        CalibrationRepository target = new CalibrationRepository();
+        OrderRepositoryV1 proxy = new OrderRepositoryInterfaceProxy(target, new NoLogTrace(), TracePointcut.ALL);
+        return new Probe("OrderRepositoryInterfaceProxy", Kind.PROXY, 1, () -> {
+            proxy.saveAll(ITEM, 1);
+            return target.saved;
+        }, () -> {
+            target.saveAll(ITEM, 1);
+            return target.saved;
+        });
+    }
+
+    // v2~v4 클래스 기반 프록시 (PackageLogTraceProxyPostProcessor가 만드는 CGLIB 프록시)
+    public static Probe classProxyProbe() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("logTrace", new NoLogTrace());
+        PackageLogTraceProxyPostProcessor postProcessor = new PackageLogTraceProxyPostProcessor(
+                List.of(CalibrationTarget.class.getPackageName()), beanFactory.getBeanProvider(LogTrace.class),
+                beanFactory.getBeanProvider(TracePointcut.class), beanFactory.getBeanProvider(ReactiveLogTrace.class));
+        CalibrationTarget target = new CalibrationTarget();
+        CalibrationTarget proxy = (CalibrationTarget) postProcessor.postProcessAfterInitialization(target, "overheadCalibrationTarget");
+        return new Probe("PackageLogTraceProxyPostProcessor(CGLIB)", Kind.PROXY, 1, () -> proxy.call(1), () -> target.call(1));
+    }
+
+    public OverheadReport calibrate() {
+        long measuredAtMs = System.currentTimeMillis();
+        long start = System.nanoTime();
+        List<ProbeResult> results = new ArrayList<>();
+        double logTraceNanos = 0;
+        double logOutputNanos = 0;
+        double proxyNanos = 0;
+        for (Probe probe : probes) {
+            measure(probe.traced());
+            measure(probe.direct());
+            double[] nanosPerSpan = new double[rounds];
+            for (int round = 0; round < rounds; round++) {
+                long traced = measure(probe.traced());
+                long direct = measure(probe.direct());
+                nanosPerSpan[round] = Math.max(0, (double) (traced - direct) / calls / probe.spansPerCall());
+            }
+            Arrays.sort(nanosPerSpan);
+            double median = nanosPerSpan[rounds / 2];
+            results.add(new ProbeResult(probe.name(), probe.kind(), median));
+            if (probe.kind() == Kind.LOG_TRACE) {
+                logTraceNanos = Math.max(logTraceNanos, median);
+            } else if (probe.kind() == Kind.LOG_OUTPUT) {
+                logOutputNanos = median;
+            } else if (probe.kind() == Kind.PROXY) {
+                proxyNanos = Math.max(proxyNanos, median);
+            }
+        }
+        return new OverheadReport(measuredAtMs, (System.nanoTime() - start) / 1_000_000, List.copyOf(results),
+                logTraceNanos, logOutputNanos, proxyNanos);
+    }
+
+    private long measure(IntSupplier call) {
+        int sum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            sum += call.getAsInt();
+        }
+        long elapsed = System.nanoTime() - start;
+        sink = sum; // 결과를 써서 호출이 없어지지 않게 한다
+        return elapsed;
+    }
+
+    // 측정용 빈 저장소
+    static final class CalibrationRepository implements OrderRepositoryV1 {
+
+        private int saved;
+
+        @Override
+        public void save(String itemId) {
+            saved++;
+        }
+
+        @Override
+        public void saveAll(String itemId, int quantity) {
+            saved += quantity;
+        }
+    }
+
+    // 측정용 빈 클래스 (CGLIB 프록시가 상속하므로 public, final 아님)
+    public static class CalibrationTarget {
+
+        public int call(int value) {
+            return value + 1;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.choongang.proxy.trace.overhead;
+
+import com.choongang.proxy.trace.overhead.OverheadCalibrator.OverheadReport;
+import com.choongang.proxy.trace.overhead.RequestCpuFilter.RequestCpu;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// 추적 비용: 측정한 span당 비용과, 지금까지 처리한 요청의 CPU 시간 중 추적 장치가 차지한 비율(추정)
+@RestController
+@RequiredArgsConstructor
+public class OverheadController {
+
+    private final OverheadCalibrationLifecycle calibration;
+    private final RequestCpuFilter requestCpuFilter;
+
+    @GetMapping("/v1/trace/overhead")
+    public OverheadStats overhead() {
+        return OverheadStats.of(calibration.getReport(), requestCpuFilter.snapshot());
+    }
+
+    /**
+     * @param scope 집계 범위 (요청 스레드만. order-batch/order-backend 풀 스레드의 CPU 시간과 span은 requestCpuMs, spans에 없다)
+     * @param calibration 마지막 측정 결과 (측정 전이거나 꺼져 있으면 null)
+     * @param overheadCpuMs 요청 스레드에서 만든 span 수 x span당 비용
+     * @param overheadSharePercent overheadCpuMs / requestCpuMs
+     */
+    public record OverheadStats(String scope, OverheadReport calibration, long requests, double requestCpuMs, long spans,
+                                double spansPerRequest, double nanosPerSpan, double overheadCpuMs, double overheadSharePercent) {
+
+        static final String SCOPE = "요청 스레드만 집계 (order-batch/order-backend 풀 스레드의 CPU 시간과 span은 제외)";
+
+        static OverheadStats of(OverheadReport report, RequestCpu cpu) {
+            double nanosPerSpan = report == null ? 0 : report.nanosPerSpan();
+            double overheadNanos = cpu.spans() * nanosPerSpan;
+            return new OverheadStats(SCOPE, report, cpu.requests(), cpu.cpuNanos() / 1e6, cpu.spans(),
+                    cpu.requests() == 0 ? 0 : (double) cpu.spans() / cpu.requests(),
+                    nanosPerSpan, overheadNanos / 1e6,
+                    cpu.cpuNanos() == 0 ? 0 : Math.min(100, overheadNanos * 100 / cpu.cpuNanos()));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.choongang.proxy.trace.overhead;
+
+import com.choongang.proxy.trace.export.SpanExporter;
+import com.choongang.proxy.trace.logtrace.TraceHolder;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 추적 비용 측정 설정 (trace.overhead.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties("trace.overhead")
+public class OverheadProperties {
+
+    private boolean enabled = false;
+    private int calibrationCalls = 20_000; // 측정 라운드 하나에서 항목마다 호출할 횟수
+    private int rounds = 5; // 측정 라운드 수 (중앙값 사용)
+    private long intervalSec = 300; // 다시 측정하는 간격 (0이면 시작할 때 한 번만)
+
+    OverheadCalibrator createCalibrator(TraceHolder traceHolder, SpanExporter calibrationExporter, CalibrationLogFilter logFilter) {
+        return new OverheadCalibrator(OverheadCalibrator.activeProbes(traceHolder, calibrationExporter, logFilter),
+                calibrationCalls, rounds);
+    }
+}
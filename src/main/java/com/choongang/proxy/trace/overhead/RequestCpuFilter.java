@@ -0,0 +1,57 @@
+package com.choongang.proxy.trace.overhead;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 요청을 처리한 스레드의 CPU 시간과 그 동안 만든 span 수를 누적한다 (trace.overhead.enabled=true)
+ *
+ * 요청 스레드만 센다: 다른 스레드(주문 백엔드 풀 등)에서 만든 span과 그 스레드의 CPU 시간은 둘 다 빠진다.
+ */
+public class RequestCpuFilter implements Filter {
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final boolean enabled;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder spans = new LongAdder();
+
+    public RequestCpuFilter(boolean enabled) {
+        this.enabled = enabled && threads.isCurrentThreadCpuTimeSupported();
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (!enabled) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long spanStart = SpanCountingLogTrace.currentThreadSpans();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long cpu = threads.getCurrentThreadCpuTime() - cpuStart;
+            if (cpuStart >= 0 && cpu >= 0) { // CPU 시간 측정이 꺼져 있으면 -1
+                cpuNanos.add(cpu);
+                spans.add(SpanCountingLogTrace.currentThreadSpans() - spanStart);
+                requests.increment();
+            }
+        }
+    }
+
+    public RequestCpu snapshot() {
+        return new RequestCpu(requests.sum(), cpuNanos.sum(), spans.sum());
+    }
+
+    public record RequestCpu(long requests, long cpuNanos, long spans) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.choongang.proxy.trace.overhead;
+
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * LogTrace 데코레이터: 스레드마다 시작한 단계(span) 수를 센다 (trace.overhead.enabled=true 일 때 logTrace 빈을 감쌈)
+ *
+ * RequestCpuFilter가 요청 전후의 값 차이로 그 요청에서 만든 span 수를 구한다.
+ * 카운터는 스레드마다 하나라서 락이나 원자 연산이 없다.
+ */
+@RequiredArgsConstructor
+public class SpanCountingLogTrace implements LogTrace {
+
+    private static final ThreadLocal<long[]> SPANS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final LogTrace target;
+
+    // 현재 스레드가 지금까지 시작한 span 수 (SpanCountingLogTrace 인스턴스와 무관하게 스레드마다 누적)
+    public static long currentThreadSpans() {
+        return SPANS.get()[0];
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        SPANS.get()[0]++;
+        return target.begin(message);
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        target.end(status);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        target.exception(status, e);
+    }
+
+    @Override
+    public TraceId currentTraceId() {
+        return target.currentTraceId();
+    }
+
+    @Override
+    public void attach(TraceId traceId) {
+        target.attach(traceId);
+    }
+}
@@ -0,0 +1,101 @@
+package com.choongang.proxy.trace.pointcut;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.PatternMatchUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 어떤 메서드에 로그 추적을 적용할지 정하는 조건 (포인트컷)
+ *
+ * 패턴 형식
+ *  - "패키지.클래스.메서드" 이름 패턴 ('*' 와일드카드, PatternMatchUtils). 인터페이스 이름과 실제 클래스 이름 모두 비교한다
+ *    예) com.choongang.proxy.app.v1.*, *Repository*.save*, *.OrderServiceV1.orderItem
+ *  - "@annotation(어노테이션 클래스 이름)" 인터페이스나 실제 클래스의 메서드에 붙은 어노테이션 (메타 어노테이션 포함)
+ *    예) @annotation(org.springframework.web.bind.annotation.GetMapping)
+ *
+ * includes 중 하나에 맞고 excludes 어디에도 맞지 않는 메서드만 추적한다.
+ * 프록시를 만들 때 메서드마다 한 번만 판단(message())하므로 호출할 때는 패턴 비교가 없다.
+ */
+@Slf4j
+public class TracePointcut {
+
+    public static final TracePointcut ALL = new TracePointcut(List.of("*"), List.of());
+
+    private static final Pattern VERSION_SUFFIX = Pattern.compile("V\\d+$");
+    private static final String ANNOTATION_PREFIX = "@annotation(";
+
+    private final List<String> includeNames = new ArrayList<>();
+    private final List<Class<? extends Annotation>> includeAnnotations = new ArrayList<>();
+    private final List<String> excludeNames = new ArrayList<>();
+    private final List<Class<? extends Annotation>> excludeAnnotations = new ArrayList<>();
+
+    public TracePointcut(List<String> includes, List<String> excludes) {
+        parse(includes, includeNames, includeAnnotations);
+        parse(excludes, excludeNames, excludeAnnotations);
+    }
+
+    /**
+     * 추적 대상이면 로그 메시지("OrderService.orderItem()"), 아니면 null
+     * 메시지는 인터페이스 이름에서 버전 접미사(V1 등)를 뺀 이름으로 만들고 intern()하여 메서드마다 하나만 둔다.
+     */
+    public String message(Class<?> interfaceType, Class<?> targetClass, String methodName, Class<?>... parameterTypes) {
+        Method method;
+        try {
+            method = interfaceType.getMethod(methodName, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(interfaceType.getName() + "에 " + methodName + " 메서드가 없습니다", e);
+        }
+        Method targetMethod = ClassUtils.getMostSpecificMethod(method, targetClass);
+        boolean traced = matches(includeNames, includeAnnotations, method, targetMethod)
+                && !matches(excludeNames, excludeAnnotations, method, targetMethod);
+        String message = VERSION_SUFFIX.matcher(interfaceType.getSimpleName()).replaceFirst("") + "." + methodName + "()";
+        log.debug("trace pointcut {} -> {}", message, traced ? "trace" : "skip");
+        return traced ? message.intern() : null;
+    }
+
+    private static boolean matches(List<String> names, List<Class<? extends Annotation>> annotations, Method method, Method targetMethod) {
+        for (String pattern : names) {
+            if (PatternMatchUtils.simpleMatch(pattern, method.getDeclaringClass().getName() + "." + method.getName())
+                    || PatternMatchUtils.simpleMatch(pattern, targetMethod.getDeclaringClass().getName() + "." + method.getName())) {
+                return true;
+            }
+        }
+        for (Class<? extends Annotation> annotation : annotations) {
+            if (AnnotatedElementUtils.hasAnnotation(method, annotation) || AnnotatedElementUtils.hasAnnotation(targetMethod, annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void parse(List<String> patterns, List<String> names, List<Class<? extends Annotation>> annotations) {
+        for (String pattern : patterns) {
+            String trimmed = pattern.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!trimmed.startsWith(ANNOTATION_PREFIX)) {
+                names.add(trimmed);
+                continue;
+            }
+            String className = trimmed.substring(ANNOTATION_PREFIX.length(), trimmed.length() - 1).trim();
+            try {
+                Class<?> type = ClassUtils.forName(className, TracePointcut.class.getClassLoader());
+                if (!type.isAnnotation()) {
+                    throw new IllegalArgumentException("어노테이션이 아닙니다: " + className);
+                }
+                annotations.add((Class<? extends Annotation>) type);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException("어노테이션 클래스를 찾을 수 없습니다: " + className, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.choongang.proxy.trace.pointcut;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("trace.pointcut")
+public class TracePointcutProperties {
+
+    private List<String> includes = new ArrayList<>(List.of("*")); // 기본: 모든 메서드 추적
+    private List<String> excludes = new ArrayList<>();
+
+    public TracePointcut createPointcut() {
+        return new TracePointcut(includes, excludes);
+    }
+}
@@ -0,0 +1,27 @@
+package com.choongang.proxy.trace.propagation;
+
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.logtrace.ReactiveLogTrace;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux(reactive 프로필)용 TraceContextFilter: 요청의 traceparent를 Reactor Context의 TraceId로 연결한다.
+ * 이 요청에서 ReactiveLogTrace가 남기는 로그는 호출한 서비스와 같은 트랜잭션 ID의 하위 레벨로 이어진다.
+ */
+public class ReactiveTraceContextFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        TraceId remote = TraceparentCodec.parse(
+                headers.getFirst(TraceparentCodec.TRACEPARENT), headers.getFirst(TraceparentCodec.TRACESTATE));
+        if (remote == null) {
+            return chain.filter(exchange); // 헤더가 없으면 첫 단계에서 새 TraceId 생성
+        }
+        return chain.filter(exchange).contextWrite(context -> ReactiveLogTrace.withTraceId(context, remote));
+    }
+}
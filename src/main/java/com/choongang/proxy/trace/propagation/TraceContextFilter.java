@@ -0,0 +1,41 @@
+package com.choongang.proxy.trace.propagation;
+
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+
+/**
+ * 요청에 traceparent 헤더가 있으면 그 호출 정보를 현재 스레드의 TraceId로 연결한다.
+ * 이후 이 요청에서 남기는 로그는 호출한 서비스와 같은 트랜잭션 ID를 사용하고, 그 하위 레벨로 이어진다.
+ */
+@RequiredArgsConstructor
+public class TraceContextFilter implements Filter {
+
+    private final LogTrace logTrace;
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        TraceId remote = TraceparentCodec.parse(
+                httpRequest.getHeader(TraceparentCodec.TRACEPARENT), httpRequest.getHeader(TraceparentCodec.TRACESTATE));
+        if (remote == null) {
+            chain.doFilter(request, response); // 헤더가 없으면 기존처럼 첫 로그에서 새 TraceId 생성
+            return;
+        }
+        TraceId previous = logTrace.currentTraceId();
+        logTrace.attach(remote);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            logTrace.attach(previous);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.choongang.proxy.trace.propagation;
+
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * 다른 서비스를 호출할 때 현재 TraceId를 traceparent/tracestate 헤더로 전달한다 (RestClient, RestTemplate)
+ */
+@RequiredArgsConstructor
+public class TraceparentClientInterceptor implements ClientHttpRequestInterceptor {
+
+    private final LogTrace logTrace;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        TraceId traceId = logTrace.currentTraceId();
+        if (traceId != null) {
+            request.getHeaders().set(TraceparentCodec.TRACEPARENT, TraceparentCodec.formatTraceparent(traceId));
+            request.getHeaders().set(TraceparentCodec.TRACESTATE, TraceparentCodec.formatTracestate(traceId));
+        }
+        return execution.execute(request, body);
+    }
+}
@@ -0,0 +1,180 @@
+package com.choongang.proxy.trace.propagation;
+
+import com.choongang.proxy.trace.TraceId;
+
+/**
+ * W3C Trace Context 헤더 변환
+ *
+ * traceparent: 00-{trace-id 32 hex}-{parent-id 16 hex}-{trace-flags 2 hex}
+ * tracestate : proxy={level}[,다른 서비스 항목...] (이 프로젝트의 로그 깊이를 다음 서비스로 전달)
+ *              W3C 규격대로 우리 항목만 갱신하여 맨 앞에 두고, 다른 서비스의 항목은 순서대로 그대로 전달한다 (최대 32개)
+ *
+ * 고정 길이 hex 문자열을 문자 단위로 읽어 long 값으로 바로 변환하므로,
+ * 파싱할 때 중간 문자열을 만들지 않는다 (결과 TraceId 하나만 생성).
+ */
+public final class TraceparentCodec {
+
+    public static final String TRACEPARENT = "traceparent";
+    public static final String TRACESTATE = "tracestate";
+
+    private static final int TRACEPARENT_LENGTH = 55;
+    private static final String STATE_KEY = "proxy=";
+    private static final int MAX_STATE_MEMBERS = 32; // W3C tracestate 최대 항목 수
+    static final int MAX_REMOTE_LEVEL = 32; // 신뢰할 수 없는 헤더 값이므로 들여쓰기 깊이를 이 값으로 제한
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TraceparentCodec() {
+    }
+
+    /**
+     * @return 전달받은 호출 정보. 헤더가 없거나 형식이 잘못되었으면 null
+     */
+    public static TraceId parse(String traceparent, String tracestate) {
+        if (traceparent == null || traceparent.length() < TRACEPARENT_LENGTH
+                || traceparent.charAt(2) != '-' || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-') {
+            return null;
+        }
+        // 버전 00은 길이가 정확히 55, 이후 버전은 뒤에 필드가 더 붙을 수 있다
+        int version = hexByte(traceparent, 0);
+        if (version < 0 || version == 0xFF
+                || (version == 0 ? traceparent.length() != TRACEPARENT_LENGTH
+                : traceparent.length() > TRACEPARENT_LENGTH && traceparent.charAt(TRACEPARENT_LENGTH) != '-')) {
+            return null;
+        }
+        int flags = hexByte(traceparent, 53);
+        if (flags < 0 || !isHex(traceparent, 3, 32) || !isHex(traceparent, 36, 16)) {
+            return null;
+        }
+        long traceIdHigh = hexLong(traceparent, 3);
+        long traceIdLow = hexLong(traceparent, 19);
+        long parentSpanId = hexLong(traceparent, 36);
+        if ((traceIdHigh == 0 && traceIdLow == 0) || parentSpanId == 0) {
+            return null; // 모두 0인 id는 유효하지 않다
+        }
+        return TraceId.fromRemote(traceIdHigh, traceIdLow, parentSpanId, flags, parseLevel(tracestate), vendorState(tracestate));
+    }
+
+    // 현재 단계를 다음 서비스의 부모로 전달하는 traceparent
+    public static String formatTraceparent(TraceId traceId) {
+        char[] chars = new char[TRACEPARENT_LENGTH];
+        chars[0] = '0';
+        chars[1] = '0';
+        chars[2] = '-';
+        writeHex(chars, 3, traceId.getTraceIdHigh());
+        writeHex(chars, 19, traceId.getTraceIdLow());
+        chars[35] = '-';
+        writeHex(chars, 36, traceId.getSpanId());
+        chars[52] = '-';
+        chars[53] = HEX[(traceId.getFlags() >>> 4) & 0xF];
+        chars[54] = HEX[traceId.getFlags() & 0xF];
+        return new String(chars);
+    }
+
+    public static String formatTracestate(TraceId traceId) {
+        String vendorState = traceId.getVendorState();
+        return vendorState == null ? STATE_KEY + traceId.getLevel() : STATE_KEY + traceId.getLevel() + ',' + vendorState;
+    }
+
+    // tracestate에서 다른 서비스의 항목만 남긴다 (우리 항목을 앞에 붙여도 32개를 넘지 않도록 최대 31개). 없으면 null
+    private static String vendorState(String tracestate) {
+        if (tracestate == null) {
+            return null;
+        }
+        StringBuilder vendors = null;
+        int members = 0;
+        for (int start = 0; start < tracestate.length() && members < MAX_STATE_MEMBERS - 1; ) {
+            int end = tracestate.indexOf(',', start);
+            if (end < 0) {
+                end = tracestate.length();
+            }
+            int from = start;
+            int to = end;
+            while (from < to && isOws(tracestate.charAt(from))) { // 항목 앞뒤 공백(OWS) 제거
+                from++;
+            }
+            while (to > from && isOws(tracestate.charAt(to - 1))) {
+                to--;
+            }
+            if (from < to && !tracestate.startsWith(STATE_KEY, from)) {
+                if (vendors == null) {
+                    vendors = new StringBuilder(tracestate.length());
+                } else {
+                    vendors.append(',');
+                }
+                vendors.append(tracestate, from, to);
+                members++;
+            }
+            start = end + 1;
+        }
+        return vendors == null ? null : vendors.toString();
+    }
+
+    private static boolean isOws(char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    // tracestate에서 proxy={level} 값을 찾는다 (최대 MAX_REMOTE_LEVEL). 없으면 -1
+    private static int parseLevel(String tracestate) {
+        if (tracestate == null) {
+            return -1;
+        }
+        int start = tracestate.indexOf(STATE_KEY);
+        while (start > 0 && tracestate.charAt(start - 1) != ',' && tracestate.charAt(start - 1) != ' ') {
+            start = tracestate.indexOf(STATE_KEY, start + 1); // 다른 키의 일부(예: xproxy=)는 건너뛴다
+        }
+        if (start < 0) {
+            return -1;
+        }
+        int level = 0;
+        int digits = 0;
+        for (int i = start + STATE_KEY.length(); i < tracestate.length() && digits < 4; i++, digits++) {
+            char c = tracestate.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            level = level * 10 + (c - '0');
+        }
+        return digits == 0 ? -1 : Math.min(level, MAX_REMOTE_LEVEL);
+    }
+
+    private static void writeHex(char[] chars, int offset, long value) {
+        for (int i = 15; i >= 0; i--) {
+            chars[offset + i] = HEX[(int) value & 0xF];
+            value >>>= 4;
+        }
+    }
+
+    private static long hexLong(String s, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 16; i++) {
+            value = (value << 4) | hexDigit(s.charAt(i));
+        }
+        return value;
+    }
+
+    private static int hexByte(String s, int offset) {
+        int high = hexDigit(s.charAt(offset));
+        int low = hexDigit(s.charAt(offset + 1));
+        return (high | low) < 0 ? -1 : high << 4 | low;
+    }
+
+    private static boolean isHex(String s, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (hexDigit(s.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 소문자 hex만 허용 (W3C 규격)
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,79 @@
+package com.choongang.proxy.warmup;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.util.Iterator;
+
+/**
+ * 워밍업 동안 지정한 로거의 출력을 버린다
+ *
+ * 로그 레벨은 그대로 두고(isInfoEnabled 분기와 메시지 포맷팅을 운영과 같이 실행)
+ * 콘솔과 같은 패턴으로 인코딩한 결과만 빈 스트림에 쓴다. logback이 아니면 아무것도 바꾸지 않는다.
+ * 웹 서버가 열리기 전에만 사용한다 (실제 요청 로그까지 버리지 않도록).
+ */
+final class DiscardingLogSink implements AutoCloseable {
+
+    private static final String DEFAULT_PATTERN = "%d %5p [%t] %logger : %m%n";
+
+    private final Logger logger;
+    private final OutputStreamAppender<ILoggingEvent> appender;
+    private final boolean additive;
+
+    private DiscardingLogSink(Logger logger, OutputStreamAppender<ILoggingEvent> appender, boolean additive) {
+        this.logger = logger;
+        this.appender = appender;
+        this.additive = additive;
+    }
+
+    static DiscardingLogSink open(Class<?> loggerClass) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return new DiscardingLogSink(null, null, true);
+        }
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(consolePattern(context));
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setName("warmup-discard");
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        Logger logger = context.getLogger(loggerClass);
+        boolean additive = logger.isAdditive();
+        logger.addAppender(appender);
+        logger.setAdditive(false);
+        return new DiscardingLogSink(logger, appender, additive);
+    }
+
+    // 루트 로거에 붙은 패턴 인코더(콘솔)의 패턴
+    private static String consolePattern(LoggerContext context) {
+        Iterator<Appender<ILoggingEvent>> appenders = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof OutputStreamAppender<ILoggingEvent> output
+                    && output.getEncoder() instanceof PatternLayoutEncoder encoder) {
+                return encoder.getPattern();
+            }
+        }
+        return DEFAULT_PATTERN;
+    }
+
+    @Override
+    public void close() {
+        if (logger == null) {
+            return;
+        }
+        logger.setAdditive(additive);
+        logger.detachAppender(appender);
+        appender.stop();
+    }
+}
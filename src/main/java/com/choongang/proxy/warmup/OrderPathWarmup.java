@@ -0,0 +1,203 @@
+package com.choongang.proxy.warmup;
+
+import com.choongang.proxy.app.v1.InventoryClientV1;
+import com.choongang.proxy.app.v1.InventoryClientV1Impl;
+import com.choongang.proxy.app.v1.OrderControllerV1ApiAdapter;
+import com.choongang.proxy.app.v1.OrderControllerV1Impl;
+import com.choongang.proxy.app.v1.OrderRepositoryV1;
+import com.choongang.proxy.app.v1.OrderRepositoryV1Impl;
+import com.choongang.proxy.app.v1.OrderResult;
+import com.choongang.proxy.app.v1.OrderServiceV1Impl;
+import com.choongang.proxy.app.v1.PaymentClientV1;
+import com.choongang.proxy.app.v1.PaymentClientV1Impl;
+import com.choongang.proxy.config.v1_proxy.interface_proxy.InventoryClientInterfaceProxy;
+import com.choongang.proxy.config.v1_proxy.interface_proxy.OrderControllerInterfaceProxy;
+import com.choongang.proxy.config.v1_proxy.interface_proxy.OrderRepositoryInterfaceProxy;
+import com.choongang.proxy.config.v1_proxy.interface_proxy.OrderServiceInterfaceProxy;
+import com.choongang.proxy.config.v1_proxy.interface_proxy.PaymentClientInterfaceProxy;
+import com.choongang.proxy.index.IndexingOrderRepositoryV1;
+import com.choongang.proxy.index.OrderIndex;
+import com.choongang.proxy.trace.executor.ExecutorMetrics;
+import com.choongang.proxy.trace.executor.TraceContextExecutor;
+import com.choongang.proxy.trace.export.ExportingLogTrace;
+import com.choongang.proxy.trace.export.MappedSpanFileWriter;
+import com.choongang.proxy.trace.export.SpanExporter;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.logtrace.TraceHolder;
+import com.choongang.proxy.trace.overhead.SpanCountingLogTrace;
+import com.choongang.proxy.trace.pointcut.TracePointcut;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * v1 주문 경로(API 어댑터 -> 인터페이스 프록시 -> LogTrace(logTrace 빈과 같은 조합))의 JIT 워밍업
+ *
+ * 운영 빈과 같은 구체 클래스로 별도의 호출 경로를 만들어 합성 입력으로 반복 호출한다.
+ * JIT가 호출 지점마다 보는 타입이 운영과 같도록, 저장소/외부 시스템도 운영 구현(OrderRepositoryV1Impl 등)을
+ * 호출 시간(sleep) 0으로 쓰고, 작업은 운영과 같은 방식(ThreadPoolExecutor + trace.holder.type의 스레드)으로 만든 풀에서 실행한다.
+ * LogTrace도 logTrace 빈과 같은 순서로 감싼다(ExportingLogTrace, SpanCountingLogTrace). span 내보내기가 켜져 있으면
+ * 임시 디렉터리의 MappedSpanFileWriter로 내보내고 끝나면 지운다 (운영 exporter와 같은 타입, 실제 span 파일은 건드리지 않음).
+ * 주문 인덱스는 워밍업 전용 인스턴스를 쓰므로 운영 인덱스, DB, span 파일에 흔적을 남기지 않는다.
+ * 추적 로그는 DiscardingLogSink로 버린다.
+ * 쓰기 병합(order.coalescing)과 JDBC 저장소 계층은 부수 효과 없이 실행할 수 없어 워밍업하지 않는다.
+ *
+ * 라운드마다 호출당 평균 지연 시간과 JIT 컴파일 시간(CompilationMXBean) 증가량을 재고,
+ * 둘 다 안정된 라운드가 stableRounds번 이어지면 수렴으로 보고 끝낸다.
+ */
+@Slf4j
+public class OrderPathWarmup {
+
+    private static final String EXCEPTION_ITEM = "ex"; // 저장소에서 예외가 나는 상품 (OrderRepositoryV1Impl의 규칙)
+    private static final int ITEM_COUNT = 64;
+
+    private final WarmupProperties properties;
+    private final String[] itemIds = new String[ITEM_COUNT];
+    private final List<String> batchItemIds;
+    private volatile Object sink; // 호출 결과가 제거되지 않도록 보관
+
+    public OrderPathWarmup(WarmupProperties properties) {
+        this.properties = properties;
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            itemIds[i] = "warmup-" + i;
+        }
+        this.batchItemIds = List.of("warmup-batch-1", EXCEPTION_ITEM, "warmup-batch-2", "warmup-batch-3");
+    }
+
+    /**
+     * @param exportSpans span 내보내기(trace.export.enabled)가 켜져 있으면 true
+     * @param countSpans 추적 비용 측정(trace.overhead.enabled)이 켜져 있으면 true
+     */
+    public WarmupReport run(TracePointcut pointcut, TraceHolder traceHolder, boolean exportSpans, boolean countSpans) {
+        Path exportDirectory = null;
+        MappedSpanFileWriter exporter = null;
+        ThreadPoolExecutor batchPool = newPool(traceHolder, "warmup-batch-");
+        ThreadPoolExecutor backendPool = newPool(traceHolder, "warmup-backend-");
+        try (DiscardingLogSink ignored = DiscardingLogSink.open(traceHolder.logTraceClass())) {
+            if (exportSpans) {
+                exportDirectory = Files.createTempDirectory("warmup-spans-");
+                exporter = new MappedSpanFileWriter(exportDirectory, "warmup", 1024 * 1024, 1);
+            }
+            return run(createApi(createLogTrace(traceHolder, exporter, countSpans), pointcut, batchPool, backendPool));
+        } catch (IOException e) {
+            throw new IllegalStateException("워밍업용 span 디렉터리를 만들 수 없습니다", e);
+        } finally {
+            batchPool.shutdownNow();
+            backendPool.shutdownNow();
+            if (exporter != null) {
+                exporter.close();
+            }
+            if (exportDirectory != null) {
+                try {
+                    FileSystemUtils.deleteRecursively(exportDirectory);
+                } catch (IOException e) {
+                    log.warn("워밍업용 span 디렉터리 삭제 실패: {}", exportDirectory, e);
+                }
+            }
+        }
+    }
+
+    // ProxyApplication.logTrace 빈과 같은 순서로 감싼다 (프록시의 LogTrace 호출 지점이 운영과 같은 타입을 보도록)
+    static LogTrace createLogTrace(TraceHolder traceHolder, SpanExporter exporter, boolean countSpans) {
+        LogTrace logTrace = traceHolder.createLogTrace();
+        if (exporter != null) {
+            logTrace = new ExportingLogTrace(logTrace, exporter);
+        }
+        return countSpans ? new SpanCountingLogTrace(logTrace) : logTrace;
+    }
+
+    // ExecutorConfig의 주문 풀과 같은 구성 (크기만 작게)
+    static ThreadPoolExecutor newPool(TraceHolder traceHolder, String threadNamePrefix) {
+        return new ThreadPoolExecutor(4, 4, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(64),
+                traceHolder.createThreadFactory(threadNamePrefix), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    WarmupReport run(OrderControllerV1ApiAdapter api) {
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + properties.getMaxDurationMs() * 1_000_000;
+        long startCompileMs = compileTimeMs(jit);
+        int roundCalls = properties.getRoundCalls();
+
+        long firstNanosPerCall = -1;
+        long previousNanosPerCall = -1;
+        long nanosPerCall = -1;
+        int rounds = 0;
+        int stable = 0;
+        long call = 0;
+        boolean converged = false;
+        while (System.nanoTime() < deadline) {
+            long compileBefore = compileTimeMs(jit);
+            long roundStart = System.nanoTime();
+            for (int i = 0; i < roundCalls; i++) {
+                callOnce(api, call++);
+            }
+            nanosPerCall = (System.nanoTime() - roundStart) / roundCalls;
+            long compileDelta = compileTimeMs(jit) - compileBefore;
+            rounds++;
+            if (firstNanosPerCall < 0) {
+                firstNanosPerCall = nanosPerCall;
+            }
+
+            boolean latencySettled = previousNanosPerCall > 0
+                    && Math.abs(nanosPerCall - previousNanosPerCall) <= previousNanosPerCall * properties.getLatencyTolerance();
+            boolean jitSettled = compileDelta <= properties.getCompileQuietMs();
+            stable = latencySettled && jitSettled ? stable + 1 : 0;
+            previousNanosPerCall = nanosPerCall;
+            if (stable >= properties.getStableRounds()) {
+                converged = true;
+                break;
+            }
+        }
+        long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+        return new WarmupReport(rounds, call, elapsedMs, firstNanosPerCall, nanosPerCall,
+                compileTimeMs(jit) - startCompileMs, converged);
+    }
+
+    private void callOnce(OrderControllerV1ApiAdapter api, long call) {
+        if (call % properties.getBatchEvery() == 0) {
+            List<OrderResult> results = api.requestBatch(batchItemIds); // 실패한 상품은 결과에 기록됨
+            sink = results;
+            return;
+        }
+        String itemId = call % properties.getExceptionEvery() == 0 ? EXCEPTION_ITEM : itemIds[(int) (call % ITEM_COUNT)];
+        try {
+            sink = api.request(itemId, null);
+        } catch (IllegalStateException e) {
+            sink = e;
+        }
+    }
+
+    private static long compileTimeMs(CompilationMXBean jit) {
+        return jit != null && jit.isCompilationTimeMonitoringSupported() ? jit.getTotalCompilationTime() : 0;
+    }
+
+    // InterfaceProxyConfig와 같은 구성: 어댑터 -> 컨트롤러 프록시 -> 서비스 프록시 -> 저장소(인덱스 반영)/클라이언트 프록시
+    static OrderControllerV1ApiAdapter createApi(LogTrace logTrace, TracePointcut pointcut,
+                                                 ThreadPoolExecutor batchPool, ThreadPoolExecutor backendPool) {
+        TraceContextExecutor batchExecutor = new TraceContextExecutor("warmup-batch", batchPool, logTrace, new ExecutorMetrics());
+        TraceContextExecutor backendExecutor = new TraceContextExecutor("warmup-backend", backendPool, logTrace, new ExecutorMetrics());
+        OrderRepositoryV1 orderRepository = new OrderRepositoryInterfaceProxy(
+                new IndexingOrderRepositoryV1(new OrderRepositoryV1Impl(0), new OrderIndex(ITEM_COUNT * 2, 1)), logTrace, pointcut);
+        InventoryClientV1 inventoryClient = new InventoryClientInterfaceProxy(new InventoryClientV1Impl(0), logTrace, pointcut);
+        PaymentClientV1 paymentClient = new PaymentClientInterfaceProxy(new PaymentClientV1Impl(0), logTrace, pointcut);
+        OrderServiceInterfaceProxy orderService = new OrderServiceInterfaceProxy(
+                new OrderServiceV1Impl(orderRepository, inventoryClient, paymentClient, backendExecutor), logTrace, pointcut);
+        OrderControllerInterfaceProxy orderController = new OrderControllerInterfaceProxy(
+                new OrderControllerV1Impl(orderService, batchExecutor), logTrace, pointcut);
+        return new OrderControllerV1ApiAdapter(orderController);
+    }
+
+    public record WarmupReport(int rounds, long calls, long elapsedMs, long firstNanosPerCall,
+                               long lastNanosPerCall, long compileTimeMs, boolean converged) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.choongang.proxy.warmup;
+
+import com.choongang.proxy.trace.export.TraceExportProperties;
+import com.choongang.proxy.trace.logtrace.TraceHolderProperties;
+import com.choongang.proxy.trace.overhead.OverheadProperties;
+import com.choongang.proxy.trace.pointcut.TracePointcut;
+import com.choongang.proxy.warmup.OrderPathWarmup.WarmupReport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.SmartLifecycle;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 웹 서버가 요청을 받기 전에 JIT 워밍업을 실행한다 (warmup.enabled=true)
+ *
+ * 웹 서버 시작(WebServerStartStopLifecycle)보다 앞선 단계에서 실행되므로 워밍업이 끝나야 포트가 열리고,
+ * 그 뒤 Spring Boot가 ReadinessState.ACCEPTING_TRAFFIC을 발행한다.
+ */
+@Slf4j
+public class WarmupLifecycle implements SmartLifecycle, ApplicationListener<AvailabilityChangeEvent<ReadinessState>> {
+
+    // 웹 서버 시작 단계(SMART_LIFECYCLE_PHASE - 1024)보다 먼저
+    static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+    private final WarmupProperties properties;
+    private final TracePointcut tracePointcut;
+    private final TraceHolderProperties traceHolder;
+    private final TraceExportProperties exportProperties;
+    private final OverheadProperties overheadProperties;
+    private volatile boolean running;
+    private volatile WarmupReport report;
+
+    public WarmupLifecycle(WarmupProperties properties, TracePointcut tracePointcut, TraceHolderProperties traceHolder,
+                           TraceExportProperties exportProperties, OverheadProperties overheadProperties) {
+        this.properties = properties;
+        this.tracePointcut = tracePointcut;
+        this.traceHolder = traceHolder;
+        this.exportProperties = exportProperties;
+        this.overheadProperties = overheadProperties;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!properties.isEnabled()) {
+            return;
+        }
+        WarmupReport report = properties.createWarmup().run(tracePointcut, traceHolder.getType(),
+                exportProperties.isEnabled(), overheadProperties.isEnabled());
+        this.report = report;
+        log.info("JIT 워밍업 {}: {}라운드 {}회 호출, {}ms, 호출당 {}us -> {}us, JIT 컴파일 +{}ms",
+                report.converged() ? "수렴" : "시간 초과", report.rounds(), report.calls(), report.elapsedMs(),
+                report.firstNanosPerCall() / 1000.0, report.lastNanosPerCall() / 1000.0, report.compileTimeMs());
+    }
+
+    @Override
+    public void onApplicationEvent(AvailabilityChangeEvent<ReadinessState> event) {
+        if (report != null && event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+            log.info("요청 받을 준비 완료: JVM 시작 후 {}ms (워밍업 {}ms 포함)",
+                    ManagementFactory.getRuntimeMXBean().getUptime(), report.elapsedMs());
+        }
+    }
+
+    public WarmupReport getReport() {
+        return report;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
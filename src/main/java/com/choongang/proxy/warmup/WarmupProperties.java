@@ -0,0 +1,24 @@
+package com.choongang.proxy.warmup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("warmup")
+public class WarmupProperties {
+
+    private boolean enabled = false;
+    private long maxDurationMs = 15_000; // 수렴하지 않아도 이 시간이 지나면 끝낸다
+    private int roundCalls = 2_000; // 한 라운드에서 호출할 횟수 (라운드마다 평균 지연 시간과 JIT 컴파일 시간을 잰다)
+    private int stableRounds = 3; // 연속으로 이만큼 안정된 라운드가 나오면 수렴으로 본다
+    private double latencyTolerance = 0.10; // 이전 라운드 대비 평균 지연 시간 변화가 이 비율 이하면 안정
+    private long compileQuietMs = 5; // 라운드 동안 늘어난 JIT 컴파일 시간이 이 값 이하면 안정
+    private int exceptionEvery = 16; // N번째 호출마다 예외 경로 (itemId = "ex")
+    private int batchEvery = 8; // N번째 호출마다 배치 주문 경로
+
+    public OrderPathWarmup createWarmup() {
+        return new OrderPathWarmup(this);
+    }
+}
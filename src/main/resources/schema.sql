@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS orders
+(
+    id         BIGINT AUTO_INCREMENT PRIMARY KEY,
+    item_id    VARCHAR(100) NOT NULL,
+    quantity   INT          NOT NULL,
+    ordered_at TIMESTAMP    NOT NULL
+);
@@ -0,0 +1,152 @@
+package com.choongang.proxy.agent;
+
+import com.choongang.proxy.app.v1.OrderRepositoryV1;
+import com.choongang.proxy.config.v1_proxy.interface_proxy.OrderRepositoryInterfaceProxy;
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace;
+import lombok.extern.slf4j.Slf4j;
+import net.bytebuddy.agent.ByteBuddyAgent;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.agent.builder.ResettableClassFileTransformer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.instrument.Instrumentation;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class TraceAgentTest {
+
+    private static Instrumentation instrumentation;
+    private static ResettableClassFileTransformer transformer;
+
+    @BeforeAll
+    static void installAgent() {
+        instrumentation = ByteBuddyAgent.install();
+        transformer = TraceAgent.install(instrumentation, List.of("com.choongang.proxy.agent.TraceAgentTest$*Impl"));
+    }
+
+    @AfterAll
+    static void resetAgent() {
+        transformer.reset(instrumentation, AgentBuilder.RedefinitionStrategy.RETRANSFORMATION);
+    }
+
+    @AfterEach
+    void uninstallBridge() {
+        AgentTraceBridge.install(null);
+    }
+
+    @Test
+    void message() {
+        assertThat(TraceAgent.message("OrderServiceV1Impl", "orderItem")).isEqualTo("OrderService.orderItem()");
+        assertThat(TraceAgent.message("OrderRepositoryV3", "save")).isEqualTo("OrderRepository.save()");
+    }
+
+    @Test
+    void tracesInstrumentedMethods() {
+        List<String> events = new ArrayList<>();
+        AgentTraceBridge.install(new ThreadLocalLogTrace() {
+            @Override
+            public TraceStatus begin(String message) {
+                events.add("begin " + message);
+                return super.begin(message);
+            }
+
+            @Override
+            public void exception(TraceStatus status, Exception e) {
+                events.add("exception " + status.getMessage());
+                super.exception(status, e);
+            }
+        });
+        SampleRepositoryV9Impl repository = new SampleRepositoryV9Impl();
+        repository.save("itemA");
+        assertThatThrownBy(() -> repository.save("ex")).isInstanceOf(IllegalStateException.class);
+
+        assertThat(repository.count).isEqualTo(1);
+        assertThat(events).containsExactly("begin SampleRepository.save()", "begin SampleRepository.save()",
+                "exception SampleRepository.save()");
+    }
+
+    @Tag("benchmark")
+    @Test
+    void overheadComparedToInterfaceProxy() {
+        AgentTraceBridge.install(new SilentLogTrace());
+        int iterations = 2_000_000;
+        CountingRepositoryImpl instrumented = new CountingRepositoryImpl();
+        OrderRepositoryInterfaceProxy proxy = new OrderRepositoryInterfaceProxy(new CountingRepository(), new SilentLogTrace());
+        for (int round = 0; round < 5; round++) { // 앞 라운드는 JIT 워밍업
+            long agentNs = measureAgent(instrumented, iterations);
+            long proxyNs = measureProxy(proxy, iterations);
+            log.info("round={} agent={}ns/op v1 interface proxy={}ns/op", round, agentNs / iterations, proxyNs / iterations);
+        }
+        assertThat(instrumented.count).isPositive();
+    }
+
+    private static long measureAgent(CountingRepositoryImpl repository, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            repository.saveAll("itemA", 1);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long measureProxy(OrderRepositoryInterfaceProxy repository, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            repository.saveAll("itemA", 1);
+        }
+        return System.nanoTime() - start;
+    }
+
+    // 에이전트 대상 (이름이 *Impl)
+    public static class SampleRepositoryV9Impl {
+        int count;
+
+        public void save(String itemId) {
+            if (itemId.equals("ex")) {
+                throw new IllegalStateException("예외 발생!");
+            }
+            count++;
+        }
+    }
+
+    public static class CountingRepositoryImpl extends CountingRepository {
+        @Override
+        public void saveAll(String itemId, int quantity) {
+            count += quantity;
+        }
+    }
+
+    // 에이전트 대상이 아님 (v1 프록시로 감싸서 비교)
+    public static class CountingRepository implements OrderRepositoryV1 {
+        volatile long count;
+
+        @Override
+        public void save(String itemId) {
+            count++;
+        }
+
+        @Override
+        public void saveAll(String itemId, int quantity) {
+            count += quantity;
+        }
+    }
+
+    // TraceId/TraceStatus는 만들지만 로그는 남기지 않는 LogTrace (추적 자체 비용 측정용)
+    static class SilentLogTrace extends ThreadLocalLogTrace {
+        private static final ch.qos.logback.classic.Logger LOGGER =
+                (ch.qos.logback.classic.Logger) org.slf4j.LoggerFactory.getLogger(ThreadLocalLogTrace.class);
+
+        SilentLogTrace() {
+            LOGGER.setLevel(ch.qos.logback.classic.Level.WARN);
+        }
+    }
+}
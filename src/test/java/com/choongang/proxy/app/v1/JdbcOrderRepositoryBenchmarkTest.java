@@ -0,0 +1,111 @@
+package com.choongang.proxy.app.v1;
+
+import com.choongang.proxy.trace.logtrace.NoLogTrace;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 배치 저장소(JdbcOrderRepositoryV1)와 호출마다 insert 하는 저장소(SimpleJdbcOrderRepositoryV1)의
+ * 초당 저장 행 수와 p99 지연 시간 비교. 실행: gradle benchmark
+ *
+ * 내장(in-process) H2는 SQL 한 번의 비용이 매우 작아 배치 효과가 거의 없으므로,
+ * 실제 DB처럼 SQL마다 네트워크 왕복이 있는 H2 TCP 서버 모드에서도 함께 측정한다.
+ */
+@Slf4j
+@Tag("benchmark")
+class JdbcOrderRepositoryBenchmarkTest {
+
+    private static final int THREADS = 32;
+    private static final int SAVES_PER_THREAD = 1000;
+
+    @Test
+    void inProcess() throws Exception {
+        compare("in-process", "jdbc:h2:mem:");
+    }
+
+    @Test
+    void tcp() throws Exception {
+        Server server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        try {
+            compare("tcp", "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:");
+        } finally {
+            server.stop();
+        }
+    }
+
+    private void compare(String mode, String urlPrefix) throws Exception {
+        try (HikariDataSource dataSource = dataSource(urlPrefix + mode + "-simple")) {
+            run(mode + " simple-jdbc", new SimpleJdbcOrderRepositoryV1(dataSource, new NoLogTrace()), dataSource);
+        }
+        try (HikariDataSource dataSource = dataSource(urlPrefix + mode + "-batch")) {
+            JdbcOrderRepositoryV1 repository = new JdbcOrderRepositoryV1(dataSource, new NoLogTrace(), 256, 10000, 2);
+            run(mode + " jdbc(batch)", repository, dataSource);
+            repository.close();
+        }
+    }
+
+    private void run(String name, OrderRepositoryV1 repository, HikariDataSource dataSource) throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        saveConcurrently(repository, new long[THREADS][SAVES_PER_THREAD]); // 워밍업 (JIT 컴파일 이후 상태로 비교)
+        jdbcTemplate.update("delete from orders");
+
+        long[][] latencies = new long[THREADS][SAVES_PER_THREAD];
+        long elapsedNanos = saveConcurrently(repository, latencies);
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        long rows = jdbcTemplate.queryForObject("select count(*) from orders", Long.class);
+        log.info("{}: rows={} rows/sec={} p50={}us p99={}us", name, rows,
+                rows * 1_000_000_000L / elapsedNanos,
+                all[all.length / 2] / 1000, all[(int) (all.length * 0.99)] / 1000);
+        assertThat(rows).isEqualTo((long) THREADS * SAVES_PER_THREAD);
+    }
+
+    // THREADS 개 스레드가 동시에 저장하고, 호출별 지연 시간을 latencies에 기록한다. 전체 걸린 시간(ns) 반환
+    private long saveConcurrently(OrderRepositoryV1 repository, long[][] latencies) throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch done = new CountDownLatch(THREADS);
+
+        long startNanos = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            long[] threadLatencies = latencies[t];
+            int thread = t;
+            clients.execute(() -> {
+                for (int i = 0; i < SAVES_PER_THREAD; i++) {
+                    long begin = System.nanoTime();
+                    repository.save("item" + (thread * SAVES_PER_THREAD + i) % 100);
+                    threadLatencies[i] = System.nanoTime() - begin;
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        long elapsedNanos = System.nanoTime() - startNanos;
+        clients.shutdown();
+        return elapsedNanos;
+    }
+
+    private HikariDataSource dataSource(String url) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url + ";DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=32");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(16);
+        config.setMinimumIdle(16);
+        HikariDataSource dataSource = new HikariDataSource(config);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,170 @@
+package com.choongang.proxy.app.v1;
+
+import com.choongang.proxy.trace.logtrace.NoLogTrace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcOrderRepositoryV1Test {
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final ExecutorService clients = Executors.newFixedThreadPool(8);
+
+    JdbcOrderRepositoryV1Test() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+    }
+
+    @AfterEach
+    void shutdown() {
+        clients.shutdownNow();
+        jdbcTemplate.execute("shutdown");
+    }
+
+    @Test
+    void batchedInsertsPersistRows() throws Exception {
+        JdbcOrderRepositoryV1 repository = new JdbcOrderRepositoryV1(dataSource, new NoLogTrace(), 16, 100, 2);
+        List<CompletableFuture<Void>> saves = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String itemId = "item" + (i % 10);
+            int quantity = i % 3 + 1;
+            saves.add(CompletableFuture.runAsync(() -> repository.saveAll(itemId, quantity), clients));
+        }
+        CompletableFuture.allOf(saves.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        repository.close();
+
+        // save()가 반환되면 커밋된 상태
+        assertThat(jdbcTemplate.queryForObject("select count(*) from orders", Long.class)).isEqualTo(200);
+        assertThat(jdbcTemplate.queryForObject("select sum(quantity) from orders", Long.class))
+                .isEqualTo(67 * 1 + 67 * 2 + 66 * 3);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from orders where item_id = 'item3'", Long.class)).isEqualTo(20);
+    }
+
+    @Test
+    void failedBatchIsReportedToCallers() throws Exception {
+        JdbcOrderRepositoryV1 repository = new JdbcOrderRepositoryV1(dataSource, new NoLogTrace(), 16, 100, 1);
+
+        assertThatThrownBy(() -> repository.save("x".repeat(JdbcOrderRepositoryV1.MAX_ITEM_ID_LENGTH + 1))) // item_id 컬럼보다 긴 아이디
+                .isInstanceOf(IllegalArgumentException.class); // 대기열에 넣기 전에 거절
+        assertThat(repository.queuedInserts()).isZero();
+        assertThatThrownBy(() -> repository.save("ex")).isInstanceOf(IllegalStateException.class).hasMessage("예외 발생!");
+        repository.save("item0"); // 실패한 배치 뒤에도 계속 저장한다
+        repository.close();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from orders", Long.class)).isEqualTo(1);
+    }
+
+    @Test
+    void badRowInConcurrentBatchFailsOnlyItsCaller() throws Exception {
+        jdbcTemplate.execute("alter table orders alter column item_id set data type varchar(10)"); // 검사를 통과하지만 DB가 거절하는 아이디
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        DelegatingDataSource gatedDataSource = new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                writerBlocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getConnection();
+            }
+        };
+        JdbcOrderRepositoryV1 repository = new JdbcOrderRepositoryV1(gatedDataSource, new NoLogTrace(), 16, 100, 1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> repository.save("item0"), clients);
+        assertThat(writerBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<Void>> batch = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            String itemId = i == 3 ? "x".repeat(20) : "item" + i;
+            batch.add(CompletableFuture.runAsync(() -> repository.save(itemId), clients));
+        }
+        awaitQueued(repository, 7); // 7건이 다음 배치 하나로 묶인다
+        release.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        for (int i = 0; i < batch.size(); i++) {
+            if (i == 3) {
+                assertThatThrownBy(batch.get(i)::get).hasCauseInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("주문 저장 실패");
+            } else {
+                batch.get(i).get(5, TimeUnit.SECONDS); // 같은 배치의 다른 주문은 저장된다
+            }
+        }
+        repository.close();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from orders", Long.class)).isEqualTo(7);
+    }
+
+    @Test
+    void fullQueueBlocksCallersUntilWriterCatchesUp() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        DelegatingDataSource slowDataSource = new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                writerBlocked.countDown();
+                try {
+                    release.await(); // DB가 응답하지 않는 상태
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getConnection();
+            }
+        };
+        JdbcOrderRepositoryV1 repository = new JdbcOrderRepositoryV1(slowDataSource, new NoLogTrace(), 1, 1, 1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> repository.save("item0"), clients);
+        assertThat(writerBlocked.await(5, TimeUnit.SECONDS)).isTrue(); // writer가 첫 insert를 꺼내 저장 중
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> repository.save("item1"), clients);
+        awaitQueued(repository, 1); // 대기열(1칸)이 가득 참
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> repository.save("item2"), clients);
+        Thread.sleep(200);
+        assertThat(repository.queuedInserts()).isEqualTo(1); // 세 번째 insert는 대기열에 들어가지 못하고
+        assertThat(blocked).isNotDone(); // 호출한 스레드가 기다린다
+
+        release.countDown();
+        CompletableFuture.allOf(first, queued, blocked).get(5, TimeUnit.SECONDS);
+        repository.close();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from orders", Long.class)).isEqualTo(3);
+    }
+
+    @Test
+    void saveAfterCloseFailsFast() throws Exception {
+        JdbcOrderRepositoryV1 repository = new JdbcOrderRepositoryV1(dataSource, new NoLogTrace(), 16, 100, 2);
+        repository.save("item0");
+        repository.close();
+
+        CompletableFuture<Void> late = CompletableFuture.runAsync(() -> repository.save("item1"), clients);
+        assertThatThrownBy(() -> late.get(1, TimeUnit.SECONDS)) // 종료된 writer를 기다리며 멈추지 않는다
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("종료된 저장소");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from orders", Long.class)).isEqualTo(1);
+    }
+
+    private static void awaitQueued(JdbcOrderRepositoryV1 repository, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (repository.queuedInserts() < size && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.choongang.proxy.app.v1;
+
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.executor.TraceContextExecutor;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderControllerV1ImplTest {
+
+    private final LogTrace logTrace = new ThreadLocalLogTrace();
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+    private final Map<String, TraceId> workerTraceIds = new ConcurrentHashMap<>();
+    private final Map<String, String> workerThreads = new ConcurrentHashMap<>();
+
+    // 앞 상품일수록 늦게 끝나는 주문 서비스 (결과 순서가 완료 순서가 아닌 요청 순서인지 확인)
+    private final OrderServiceV1 orderService = itemId -> {
+        TraceId traceId = logTrace.currentTraceId();
+        if (traceId != null) {
+            workerTraceIds.put(itemId, traceId);
+        }
+        workerThreads.put(itemId, Thread.currentThread().getName());
+        if (itemId.equals("ex")) {
+            throw new IllegalStateException("예외 발생!");
+        }
+        try {
+            Thread.sleep(40 - Integer.parseInt(itemId.substring(4)) * 10L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    };
+
+    private final OrderControllerV1Impl controller =
+            new OrderControllerV1Impl(orderService, new TraceContextExecutor("order-batch", pool, logTrace));
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void resultsKeepRequestOrderAndIsolateFailures() {
+        List<OrderResult> results = controller.requestBatch(List.of("item0", "ex", "item1", "item2"));
+
+        assertThat(results).extracting(OrderResult::getItemId).containsExactly("item0", "ex", "item1", "item2");
+        assertThat(results).extracting(OrderResult::isSuccess).containsExactly(true, false, true, true);
+        assertThat(results.get(1).getError()).contains("예외 발생!");
+        assertThat(workerThreads.values()).doesNotContain(Thread.currentThread().getName()); // 작업 스레드에서 실행
+        assertThat(workerTraceIds).isEmpty(); // 제출한 스레드에 TraceId가 없으면 작업 스레드에도 없다
+    }
+
+    @Test
+    void workerThreadsContinueSubmitterTrace() {
+        TraceStatus status = logTrace.begin("OrderController.requestBatch()");
+        try {
+            controller.requestBatch(List.of("item0", "item1", "ex"));
+        } finally {
+            logTrace.end(status);
+        }
+
+        assertThat(workerTraceIds).hasSize(3);
+        assertThat(workerTraceIds.values()).allSatisfy(traceId -> {
+            assertThat(traceId.getId()).isEqualTo(status.getTraceId().getId());
+            assertThat(traceId.getSpanId()).isEqualTo(status.getTraceId().getSpanId()); // 작업 스레드의 첫 로그는 다음 레벨로 이어진다
+        });
+        assertThat(logTrace.currentTraceId()).isNull();
+    }
+
+    @Test
+    void rejectsOversizedBatch() {
+        OrderControllerV1ApiAdapter adapter = new OrderControllerV1ApiAdapter(controller);
+        List<String> itemIds = IntStream.rangeClosed(0, OrderControllerV1ApiAdapter.MAX_BATCH_ITEMS)
+                .mapToObj(i -> "item" + (i % 4)).toList();
+
+        assertThatThrownBy(() -> adapter.requestBatch(itemIds))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThat(workerThreads).isEmpty(); // 거절된 배치는 실행하지 않음
+        assertThat(adapter.requestBatch(Collections.nCopies(OrderControllerV1ApiAdapter.MAX_BATCH_ITEMS, "item3"))).hasSize(100);
+    }
+}
@@ -0,0 +1,133 @@
+package com.choongang.proxy.coalesce;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class WriteCoalescerTest {
+
+    @Test
+    void coalesceSameItemOrders() throws Exception {
+        // given: 저장 한 번에 50ms가 걸리는 저장소
+        Map<String, AtomicInteger> saved = new ConcurrentHashMap<>();
+        AtomicInteger writes = new AtomicInteger();
+        WriteCoalescer coalescer = new WriteCoalescer((itemId, quantity) -> {
+            writes.incrementAndGet();
+            sleep(50);
+            saved.computeIfAbsent(itemId, k -> new AtomicInteger()).addAndGet(quantity);
+        }, 4, 1000, 100, 4, 1000, 10_000);
+
+        // when: 3개 상품에 300건을 동시에 주문
+        ExecutorService clients = Executors.newFixedThreadPool(50);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String itemId = "item" + (i % 3);
+            futures.add(clients.submit(() -> coalescer.add(itemId, 1)));
+        }
+        for (Future<?> future : futures) {
+            future.get(); // add()가 반환되면 저장이 끝난 상태
+        }
+        clients.shutdown();
+        coalescer.close();
+
+        // then: 주문 수는 그대로, 저장소 호출은 주문 수보다 훨씬 적다
+        log.info("orders=300 backendWrites={}", writes.get());
+        assertThat(saved.values().stream().mapToInt(AtomicInteger::get).sum()).isEqualTo(300);
+        assertThat(saved.get("item0").get()).isEqualTo(100);
+        assertThat(writes.get()).isLessThan(100);
+        assertThat(coalescer.getBackendWrites()).isEqualTo(writes.get());
+    }
+
+    @Test
+    void failureIsReportedOnlyToCallersOfThatItem() throws Exception {
+        WriteCoalescer coalescer = new WriteCoalescer((itemId, quantity) -> {
+            if (itemId.equals("ex")) {
+                throw new IllegalStateException("예외 발생!");
+            }
+        }, 4, 1000, 10, 2, 1000, 10_000);
+
+        coalescer.add("ok", 1);
+        assertThatThrownBy(() -> coalescer.add("ex", 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("예외 발생!");
+        coalescer.close();
+    }
+
+    @Test
+    void addAfterCloseFailsFast() throws Exception {
+        AtomicInteger writes = new AtomicInteger();
+        WriteCoalescer coalescer = new WriteCoalescer((itemId, quantity) -> writes.incrementAndGet(), 4, 1000, 10, 2, 1000, 10_000);
+        coalescer.add("item0", 1);
+        coalescer.close();
+
+        // 종료 뒤에는 기다리지 않고 바로 거절
+        ExecutorService client = Executors.newSingleThreadExecutor();
+        Future<?> late = client.submit(() -> coalescer.add("item0", 1));
+        assertThatThrownBy(() -> late.get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        client.shutdown();
+        assertThat(writes).hasValue(1);
+    }
+
+    @Test
+    void itemsBeyondMaxItemsAreWrittenWithoutCoalescing() throws Exception {
+        Map<String, AtomicInteger> saved = new ConcurrentHashMap<>();
+        WriteCoalescer coalescer = new WriteCoalescer((itemId, quantity) ->
+                saved.computeIfAbsent(itemId, k -> new AtomicInteger()).addAndGet(quantity), 4, 1000, 10, 2, 2, 10_000);
+
+        for (int i = 0; i < 10; i++) {
+            coalescer.add("item" + i, 1); // 클라이언트가 보낸 상품 아이디가 계속 늘어나도
+        }
+        coalescer.close();
+
+        assertThat(saved).hasSize(10); // 모든 주문이 저장되고
+        assertThat(coalescer.getUncoalescedOrders()).isEqualTo(8); // 병합 대상은 먼저 본 2개 상품뿐
+    }
+
+    @Test
+    void callerStopsWaitingForStalledWrite() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        WriteCoalescer coalescer = new WriteCoalescer((itemId, quantity) -> await(release), 4, 1000, 10, 2, 1000, 100);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> coalescer.add("item0", 1)) // 저장소가 응답하지 않아도
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("100ms");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5_000); // 요청 스레드는 풀려난다
+        assertThat(coalescer.getWriteTimeouts()).isEqualTo(1);
+        release.countDown();
+        coalescer.close();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sleep(int millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.choongang.proxy.idempotency;
+
+import com.choongang.proxy.idempotency.IdempotencyStore.Stats;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    void duplicateReturnsFirstResultWithoutRunning() {
+        IdempotencyStore<String> store = new IdempotencyStore<>(1024, 4, 60_000, 5_000, now::get);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(store.execute("key-1", () -> "ok-" + runs.incrementAndGet())).isEqualTo("ok-1");
+        assertThat(store.execute("key-1", () -> "ok-" + runs.incrementAndGet())).isEqualTo("ok-1");
+        assertThat(store.execute("key-2", () -> "ok-" + runs.incrementAndGet())).isEqualTo("ok-2");
+
+        assertThat(runs).hasValue(2);
+        Stats stats = store.stats();
+        assertThat(stats.executions()).isEqualTo(2);
+        assertThat(stats.duplicates()).isEqualTo(1);
+        assertThat(stats.filterSkips()).isEqualTo(2); // 처음 보는 키는 필터에서 걸러져 테이블을 탐사하지 않는다
+    }
+
+    @Test
+    void inFlightDuplicateWaitsForFirstCall() throws InterruptedException {
+        IdempotencyStore<String> store = new IdempotencyStore<>(1024, 4, 60_000, 5_000, now::get);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        Queue<String> results = new ConcurrentLinkedQueue<>();
+
+        Thread first = new Thread(() -> results.add(store.execute("key", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "saved";
+        })));
+        first.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread retry = new Thread(() -> results.add(store.execute("key", () -> "saved-again-" + runs.incrementAndGet())));
+        retry.start();
+        while (store.stats().waits() == 0) { // 재시도가 첫 실행을 기다리기 시작할 때까지
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        first.join();
+        retry.join();
+
+        assertThat(results).containsExactly("saved", "saved");
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void waitingDuplicateTimesOutWhileFirstCallKeepsRunning() throws InterruptedException {
+        IdempotencyStore<String> store = new IdempotencyStore<>(1024, 4, 60_000, 50, now::get);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> firstResult = new AtomicReference<>();
+
+        Thread first = new Thread(() -> firstResult.set(store.execute("key", () -> {
+            started.countDown();
+            await(release); // 끝나지 않는 첫 실행
+            return "saved";
+        })));
+        first.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> store.execute("key", () -> "unused"))
+                .isInstanceOf(IdempotencyStore.InFlightTimeoutException.class)
+                .hasMessageContaining("50ms");
+        assertThat(store.stats().waitTimeouts()).isEqualTo(1);
+
+        release.countDown(); // 기다리던 요청이 실패해도 첫 실행은 그대로 끝나서 보관된다
+        first.join();
+        assertThat(firstResult.get()).isEqualTo("saved");
+        assertThat(store.execute("key", () -> "unused")).isEqualTo("saved");
+    }
+
+    @Test
+    void failureIsNotStored() throws InterruptedException {
+        IdempotencyStore<String> store = new IdempotencyStore<>(1024, 4, 60_000, 5_000, now::get);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<RuntimeException> waiterFailure = new AtomicReference<>();
+
+        Thread first = new Thread(() -> {
+            try {
+                store.execute("key", () -> {
+                    started.countDown();
+                    await(release);
+                    throw new IllegalStateException("예외 발생!");
+                });
+            } catch (IllegalStateException ignored) {
+            }
+        });
+        first.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread waiter = new Thread(() -> {
+            try {
+                store.execute("key", () -> "unused");
+            } catch (RuntimeException e) {
+                waiterFailure.set(e);
+            }
+        });
+        waiter.start();
+        while (store.stats().waits() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        first.join();
+        waiter.join();
+
+        assertThat(waiterFailure.get()).isInstanceOf(IllegalStateException.class).hasMessage("예외 발생!"); // 기다리던 요청도 같은 예외
+        assertThat(store.execute("key", () -> "retried")).isEqualTo("retried"); // 다음 재시도는 다시 실행
+    }
+
+    @Test
+    void resultExpiresAfterTtl() {
+        IdempotencyStore<String> store = new IdempotencyStore<>(1024, 4, 60_000, 5_000, now::get);
+        store.execute("key", () -> "first");
+
+        now.addAndGet(59_999);
+        assertThat(store.execute("key", () -> "second")).isEqualTo("first");
+        now.addAndGet(1);
+        assertThat(store.execute("key", () -> "second")).isEqualTo("second");
+        assertThat(store.execute("key", () -> "third")).isEqualTo("second");
+    }
+
+    @Test
+    void boundedSizeEvictsEarliestExpiringResults() {
+        IdempotencyStore<Integer> store = new IdempotencyStore<>(16, 1, 60_000, 5_000, now::get);
+        for (int i = 0; i < 1000; i++) {
+            int value = i;
+            now.incrementAndGet(); // 나중에 완료된 결과일수록 늦게 만료
+            assertThat(store.execute("key-" + i, () -> value)).isEqualTo(i);
+        }
+
+        assertThat(store.stats().evictions()).isGreaterThan(900);
+        assertThat(store.execute("key-999", () -> -1)).isEqualTo(999); // 최근 결과는 남아 있다
+        assertThat(store.execute("key-0", () -> -1)).isEqualTo(-1); // 가장 오래된 결과는 버려졌다
+    }
+
+    @Test
+    void expiredEntriesAreReusedWithoutEviction() {
+        IdempotencyStore<Integer> store = new IdempotencyStore<>(16, 1, 10, 5_000, now::get);
+        for (int i = 0; i < 1000; i++) {
+            int value = i;
+            now.addAndGet(20); // 앞 결과는 모두 만료
+            assertThat(store.execute("key-" + i, () -> value)).isEqualTo(i);
+        }
+
+        assertThat(store.stats().evictions()).isZero();
+        assertThat(store.stats().executions()).isEqualTo(1000);
+    }
+
+    @Test
+    void inFlightEntriesAreNeverEvicted() throws InterruptedException {
+        IdempotencyStore<String> store = new IdempotencyStore<>(2, 1, 60_000, 5_000, now::get);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        List<Thread> threads = new ArrayList<>();
+        for (String key : List.of("a", "b")) {
+            Thread thread = new Thread(() -> store.execute(key, () -> {
+                started.countDown();
+                await(release);
+                return key;
+            }));
+            thread.start();
+            threads.add(thread);
+        }
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(store.execute("c", () -> "c")).isEqualTo("c"); // 실행 중인 항목만으로 가득 차면 보관하지 않고 실행
+        assertThat(store.stats().bypassed()).isEqualTo(1);
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(store.execute("a", () -> "again")).isEqualTo("a");
+    }
+
+    @Test
+    void concurrentRetriesRunEachKeyOnce() throws InterruptedException {
+        IdempotencyStore<String> store = new IdempotencyStore<>(4096, 8, 60_000, 5_000, now::get);
+        Map<String, AtomicInteger> runs = new ConcurrentHashMap<>();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 500; i++) {
+                        String key = "order-" + i;
+                        String result = store.execute(key, () -> {
+                            runs.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                            return key + "-ok";
+                        });
+                        if (!result.equals(key + "-ok")) {
+                            throw new AssertionError("다른 키의 결과: " + result);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(failures).isEmpty();
+        assertThat(runs).hasSize(500);
+        assertThat(runs.values()).allMatch(count -> count.get() == 1);
+        Stats stats = store.stats();
+        assertThat(stats.executions()).isEqualTo(500);
+        assertThat(stats.duplicates() + stats.waits()).isEqualTo(7 * 500);
+    }
+
+    @Test
+    void disabledStoreAndMissingKeyAlwaysRun() {
+        IdempotencyStore<String> disabled = new IdempotencyProperties().createStore();
+        AtomicInteger runs = new AtomicInteger();
+        disabled.execute("key", () -> "ok-" + runs.incrementAndGet());
+        disabled.execute("key", () -> "ok-" + runs.incrementAndGet());
+        assertThat(runs).hasValue(2);
+
+        IdempotencyStore<String> store = new IdempotencyStore<>(16, 1, 60_000, 5_000, now::get);
+        store.execute(null, () -> "ok-" + runs.incrementAndGet());
+        store.execute(null, () -> "ok-" + runs.incrementAndGet());
+        assertThat(runs).hasValue(4);
+
+        assertThatThrownBy(() -> new IdempotencyStore<>(16, 3, 60_000, 5_000)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void sameKeyForDifferentItemRunsAgain() {
+        IdempotencyStore<String> store = new IdempotencyStore<>(16, 1, 60_000, 5_000, now::get);
+
+        assertThat(store.execute(IdempotencyStore.scopedKey("retry-1", "itemA"), () -> "A")).isEqualTo("A");
+        assertThat(store.execute(IdempotencyStore.scopedKey("retry-1", "itemB"), () -> "B")).isEqualTo("B");
+        assertThat(store.execute(IdempotencyStore.scopedKey("retry-1", "itemA"), () -> "A2")).isEqualTo("A");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.choongang.proxy.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderIndexTest {
+
+    @Test
+    void countRecentAndTop() {
+        OrderIndex index = new OrderIndex(4096, 4);
+        for (int i = 1; i <= 6; i++) {
+            index.record("itemA", i, 1000L + i);
+        }
+        index.record("itemB", 100, 2000L);
+        index.record("itemC", 1, 3000L);
+
+        assertThat(index.count("itemA")).isEqualTo(21);
+        assertThat(index.count("unknown")).isZero();
+
+        // 최신순, 링 버퍼 크기(4)만큼만 남는다
+        List<OrderIndex.RecentOrder> recent = index.recent("itemA");
+        assertThat(recent).extracting(OrderIndex.RecentOrder::quantity).containsExactly(6, 5, 4, 3);
+        assertThat(recent.get(0).orderedAtMs()).isEqualTo(1006L);
+
+        assertThat(index.top(2)).containsExactly(
+                new OrderIndex.ItemCount("itemB", 100),
+                new OrderIndex.ItemCount("itemA", 21));
+    }
+
+    @Test
+    void concurrentWritesWhileReading() throws InterruptedException {
+        OrderIndex index = new OrderIndex(4096, 16);
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            writers.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    index.record("item" + (i % 2000), 1, i);
+                }
+            });
+        }
+        // 쓰는 동안 읽어도 완전히 쓰인 주문만 보인다
+        while (!writers.isTerminated()) {
+            for (OrderIndex.RecentOrder order : index.recent("item7")) {
+                assertThat(order.quantity()).isEqualTo(1);
+            }
+            writers.shutdown();
+        }
+        writers.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(index.count("item7")).isEqualTo(8 * 5);
+        assertThat(index.top(1).get(0).count()).isEqualTo(40);
+    }
+
+    @Test
+    void itemsBeyondMaxItemsAreNotRegistered() {
+        OrderIndex index = new OrderIndex(2, 4);
+        index.record("itemA", 1, 1000L);
+        index.record("itemB", 2, 1000L);
+        for (int i = 0; i < 100; i++) {
+            index.record("client-" + i, 1, 1000L); // 요청마다 다른 상품 아이디
+        }
+        index.record("itemA", 3, 2000L);
+
+        assertThat(index.count("itemA")).isEqualTo(4); // 먼저 등록된 상품은 계속 인덱스에 쌓이고
+        assertThat(index.count("client-0")).isZero();
+        assertThat(index.getDroppedOrders()).isEqualTo(100);
+        assertThat(index.top(10)).hasSize(2);
+    }
+
+    @Test
+    void writersLappingSameSlotDoNotTear() throws InterruptedException {
+        // recentSize=1: 모든 주문이 같은 칸을 쓰므로 seq와 seq+1 쓰기가 계속 겹친다
+        OrderIndex index = new OrderIndex(16, 1);
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            writers.execute(() -> {
+                for (int i = 1; i <= 20_000; i++) {
+                    index.record("item", i, i); // 주문 시각과 수량을 같게 써서 섞이면 드러나게 한다
+                }
+            });
+        }
+        writers.shutdown();
+        while (!writers.isTerminated()) {
+            for (OrderIndex.RecentOrder order : index.recent("item")) {
+                assertThat(order.orderedAtMs()).isEqualTo(order.quantity());
+            }
+        }
+
+        assertThat(index.recent("item")).hasSize(1); // 마지막 순번의 주문은 항상 칸을 차지한다
+    }
+}
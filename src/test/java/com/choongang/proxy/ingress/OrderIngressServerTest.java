@@ -0,0 +1,138 @@
+package com.choongang.proxy.ingress;
+
+import com.choongang.proxy.app.v1.OrderControllerV1;
+import com.choongang.proxy.app.v1.OrderResult;
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderIngressServerTest {
+
+    private final LogTrace logTrace = new ThreadLocalLogTrace();
+    private final List<String> itemIds = new CopyOnWriteArrayList<>();
+    private final List<TraceId> traceIds = new CopyOnWriteArrayList<>();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private OrderIngressServer server;
+
+    @BeforeEach
+    void start() {
+        IngressProperties properties = new IngressProperties();
+        properties.setHost("127.0.0.1");
+        properties.setPort(0); // 빈 포트
+        properties.setWorkerThreads(2);
+        server = new OrderIngressServer(properties, new RecordingController(), logTrace);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    @Test
+    void routesRequestToController() throws Exception {
+        HttpResponse<String> response = get("/v1/request?from=test&itemId=item%20a", null);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("ok");
+        assertThat(itemIds).containsExactly("item a");
+        assertThat(traceIds).containsOnlyNulls(); // traceparent가 없으면 연결된 TraceId 없음
+    }
+
+    @Test
+    void errors() throws Exception {
+        assertThat(get("/v1/request?itemId=ex", null).statusCode()).isEqualTo(500);
+        assertThat(get("/v1/request", null).statusCode()).isEqualTo(400);
+        assertThat(get("/v1/request?item=a", null).statusCode()).isEqualTo(400);
+        assertThat(get("/v1/orders", null).statusCode()).isEqualTo(404);
+    }
+
+    @Test
+    void malformedEscapeIsBadRequest() throws Exception {
+        // java.net.URI는 잘못된 % 인코딩을 만들지 못하므로 요청 줄을 직접 보낸다
+        assertThat(rawGet("/v1/request?itemId=%G1")).startsWith("HTTP/1.1 400").endsWith("itemId is malformed");
+        assertThat(rawGet("/v1/request?itemId=a%")).startsWith("HTTP/1.1 400").endsWith("itemId is malformed");
+        assertThat(itemIds).isEmpty();
+        assertThat(get("/v1/request?itemId=a", null).statusCode()).isEqualTo(200); // 연결과 서버는 그대로
+    }
+
+    @Test
+    void attachesTraceparent() throws Exception {
+        HttpResponse<String> response = get("/v1/request?itemId=a", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(traceIds).singleElement().satisfies(traceId -> {
+            assertThat(traceId.getId()).isEqualTo("0af76519");
+            assertThat(traceId.getSpanId()).isEqualTo(0xb7ad6b7169203331L);
+        });
+    }
+
+    @Test
+    void queryParameter() {
+        String uri = "/v1/request?itemIdx=1&itemId=abc&itemId=def";
+        assertThat(OrderIngressServer.queryParameter(uri, uri.indexOf('?') + 1, "itemId")).isEqualTo("abc");
+        assertThat(OrderIngressServer.queryParameter("?itemId=", 1, "itemId")).isEmpty();
+        assertThat(OrderIngressServer.queryParameter("?itemId", 1, "itemId")).isNull();
+        assertThat(OrderIngressServer.queryParameter("?itemId=a+b%21", 1, "itemId")).isEqualTo("a b!");
+        assertThatThrownBy(() -> OrderIngressServer.queryParameter("?itemId=%G1", 1, "itemId"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private HttpResponse<String> get(String pathAndQuery, String traceparent) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + pathAndQuery));
+        if (traceparent != null) {
+            request.header("traceparent", traceparent);
+        }
+        return client.send(request.GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    // 응답 전체(상태 줄, 헤더, 본문)
+    private String rawGet(String pathAndQuery) throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            socket.setSoTimeout(5_000);
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET " + pathAndQuery + " HTTP/1.1\r\nHost: 127.0.0.1\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // 작업 스레드에서 호출된 값과 그때의 TraceId를 기록
+    private class RecordingController implements OrderControllerV1 {
+
+        @Override
+        public String request(String itemId) {
+            if (itemId.equals("ex")) {
+                throw new IllegalStateException("예외 발생!");
+            }
+            itemIds.add(itemId);
+            traceIds.add(logTrace.currentTraceId());
+            return "ok";
+        }
+
+        @Override
+        public List<OrderResult> requestBatch(List<String> itemIds) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
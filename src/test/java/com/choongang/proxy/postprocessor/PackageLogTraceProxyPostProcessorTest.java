@@ -0,0 +1,258 @@
+package com.choongang.proxy.postprocessor;
+
+import com.choongang.proxy.app.v1.OrderRepositoryV1;
+import com.choongang.proxy.app.v3.OrderRepositoryV3;
+import com.choongang.proxy.app.v3.OrderServiceV3;
+import com.choongang.proxy.app.v4.OrderRepositoryV4;
+import com.choongang.proxy.app.v4.OrderServiceV4;
+import com.choongang.proxy.config.v1_proxy.interface_proxy.OrderRepositoryInterfaceProxy;
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.export.SpanExporter;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.logtrace.ReactiveLogTrace;
+import com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace;
+import com.choongang.proxy.trace.pointcut.TracePointcut;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.Dispatcher;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.context.support.GenericApplicationContext;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class PackageLogTraceProxyPostProcessorTest {
+
+    @Test
+    void proxyConcreteClass() {
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        PackageLogTraceProxyPostProcessor postProcessor = postProcessor(List.of("com.choongang.proxy.app.v3"), logTrace,
+                new TracePointcut(List.of("*"), List.of("*.saveAll")));
+
+        OrderRepositoryV3 repository = (OrderRepositoryV3) postProcessor.postProcessAfterInitialization(new OrderRepositoryV3(), "orderRepositoryV3");
+        // 생성자 인자가 있는 클래스도 프록시 가능 (Objenesis)
+        OrderServiceV3 service = (OrderServiceV3) postProcessor.postProcessAfterInitialization(new OrderServiceV3(repository), "orderServiceV3");
+        assertThat(service.getClass()).isNotEqualTo(OrderServiceV3.class);
+
+        assertThatThrownBy(() -> service.orderItem("ex")).isInstanceOf(IllegalStateException.class);
+        assertThat(logTrace.messages).containsExactly("OrderService.orderItem()", "OrderRepository.save()");
+        assertThat(logTrace.exceptions).isEqualTo(2);
+
+        // 제외한 메서드는 LogTrace 없이 실제 객체로 위임
+        logTrace.messages.clear();
+        assertThatThrownBy(() -> repository.saveAll("ex", 2)).isInstanceOf(IllegalStateException.class);
+        assertThat(logTrace.messages).isEmpty();
+
+        // 대상 패키지가 아니면 그대로
+        Object other = new ArrayList<>();
+        assertThat(postProcessor.postProcessAfterInitialization(other, "other")).isSameAs(other);
+    }
+
+    @Test
+    void proxyMonoReturningMethods() {
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        List<String> spans = new ArrayList<>();
+        ReactiveLogTrace reactiveLogTrace = new ReactiveLogTrace(new SpanExporter() {
+            @Override
+            public void export(TraceId traceId, String message, long startTimeMs, long endTimeMs, boolean error) {
+                spans.add(traceId.getLevel() + " " + message + (error ? " error" : ""));
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        PackageLogTraceProxyPostProcessor postProcessor = postProcessor(List.of("com.choongang.proxy.app.v4"), logTrace,
+                TracePointcut.ALL, reactiveLogTrace);
+
+        OrderRepositoryV4 repository = (OrderRepositoryV4) postProcessor.postProcessAfterInitialization(new OrderRepositoryV4(), "orderRepositoryV4");
+        OrderServiceV4 service = (OrderServiceV4) postProcessor.postProcessAfterInitialization(new OrderServiceV4(repository), "orderServiceV4");
+
+        Mono<Void> order = service.orderItem("ex");
+        assertThat(spans).isEmpty(); // 구독 전에는 단계가 시작되지 않음
+        assertThatThrownBy(order::block).isInstanceOf(IllegalStateException.class);
+
+        // Mono 메서드는 ThreadLocal LogTrace를 쓰지 않고, 안쪽 단계가 먼저 끝난다
+        assertThat(logTrace.messages).isEmpty();
+        assertThat(spans).containsExactly("1 OrderRepository.save() error", "0 OrderService.orderItem() error");
+    }
+
+    @Test
+    void untracedMethodsDispatchToTarget() {
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        CountingRepository target = new CountingRepository();
+        CountingRepository proxy = (CountingRepository) postProcessor(List.of("com.choongang.proxy.postprocessor"), logTrace,
+                new TracePointcut(List.of("*"), List.of("*.saveAll"))).postProcessAfterInitialization(target, "target");
+
+        // 추적 대상(save)만 MethodInterceptor를 갖고, 0번은 실제 객체로 위임하는 Dispatcher
+        Callback[] callbacks = ((Factory) proxy).getCallbacks();
+        assertThat(callbacks).hasSize(2);
+        assertThat(callbacks[0]).isInstanceOf(Dispatcher.class);
+        assertThat(callbacks[1]).isInstanceOf(MethodInterceptor.class);
+
+        // 콜백을 기록용으로 바꿔서 메서드마다 어느 콜백으로 가는지 확인한다
+        AtomicInteger dispatched = new AtomicInteger();
+        AtomicInteger intercepted = new AtomicInteger();
+        ((Factory) proxy).setCallbacks(new Callback[]{
+                (Dispatcher) () -> {
+                    dispatched.incrementAndGet();
+                    return target;
+                },
+                (MethodInterceptor) (obj, method, args, methodProxy) -> {
+                    intercepted.incrementAndGet();
+                    return methodProxy.invoke(target, args);
+                }});
+
+        proxy.saveAll("itemA", 3);
+        assertThat(dispatched).hasValue(1);
+        assertThat(intercepted).hasValue(0);
+
+        proxy.save("itemA");
+        assertThat(dispatched).hasValue(1);
+        assertThat(intercepted).hasValue(1);
+        assertThat(target.count).isEqualTo(4);
+        assertThat(logTrace.messages).isEmpty();
+    }
+
+    @Tag("benchmark")
+    @Test
+    void callOverheadComparedToInterfaceProxy() {
+        int iterations = 2_000_000;
+        CountingRepository target = new CountingRepository();
+        LogTrace logTrace = new SilentLogTrace();
+        OrderRepositoryInterfaceProxy interfaceProxy = new OrderRepositoryInterfaceProxy(target, logTrace);
+        CountingRepository classProxy = (CountingRepository) postProcessor(List.of("com.choongang.proxy.postprocessor"),
+                logTrace, TracePointcut.ALL).postProcessAfterInitialization(target, "target");
+        for (int round = 0; round < 5; round++) { // 앞 라운드는 JIT 워밍업
+            long direct = measureDirect(target, iterations);
+            long handWritten = measureInterfaceProxy(interfaceProxy, iterations);
+            long cglib = measureClassProxy(classProxy, iterations);
+            log.info("round={} direct={}ns/op v1 interface proxy={}ns/op class proxy={}ns/op", round,
+                    direct / iterations, handWritten / iterations, cglib / iterations);
+        }
+        assertThat(target.count).isPositive();
+    }
+
+    @Tag("benchmark")
+    @Test
+    void startupTime() {
+        int beans = 300;
+        for (int round = 0; round < 5; round++) {
+            long plain = refresh(beans, false);
+            long proxied = refresh(beans, true);
+            log.info("round={} beans={} no proxy={}ms auto proxy={}ms", round, beans, plain / 1_000_000, proxied / 1_000_000);
+        }
+    }
+
+    private static long refresh(int beans, boolean autoProxy) {
+        long start = System.nanoTime();
+        try (GenericApplicationContext context = new GenericApplicationContext()) {
+            context.registerBean("logTrace", LogTrace.class, SilentLogTrace::new);
+            if (autoProxy) {
+                context.registerBean(PackageLogTraceProxyPostProcessor.class, () -> new PackageLogTraceProxyPostProcessor(
+                        List.of("com.choongang.proxy.postprocessor"),
+                        context.getBeanProvider(LogTrace.class), context.getBeanProvider(TracePointcut.class),
+                        context.getBeanProvider(ReactiveLogTrace.class)));
+            }
+            for (int i = 0; i < beans; i++) {
+                context.registerBean("repository" + i, CountingRepository.class);
+            }
+            context.refresh();
+            return System.nanoTime() - start;
+        }
+    }
+
+    private static PackageLogTraceProxyPostProcessor postProcessor(List<String> packages, LogTrace logTrace, TracePointcut pointcut) {
+        return postProcessor(packages, logTrace, pointcut, null);
+    }
+
+    private static PackageLogTraceProxyPostProcessor postProcessor(List<String> packages, LogTrace logTrace, TracePointcut pointcut,
+                                                                   ReactiveLogTrace reactiveLogTrace) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("logTrace", logTrace);
+        beanFactory.registerSingleton("tracePointcut", pointcut);
+        if (reactiveLogTrace != null) {
+            beanFactory.registerSingleton("reactiveLogTrace", reactiveLogTrace);
+        }
+        return new PackageLogTraceProxyPostProcessor(packages,
+                beanFactory.getBeanProvider(LogTrace.class), beanFactory.getBeanProvider(TracePointcut.class),
+                beanFactory.getBeanProvider(ReactiveLogTrace.class));
+    }
+
+    // 호출 지점마다 받는 타입이 하나가 되도록 측정 메서드를 나눈다
+    private static long measureDirect(CountingRepository repository, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            repository.saveAll("itemA", 1);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long measureInterfaceProxy(OrderRepositoryInterfaceProxy repository, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            repository.saveAll("itemA", 1);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long measureClassProxy(CountingRepository repository, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            repository.saveAll("itemA", 1);
+        }
+        return System.nanoTime() - start;
+    }
+
+    public static class CountingRepository implements OrderRepositoryV1 {
+        volatile long count;
+
+        @Override
+        public void save(String itemId) {
+            count++;
+        }
+
+        @Override
+        public void saveAll(String itemId, int quantity) {
+            count += quantity;
+        }
+    }
+
+    static class RecordingLogTrace extends ThreadLocalLogTrace {
+        final List<String> messages = new ArrayList<>();
+        int exceptions;
+
+        @Override
+        public TraceStatus begin(String message) {
+            messages.add(message);
+            return super.begin(message);
+        }
+
+        @Override
+        public void exception(TraceStatus status, Exception e) {
+            exceptions++;
+            super.exception(status, e);
+        }
+    }
+
+    // TraceId/TraceStatus는 만들지만 로그는 남기지 않는 LogTrace (프록시 자체 비용 측정용)
+    static class SilentLogTrace extends ThreadLocalLogTrace {
+        private static final ch.qos.logback.classic.Logger LOGGER =
+                (ch.qos.logback.classic.Logger) org.slf4j.LoggerFactory.getLogger(ThreadLocalLogTrace.class);
+
+        SilentLogTrace() {
+            LOGGER.setLevel(ch.qos.logback.classic.Level.WARN);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.choongang.proxy.pureproxy.decorator.pipeline;
+
+import com.choongang.proxy.pureproxy.decorator.pipeline.DecoratorPipeline.Stage;
+import com.choongang.proxy.pureproxy.decorator.code.Component;
+import com.choongang.proxy.pureproxy.decorator.code.MessageDecorator;
+import com.choongang.proxy.pureproxy.decorator.code.RealComponent;
+import com.choongang.proxy.pureproxy.decorator.code.TimeDecorator;
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.logtrace.NoLogTrace;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class DecoratorPipelineTest {
+
+    @Test
+    void sameResultAsNestedDecorators() {
+        Component real = new RealComponent();
+        Component nested = new TimeDecorator(new MessageDecorator(real));
+        List<Long> timings = new ArrayList<>();
+        DecoratorPipeline<Void, String> pipeline = DecoratorPipeline.<Void, String>builder(ignored -> real.operation())
+                .timing((context, nanos) -> timings.add(nanos))
+                .message((context, result) -> "*****" + result + "*****")
+                .build();
+
+        assertThat(pipeline.invoke(null)).isEqualTo(nested.operation()).isEqualTo("*****data*****");
+        assertThat(timings).hasSize(1);
+    }
+
+    @Test
+    void stagesExitInReverseOrder() {
+        List<String> events = new ArrayList<>();
+        DecoratorPipeline.Builder<String, String> builder = DecoratorPipeline.<String, String>builder(arg -> {
+                    events.add("target");
+                    return arg;
+                })
+                .timing((context, nanos) -> events.add("timing"))
+                .trace(new RecordingLogTrace(events), "call")
+                .message((context, result) -> {
+                    events.add("message");
+                    return result.toUpperCase();
+                });
+
+        assertThat(builder.build().invoke("a")).isEqualTo("A");
+        assertThat(events).containsExactly("begin", "target", "message", "end", "timing");
+
+        // 시작 시점에 순서를 바꾸거나 단계를 뺄 수 있다
+        events.clear();
+        DecoratorPipeline<String, String> reordered = builder.order(List.of(Stage.MESSAGE, Stage.TRACE)).build();
+        assertThat(reordered.stages()).containsExactly(Stage.MESSAGE, Stage.TRACE);
+        assertThat(reordered.invoke("b")).isEqualTo("B");
+        assertThat(events).containsExactly("begin", "target", "end", "message");
+
+        events.clear();
+        assertThat(builder.without(Stage.MESSAGE).build().invoke("c")).isEqualTo("c");
+        assertThat(events).containsExactly("begin", "target", "end");
+    }
+
+    @Test
+    void orderRejectsUnconfiguredOrDuplicatedStage() {
+        DecoratorPipeline.Builder<String, String> builder = DecoratorPipeline.<String, String>builder(arg -> arg)
+                .timing((context, nanos) -> {
+                });
+
+        assertThatThrownBy(() -> builder.order(List.of(Stage.CACHE))).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> builder.order(List.of(Stage.TIMING, Stage.TIMING))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cacheHitSkipsInnerStagesAndTarget() {
+        AtomicInteger targetCalls = new AtomicInteger();
+        List<String> events = new ArrayList<>();
+        List<Boolean> fromCache = new ArrayList<>();
+        DecoratorPipeline<String, String> pipeline = DecoratorPipeline.<String, String>builder(arg -> {
+                    targetCalls.incrementAndGet();
+                    return "order-" + arg;
+                })
+                .timing((context, nanos) -> fromCache.add(context.fromCache()))
+                .cache(2)
+                .trace(new RecordingLogTrace(events), "order")
+                .build();
+
+        assertThat(pipeline.invoke("1")).isEqualTo("order-1");
+        assertThat(pipeline.invoke("1")).isEqualTo("order-1");
+        assertThat(pipeline.invoke("2")).isEqualTo("order-2");
+        assertThat(pipeline.invoke("3")).isEqualTo("order-3"); // 가득 차서 저장하지 않음
+        assertThat(pipeline.invoke("3")).isEqualTo("order-3");
+
+        assertThat(targetCalls).hasValue(4);
+        assertThat(pipeline.cachedEntries()).isEqualTo(2);
+        assertThat(fromCache).containsExactly(false, true, false, false, false);
+        assertThat(events).containsExactly("begin", "end", "begin", "end", "begin", "end", "begin", "end");
+    }
+
+    @Test
+    void limitRejectsOverflowAndReleasesPermit() {
+        List<String> events = new ArrayList<>();
+        AtomicReference<DecoratorPipeline<Integer, Integer>> self = new AtomicReference<>();
+        // 대상 안에서 다시 호출해 한도(1)를 넘긴다
+        DecoratorPipeline<Integer, Integer> pipeline = DecoratorPipeline.<Integer, Integer>builder(depth ->
+                        depth == 0 ? self.get().invoke(1) : depth)
+                .trace(new RecordingLogTrace(events), "limited")
+                .limit(1)
+                .build();
+        self.set(pipeline);
+
+        assertThatThrownBy(() -> pipeline.invoke(0)).isInstanceOf(RejectedExecutionException.class);
+        assertThat(events).containsExactly("begin", "begin", "exception", "exception");
+
+        // 퍼밋이 돌아왔으므로 다음 호출은 통과
+        assertThat(pipeline.invoke(5)).isEqualTo(5);
+    }
+
+    @Test
+    void failureSkipsMessageButStillTimesAndTraces() {
+        List<String> events = new ArrayList<>();
+        List<RuntimeException> timedErrors = new ArrayList<>();
+        DecoratorPipeline<String, String> pipeline = DecoratorPipeline.<String, String>builder(arg -> {
+                    throw new IllegalStateException("예외 발생!");
+                })
+                .timing((context, nanos) -> timedErrors.add(context.error()))
+                .trace(new RecordingLogTrace(events), "fail")
+                .message((context, result) -> {
+                    events.add("message");
+                    return result;
+                })
+                .build();
+
+        assertThatThrownBy(() -> pipeline.invoke("ex")).isInstanceOf(IllegalStateException.class);
+        assertThat(events).containsExactly("begin", "exception");
+        assertThat(timedErrors).singleElement().isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void errorReleasesPermitAndClosesSpanBeforePropagating() {
+        List<String> events = new ArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+        DecoratorPipeline<String, String> pipeline = DecoratorPipeline.<String, String>builder(arg -> {
+                    if (calls.incrementAndGet() == 1) {
+                        throw new StackOverflowError("Error 발생!");
+                    }
+                    return arg;
+                })
+                .trace(new RecordingLogTrace(events), "error")
+                .limit(1)
+                .build();
+
+        assertThatThrownBy(() -> pipeline.invoke("a")).isInstanceOf(StackOverflowError.class).hasMessage("Error 발생!");
+        assertThat(events).containsExactly("begin", "exception"); // span은 닫히고
+        assertThat(pipeline.invoke("b")).isEqualTo("b"); // 퍼밋도 돌아왔다
+    }
+
+    /**
+     * 5겹 중첩 데코레이터와 5단계 파이프라인, 그리고 한 겹 데코레이터의 호출 비용 비교 (gradle benchmark)
+     * 실제 애플리케이션처럼 같은 데코레이터 클래스가 순서가 다른 여러 체인에 쓰이도록 네 가지 순서를 번갈아 호출한다.
+     * (JMH는 빌드에 없으므로 다른 벤치마크와 같이 라운드별 ns/op를 로그로 남긴다)
+     */
+    @Tag("benchmark")
+    @Test
+    void fusedPipelineVersusNestedChain() {
+        int iterations = 20_000_000;
+        String[] keys = {"itemA", "itemB", "itemC", "itemD"};
+        List<List<Stage>> orders = List.of(
+                List.of(Stage.TIMING, Stage.MESSAGE, Stage.TRACE, Stage.LIMIT, Stage.CACHE),
+                List.of(Stage.MESSAGE, Stage.TRACE, Stage.LIMIT, Stage.TIMING, Stage.CACHE),
+                List.of(Stage.TRACE, Stage.LIMIT, Stage.TIMING, Stage.MESSAGE, Stage.CACHE),
+                List.of(Stage.LIMIT, Stage.TIMING, Stage.MESSAGE, Stage.TRACE, Stage.CACHE));
+        LogTrace logTrace = new NoLogTrace();
+        Layer[] nested = new Layer[orders.size()];
+        Layer[] single = new Layer[orders.size()];
+        @SuppressWarnings("unchecked")
+        DecoratorPipeline<String, String>[] fused = new DecoratorPipeline[orders.size()];
+        long[] elapsed = new long[1];
+        for (int c = 0; c < orders.size(); c++) {
+            int id = c;
+            Layer target = arg -> id >= 0 ? arg : null; // 대상 자체 비용은 빼고 체인마다 다른 인스턴스
+            Layer chain = target;
+            List<Stage> order = orders.get(c);
+            for (int i = order.size() - 1; i >= 0; i--) {
+                chain = switch (order.get(i)) {
+                    case TIMING -> new TimingLayer(chain, elapsed);
+                    case MESSAGE -> new MessageLayer(chain);
+                    case TRACE -> new TraceLayer(chain, logTrace);
+                    case CACHE -> new CacheLayer(chain);
+                    case LIMIT -> new LimitLayer(chain);
+                };
+            }
+            nested[c] = chain;
+            single[c] = new TimingLayer(target, elapsed);
+            fused[c] = DecoratorPipeline.<String, String>builder(target::call)
+                    .timing((context, nanos) -> elapsed[0] += nanos)
+                    .message((context, result) -> result)
+                    .trace(logTrace, "benchmark")
+                    .limit(Integer.MAX_VALUE)
+                    .cache(keys.length)
+                    .order(order)
+                    .build();
+        }
+
+        for (int round = 0; round < 5; round++) { // 앞 라운드는 JIT 워밍업
+            long singleNs = measureSingle(single, keys, iterations);
+            long nestedNs = measureNested(nested, keys, iterations);
+            long fusedNs = measureFused(fused, keys, iterations);
+            log.info("round={} single-hop={}ns/op nested-5={}ns/op fused-5={}ns/op", round,
+                    String.format("%.2f", (double) singleNs / iterations),
+                    String.format("%.2f", (double) nestedNs / iterations),
+                    String.format("%.2f", (double) fusedNs / iterations));
+        }
+        assertThat(elapsed[0]).isPositive();
+    }
+
+    // 호출 지점마다 받는 타입이 섞이지 않도록 측정 메서드를 나눈다
+    private static long measureSingle(Layer[] layers, String[] keys, int iterations) {
+        long start = System.nanoTime();
+        int length = 0;
+        for (int i = 0; i < iterations; i++) {
+            length += layers[i & 3].call(keys[i & 3]).length();
+        }
+        sink = length;
+        return System.nanoTime() - start;
+    }
+
+    private static long measureNested(Layer[] layers, String[] keys, int iterations) {
+        long start = System.nanoTime();
+        int length = 0;
+        for (int i = 0; i < iterations; i++) {
+            length += layers[i & 3].call(keys[i & 3]).length();
+        }
+        sink = length;
+        return System.nanoTime() - start;
+    }
+
+    private static long measureFused(DecoratorPipeline<String, String>[] pipelines, String[] keys, int iterations) {
+        long start = System.nanoTime();
+        int length = 0;
+        for (int i = 0; i < iterations; i++) {
+            length += pipelines[i & 3].invoke(keys[i & 3]).length();
+        }
+        sink = length;
+        return System.nanoTime() - start;
+    }
+
+    private static volatile int sink;
+
+    // 벤치마크용 중첩 데코레이터: 파이프라인 단계와 같은 일을 한 겹씩 감싸서 한다
+    interface Layer {
+        String call(String arg);
+    }
+
+    record TimingLayer(Layer inner, long[] elapsed) implements Layer {
+        public String call(String arg) {
+            long start = System.nanoTime();
+            try {
+                return inner.call(arg);
+            } finally {
+                elapsed[0] += System.nanoTime() - start;
+            }
+        }
+    }
+
+    record MessageLayer(Layer inner) implements Layer {
+        public String call(String arg) {
+            return inner.call(arg);
+        }
+    }
+
+    record TraceLayer(Layer inner, LogTrace logTrace) implements Layer {
+        public String call(String arg) {
+            TraceStatus status = logTrace.begin("benchmark");
+            try {
+                String result = inner.call(arg);
+                logTrace.end(status);
+                return result;
+            } catch (RuntimeException e) {
+                logTrace.exception(status, e);
+                throw e;
+            }
+        }
+    }
+
+    record CacheLayer(Layer inner, ConcurrentHashMap<String, String> cache) implements Layer {
+        CacheLayer(Layer inner) {
+            this(inner, new ConcurrentHashMap<>());
+        }
+
+        public String call(String arg) {
+            String cached = cache.get(arg);
+            if (cached != null) {
+                return cached;
+            }
+            String result = inner.call(arg);
+            cache.putIfAbsent(arg, result);
+            return result;
+        }
+    }
+
+    record LimitLayer(Layer inner, Semaphore permits) implements Layer {
+        LimitLayer(Layer inner) {
+            this(inner, new Semaphore(Integer.MAX_VALUE));
+        }
+
+        public String call(String arg) {
+            if (!permits.tryAcquire()) {
+                throw new RejectedExecutionException();
+            }
+            try {
+                return inner.call(arg);
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private static final class RecordingLogTrace implements LogTrace {
+
+        private final List<String> events;
+
+        private RecordingLogTrace(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public TraceStatus begin(String message) {
+            events.add("begin");
+            return null;
+        }
+
+        @Override
+        public void end(TraceStatus status) {
+            events.add("end");
+        }
+
+        @Override
+        public void exception(TraceStatus status, Exception e) {
+            events.add("exception");
+        }
+
+        @Override
+        public TraceId currentTraceId() {
+            return null;
+        }
+
+        @Override
+        public void attach(TraceId traceId) {
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.choongang.proxy.pureproxy.decorator.pipeline;
+
+import com.choongang.proxy.trace.TraceStatus;
+
+/**
+ * 파이프라인 호출 한 번의 공유 상태.
+ *
+ * 데코레이터를 한 겹씩 감싸면 시작 시각, 추적 상태, 퍼밋 같은 값이 각 데코레이터의 스택 프레임에 흩어지지만,
+ * 파이프라인은 호출마다 이 객체 하나를 만들어 모든 단계가 같이 읽고 쓴다.
+ * 메시지 변환과 시간 측정 콜백도 이 객체를 받으므로 앞 단계가 남긴 값을 참고할 수 있다.
+ */
+public final class InvocationContext<A, R> {
+
+    private final A argument;
+    long startNanos; // TIMING 단계가 기록
+    TraceStatus traceStatus; // TRACE 단계가 기록
+    boolean permitAcquired; // LIMIT 단계가 퍼밋을 얻었는지
+    boolean fromCache; // CACHE 단계에서 결과를 찾아 대상 호출을 건너뛰었는지
+    R result;
+    RuntimeException error; // 대상이나 안쪽 단계에서 난 예외 (Error는 IllegalStateException으로 감싼 값)
+
+    InvocationContext(A argument) {
+        this.argument = argument;
+    }
+
+    public A argument() {
+        return argument;
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    public TraceStatus traceStatus() {
+        return traceStatus;
+    }
+
+    public boolean fromCache() {
+        return fromCache;
+    }
+
+    public R result() {
+        return result;
+    }
+
+    public RuntimeException error() {
+        return error;
+    }
+}
@@ -0,0 +1,72 @@
+package com.choongang.proxy.shadow;
+
+import com.choongang.proxy.shadow.ShadowTrafficMirror.EndpointSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class ShadowTrafficMirrorTest {
+
+    @Test
+    void recordsLatencyAndErrorDiffs() {
+        try (ShadowTrafficMirror mirror = new ShadowTrafficMirror(1.0, 100, 2)) {
+            mirror.register("/v1/request", itemId -> {
+                if (itemId.startsWith("shadow-ex")) {
+                    throw new IllegalStateException("섀도 실패");
+                }
+            });
+            assertThat(mirror.sample("/v1/request")).isTrue();
+            assertThat(mirror.sample("/unknown")).isFalse(); // 섀도 호출이 없는 엔드포인트
+
+            mirror.mirror("/v1/request", "a", 2_000_000, false);          // 둘 다 성공
+            mirror.mirror("/v1/request", "shadow-ex", 3_000_000, false);  // 섀도만 실패
+            mirror.mirror("/v1/request", "b", 1_000_000, true);           // 원래만 실패
+            mirror.mirror("/v1/request", "shadow-ex2", 1_000_000, true);  // 둘 다 실패
+
+            await().atMost(5, TimeUnit.SECONDS).until(() -> snapshot(mirror).mirrored() == 4);
+            EndpointSnapshot snapshot = snapshot(mirror);
+            assertThat(snapshot.bothOk()).isEqualTo(1);
+            assertThat(snapshot.shadowErrorOnly()).isEqualTo(1);
+            assertThat(snapshot.primaryErrorOnly()).isEqualTo(1);
+            assertThat(snapshot.bothError()).isEqualTo(1);
+            assertThat(snapshot.primary().maxMs()).isBetween(2.9, 3.1);
+            assertThat(snapshot.dropped()).isZero();
+        }
+    }
+
+    @Test
+    void dropsWhenQueueIsFullWithoutBlocking() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        try (ShadowTrafficMirror mirror = new ShadowTrafficMirror(1.0, 2, 1)) {
+            mirror.register("/v1/request", itemId -> release.await());
+
+            long start = System.nanoTime();
+            for (int i = 0; i < 10; i++) { // 스레드 1개가 하나를 잡고, 대기열에 2개, 나머지는 버림
+                mirror.mirror("/v1/request", "item" + i, 1_000, false);
+                Thread.sleep(i == 0 ? 100 : 0); // 첫 요청은 작업 스레드가 꺼내 가도록
+            }
+            assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+            assertThat(snapshot(mirror).dropped()).isEqualTo(7);
+
+            release.countDown();
+            await().atMost(5, TimeUnit.SECONDS).until(() -> snapshot(mirror).mirrored() == 3);
+        }
+    }
+
+    @Test
+    void disabledBySampleRate() {
+        try (ShadowTrafficMirror mirror = new ShadowTrafficMirror(0, 10, 1)) {
+            mirror.register("/v1/request", itemId -> {
+            });
+            assertThat(mirror.sample("/v1/request")).isFalse();
+        }
+    }
+
+    private static EndpointSnapshot snapshot(ShadowTrafficMirror mirror) {
+        return mirror.snapshot().get(0);
+    }
+}
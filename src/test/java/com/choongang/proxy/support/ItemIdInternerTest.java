@@ -0,0 +1,22 @@
+package com.choongang.proxy.support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemIdInternerTest {
+
+    @Test
+    void stopsRegisteringAtMaxSize() {
+        ItemIdInterner interner = new ItemIdInterner(3);
+
+        assertThat(interner.intern("a")).isZero();
+        assertThat(interner.intern("b")).isEqualTo(1);
+        assertThat(interner.intern("c")).isEqualTo(2);
+        assertThat(interner.intern("d")).isEqualTo(-1); // 가득 차면 등록하지 않는다
+        assertThat(interner.intern("b")).isEqualTo(1); // 이미 등록된 상품은 그대로
+        assertThat(interner.find("d")).isEqualTo(-1);
+        assertThat(interner.size()).isEqualTo(3);
+        assertThat(interner.name(2)).isEqualTo("c");
+    }
+}
@@ -0,0 +1,88 @@
+package com.choongang.proxy.tools;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceLogAnalyzerTest {
+
+    private static final String PREFIX = "2026-10-18T10:00:00.000Z  INFO 1234 --- [proxy] [nio-8080-exec-1] c.c.p.t.logtrace.ThreadLocalLogTrace     : ";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void analyze() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String id = String.format("%08x", 0xa0000000L + i);
+            boolean fail = i % 10 == 0;
+            lines.add("[" + id + "] OrderController.request()");
+            lines.add("[" + id + "] |-->OrderService.orderItem()");
+            lines.add("[" + id + "] |   |-->OrderRepository.save()");
+            lines.add("2026-10-18T10:00:00.000Z DEBUG 1234 --- [proxy] [main] other.Logger : 추적 로그가 아닌 줄");
+            if (fail) {
+                lines.add("[" + id + "] |   |<X-OrderRepository.save() time=5ms ex=java.lang.IllegalStateException: 예외 발생!");
+                lines.add("[" + id + "] |<X-OrderService.orderItem() time=6ms ex=java.lang.IllegalStateException: 예외 발생!");
+                lines.add("[" + id + "] OrderController.request() time=7ms ex=java.lang.IllegalStateException: 예외 발생!");
+            } else {
+                lines.add("[" + id + "] |   |<--OrderRepository.save() time=1000ms");
+                lines.add("[" + id + "] |<--OrderService.orderItem() time=1010ms");
+                lines.add("[" + id + "] OrderController.request() time=" + (1012 + i) + "ms");
+            }
+        }
+        Path log = dir.resolve("app.log");
+        Files.write(log, lines.stream().map(line -> line.startsWith("[") ? PREFIX + line : line).toList());
+
+        TraceLogAnalyzer.Report report = new TraceLogAnalyzer(4, 1024 * 1024, 3).analyze(List.of(log));
+
+        assertThat(report.traceLines()).isEqualTo(600);
+        TraceLogChunk.MessageStats save = report.message("OrderRepository.save()");
+        assertThat(save.latency.getCount()).isEqualTo(100);
+        assertThat(save.errors).isEqualTo(10);
+        assertThat(save.latency.percentile(50)).isBetween(990L, 1010L);
+        assertThat(report.message("OrderService.orderItem()").selfTimeMs).isEqualTo(90 * 10 + 10);
+        // --overhead-ns: 호출 100번 x 50us = 5ms를 자기 시간에서 뺀다
+        assertThat(report.message("OrderService.orderItem()").adjustedSelfTimeMs(50_000)).isEqualTo(90 * 10 + 10 - 5);
+        assertThat(report.message("OrderService.orderItem()").adjustedSelfTimeMs(1e9)).isZero();
+        assertThat(report.message("OrderController.request()").selfTimeMs).isEqualTo(90 * 2 + 10 + (0 + 99) * 100 / 2 - 5 * 10 * 9);
+        assertThat(report.slowest()).extracting(TraceLogChunk.SlowTrace::id).containsExactly("a0000063", "a0000062", "a0000061");
+
+        // 작은 청크로 나누어 경계에 걸친 단계가 많아도 결과가 같다
+        TraceLogAnalyzer.Report chunked = new TraceLogAnalyzer(4, 300, 3).analyze(List.of(log));
+        for (TraceLogChunk.MessageStats stats : report.messages()) {
+            TraceLogChunk.MessageStats other = chunked.message(stats.message);
+            assertThat(other.selfTimeMs).as(stats.message).isEqualTo(stats.selfTimeMs);
+            assertThat(other.latency.getCount()).isEqualTo(stats.latency.getCount());
+        }
+        assertThat(chunked.slowest()).isEqualTo(report.slowest());
+    }
+
+    @Test
+    void interleavedSiblingsAtSameLevel() {
+        // 배치 요청: 같은 트랜잭션의 같은 레벨 단계 두 개가 서로 다른 스레드에서 겹쳐 실행된다
+        List<String> lines = List.of(
+                "[b0000001] OrderController.requestBatch()",
+                "[b0000001] |-->OrderService.orderItem()",
+                "[b0000001] |-->OrderService.orderItem()",
+                "[b0000001] |<--OrderService.orderItem() time=30ms",
+                "[b0000001] |<--OrderService.orderItem() time=50ms",
+                "[b0000001] OrderController.requestBatch() time=60ms");
+        TraceLogChunk chunk = new TraceLogChunk(1);
+        chunk.parse(ByteBuffer.wrap(String.join("\n", lines.stream().map(line -> PREFIX + line).toList())
+                .getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(chunk.boundaryFrames).isEmpty(); // 두 번째 형제도 이 청크에서 시작한 단계로 끝난다
+        assertThat(chunk.messages.get("OrderService.orderItem()").selfTimeMs).isEqualTo(30 + 50);
+        assertThat(chunk.messages.get("OrderController.requestBatch()").selfTimeMs).isZero(); // 60 - (30 + 50)
+    }
+}
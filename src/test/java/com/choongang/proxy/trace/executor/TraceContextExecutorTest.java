@@ -0,0 +1,67 @@
+package com.choongang.proxy.trace.executor;
+
+import com.choongang.proxy.trace.logtrace.NoLogTrace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceContextExecutorTest {
+
+    private final ExecutorService pool = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void recordsQueueWaitAndRunTimeSeparately() throws InterruptedException {
+        ExecutorMetrics slowMetrics = new ExecutorMetrics();
+        ExecutorMetrics queuedMetrics = new ExecutorMetrics();
+        TraceContextExecutor slow = new TraceContextExecutor("slow", pool, new NoLogTrace(), slowMetrics);
+        TraceContextExecutor queued = new TraceContextExecutor("queued", pool, new NoLogTrace(), queuedMetrics);
+        CountDownLatch done = new CountDownLatch(2);
+
+        slow.execute(() -> { // 바로 실행되지만 오래 걸리는 작업
+            sleep(100);
+            done.countDown();
+        });
+        queued.execute(done::countDown); // 스레드가 하나뿐이라 앞 작업이 끝날 때까지 기다리는 작업
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue(); // 지표는 작업이 끝난 뒤 기록된다
+
+        assertThat(slowMetrics.getTaskCount()).isEqualTo(1);
+        assertThat(slowMetrics.getMaxRunMicros()).isGreaterThanOrEqualTo(90_000);
+        assertThat(slowMetrics.getMaxQueueWaitMicros()).isLessThan(50_000);
+        assertThat(queuedMetrics.getTaskCount()).isEqualTo(1);
+        assertThat(queuedMetrics.getMaxQueueWaitMicros()).isGreaterThanOrEqualTo(50_000);
+        assertThat(queuedMetrics.getMaxRunMicros()).isLessThan(50_000);
+    }
+
+    @Test
+    void controllerPublishesMetricsByExecutorName() {
+        ExecutorMetrics metrics = new ExecutorMetrics();
+        metrics.record(2_000_000, 5_000_000);
+
+        Map<String, ExecutorMetrics> stats = new ExecutorMetricsController(Map.of("order-batch", metrics)).stats();
+
+        assertThat(stats.get("order-batch").getAvgQueueWaitMicros()).isEqualTo(2_000);
+        assertThat(stats.get("order-batch").getAvgRunMicros()).isEqualTo(5_000);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
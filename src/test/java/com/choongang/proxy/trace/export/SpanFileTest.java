@@ -0,0 +1,197 @@
+package com.choongang.proxy.trace.export;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class SpanFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writeAndRead() throws IOException {
+        MappedSpanFileWriter writer = new MappedSpanFileWriter(dir, "spans", 64 * 1024, 10);
+        TraceId root = new TraceId();
+        TraceId child = root.createNextId();
+        writer.export(child, "OrderService.orderItem()", 1_000_500L, 1_000_700L, false);
+        writer.export(root, "OrderController.request()", 1_000_000L, 1_001_000L, true);
+        writer.close();
+
+        List<ExportedSpan> spans = readAll();
+        assertThat(spans).containsExactly(
+                new ExportedSpan(root.getTraceIdHigh(), root.getTraceIdLow(), child.getSpanId(), root.getSpanId(), 1,
+                        "OrderService.orderItem()", 1_000_500L, 200L, false),
+                new ExportedSpan(root.getTraceIdHigh(), root.getTraceIdLow(), root.getSpanId(), 0L, 0,
+                        "OrderController.request()", 1_000_000L, 1000L, true));
+        assertThat(spans.get(0).id()).isEqualTo(root.getId());
+    }
+
+    @Test
+    void rotateAndKeepMaxFiles() throws IOException {
+        MappedSpanFileWriter writer = new MappedSpanFileWriter(dir, "spans", 4096, 3);
+        ExportingLogTrace trace = new ExportingLogTrace(new ThreadLocalLogTrace(), writer);
+        for (int i = 0; i < 1000; i++) {
+            runRequest(trace);
+        }
+        writer.close();
+
+        List<Path> files = SpanFileReader.listFiles(dir, "spans");
+        assertThat(files).hasSize(3); // 오래된 파일은 삭제
+        List<ExportedSpan> spans = readAll();
+        assertThat(spans).isNotEmpty().allSatisfy(span -> assertThat(span.level()).isBetween(0, 2));
+        // 각 파일은 독립적으로 읽을 수 있다 (사전/기준 시간이 파일마다 새로 시작)
+        assertThat(spans).extracting(ExportedSpan::message).contains("OrderRepository.save()");
+        // span 한 건: trace id가 반복되면 약 20바이트
+        long bytes = files.stream().mapToLong(this::size).sum();
+        assertThat(bytes / spans.size()).isLessThan(30);
+    }
+
+    @Test
+    void exporterFailureNeverFailsTracedCall() {
+        ThreadLocalLogTrace target = new ThreadLocalLogTrace();
+        ExportingLogTrace trace = new ExportingLogTrace(target, new SpanExporter() {
+            @Override
+            public void export(TraceId traceId, String message, long startTimeMs, long endTimeMs, boolean error) {
+                throw new UncheckedIOException(new IOException("디스크 가득 참"));
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        runRequest(trace); // 예외 없이 끝나고
+        TraceStatus status = trace.begin("OrderController.request()");
+        trace.exception(status, new IllegalStateException("예외 발생!"));
+
+        assertThat(trace.currentTraceId()).isNull(); // 스레드의 TraceId가 남지 않는다
+        assertThat(trace.getDroppedSpans()).isEqualTo(4);
+    }
+
+    @Test
+    void fileOpenFailureDropsSpansInsteadOfThrowing() throws IOException {
+        MappedSpanFileWriter writer = new MappedSpanFileWriter(dir, "spans", 4096, 3);
+        ExportingLogTrace trace = new ExportingLogTrace(new ThreadLocalLogTrace(), writer);
+        // 다음 파일을 열 디렉터리를 파일로 바꿔서 파일 열기를 실패시킨다
+        Path moved = Files.move(dir, dir.resolveSibling(dir.getFileName() + "-moved"));
+        Files.createFile(dir);
+        try {
+            for (int i = 0; i < 500; i++) {
+                runRequest(trace); // 파일이 가득 차서 새 파일을 열어야 하는 시점을 지난다
+            }
+        } finally {
+            Files.delete(dir);
+            Files.move(moved, dir);
+        }
+
+        assertThat(writer.getDroppedSpans()).isPositive(); // 열지 못한 동안의 span은 버리고
+        assertThat(trace.getDroppedSpans()).isZero(); // exporter 밖으로 예외가 나오지 않는다
+        assertThat(trace.currentTraceId()).isNull();
+        writer.close();
+    }
+
+    @Tag("benchmark")
+    @Test
+    void compareWithTextLog() throws IOException {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger traceLogger = context.getLogger(ThreadLocalLogTrace.class);
+        Path textFile = dir.resolve("trace.log");
+        FileAppender<ILoggingEvent> appender = textAppender(context, textFile);
+        traceLogger.detachAndStopAllAppenders();
+        traceLogger.addAppender(appender);
+        traceLogger.setAdditive(false);
+
+        int requests = 200_000;
+        LogTrace textTrace = new ThreadLocalLogTrace();
+        MappedSpanFileWriter writer = new MappedSpanFileWriter(dir.resolve("bin"), "spans", 64 * 1024 * 1024, 100);
+        LogTrace binaryTrace = new ExportingLogTrace(new ThreadLocalLogTrace(), writer);
+        for (int round = 0; round < 3; round++) { // 첫 라운드는 JIT 워밍업
+            traceLogger.setLevel(Level.INFO);
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                runRequest(textTrace);
+            }
+            long textNs = (System.nanoTime() - start) / requests;
+
+            traceLogger.setLevel(Level.WARN); // 바이너리만 기록
+            start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                runRequest(binaryTrace);
+            }
+            long binaryNs = (System.nanoTime() - start) / requests;
+            log.info("round={} text={}ns/request binary={}ns/request", round, textNs, binaryNs);
+        }
+        writer.close();
+        appender.stop();
+
+        long textBytes = Files.size(textFile);
+        long binaryBytes = SpanFileReader.listFiles(dir.resolve("bin"), "spans").stream().mapToLong(this::size).sum();
+        log.info("text={}KB binary={}KB ratio={}x", textBytes / 1024, binaryBytes / 1024, textBytes / Math.max(1, binaryBytes));
+        assertThat(textBytes / binaryBytes).isGreaterThanOrEqualTo(10);
+    }
+
+    // Spring Boot 기본 콘솔 패턴과 같은 형식의 텍스트 로그
+    private FileAppender<ILoggingEvent> textAppender(LoggerContext context, Path file) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p 12345 --- [proxy] [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(file.toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    // 컨트롤러 -> 서비스 -> 저장소 3단계 호출
+    private void runRequest(LogTrace trace) {
+        TraceStatus controller = trace.begin("OrderController.request()");
+        TraceStatus service = trace.begin("OrderService.orderItem()");
+        TraceStatus repository = trace.begin("OrderRepository.save()");
+        trace.end(repository);
+        trace.end(service);
+        trace.end(controller);
+    }
+
+    private List<ExportedSpan> readAll() throws IOException {
+        List<ExportedSpan> spans = new ArrayList<>();
+        for (Path file : SpanFileReader.listFiles(dir, "spans")) {
+            try (SpanFileReader reader = new SpanFileReader(file)) {
+                reader.forEachRemaining(spans::add);
+            }
+        }
+        return spans;
+    }
+
+    private long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.choongang.proxy.trace.logtrace;
+
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.export.ExportedSpan;
+import com.choongang.proxy.trace.export.SpanExporter;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReactiveLogTraceTest {
+
+    private final RecordingExporter exporter = new RecordingExporter();
+    private final ReactiveLogTrace trace = new ReactiveLogTrace(exporter);
+
+    @Test
+    void nestedStepsShareTraceIdAcrossThreads() {
+        Mono<TraceId> inner = trace.trace("inner", ReactiveLogTrace.currentTraceId()
+                .publishOn(Schedulers.parallel())); // 다른 스레드로 옮겨도 Context는 따라간다
+        Mono<List<TraceId>> outer = trace.trace("outer", ReactiveLogTrace.currentTraceId()
+                .flatMap(outerId -> inner.map(innerId -> List.of(outerId, innerId))));
+
+        List<TraceId> ids = outer.block();
+
+        assertThat(ids.get(0).getLevel()).isZero();
+        assertThat(ids.get(1).getLevel()).isEqualTo(1);
+        assertThat(ids.get(1).getId()).isEqualTo(ids.get(0).getId());
+        assertThat(ids.get(1).getParentSpanId()).isEqualTo(ids.get(0).getSpanId());
+        assertThat(exporter.spans).extracting(ExportedSpan::message).containsExactly("inner", "outer");
+
+        // 다음 구독은 새 트랜잭션
+        assertThat(trace.trace("next", ReactiveLogTrace.currentTraceId()).block().getId()).isNotEqualTo(ids.get(0).getId());
+    }
+
+    @Test
+    void timesFromSubscribeToTerminalSignal() throws InterruptedException {
+        Mono<Long> step = trace.trace("delay", Mono.delay(Duration.ofMillis(50)));
+        Thread.sleep(300); // 만든 뒤 구독까지의 시간은 포함하지 않음
+
+        step.block();
+
+        ExportedSpan span = exporter.spans.get(0);
+        assertThat(span.durationMs()).isBetween(40L, 250L);
+        assertThat(span.error()).isFalse();
+    }
+
+    @Test
+    void errorAndRemoteParent() {
+        TraceId remote = TraceId.fromRemote(0x1234L, 0x5678L, 0x9aL, 1, -1);
+        Mono<Void> failing = trace.trace("save", Mono.<Void>error(new IllegalStateException("예외 발생!")))
+                .contextWrite(context -> ReactiveLogTrace.withTraceId(context, remote));
+
+        assertThatThrownBy(failing::block).isInstanceOf(IllegalStateException.class);
+
+        ExportedSpan span = exporter.spans.get(0);
+        assertThat(span.error()).isTrue();
+        assertThat(span.level()).isZero(); // 호출한 쪽 레벨을 모르면 0부터
+        assertThat(span.traceIdHigh()).isEqualTo(0x1234L);
+        assertThat(span.parentSpanId()).isEqualTo(0x9aL);
+    }
+
+    private static final class RecordingExporter implements SpanExporter {
+
+        private final List<ExportedSpan> spans = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void export(TraceId traceId, String message, long startTimeMs, long endTimeMs, boolean error) {
+            spans.add(new ExportedSpan(traceId.getTraceIdHigh(), traceId.getTraceIdLow(), traceId.getSpanId(),
+                    traceId.getParentSpanId(), traceId.getLevel(), message, startTimeMs, endTimeMs - startTimeMs, error));
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
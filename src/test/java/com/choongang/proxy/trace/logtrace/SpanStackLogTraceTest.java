@@ -0,0 +1,218 @@
+package com.choongang.proxy.trace.logtrace;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.TraceStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class SpanStackLogTraceTest {
+
+    private final SpanStackLogTrace trace = new SpanStackLogTrace();
+
+    @Test
+    void nestedLevelsOnSpanStackThreadAndForeignThread() throws InterruptedException {
+        for (Thread thread : List.of(new SpanStackThreadFactory("span-stack-").newThread(this::assertNestedLevels),
+                new Thread(this::assertNestedLevels))) {
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            thread.setUncaughtExceptionHandler((t, e) -> failure.set(e));
+            thread.start();
+            thread.join();
+            assertThat(failure.get()).as(thread.getClass().getSimpleName()).isNull();
+        }
+    }
+
+    private void assertNestedLevels() {
+        TraceStatus outer = trace.begin("outer");
+        TraceStatus inner = trace.begin("inner");
+        assertThat(outer.getTraceId().getLevel()).isZero();
+        assertThat(inner.getTraceId().getLevel()).isEqualTo(1);
+        assertThat(inner.getTraceId().getId()).isEqualTo(outer.getTraceId().getId());
+        assertThat(trace.currentTraceId()).isSameAs(inner.getTraceId());
+
+        trace.exception(inner, new IllegalStateException("예외 발생!"));
+        assertThat(trace.currentTraceId().getLevel()).isZero();
+        trace.end(outer);
+        assertThat(trace.currentTraceId()).isNull();
+
+        // 다음 요청은 새 트랜잭션
+        TraceStatus next = trace.begin("next");
+        assertThat(next.getTraceId().getId()).isNotEqualTo(outer.getTraceId().getId());
+        trace.end(next);
+    }
+
+    @Test
+    void stackBelongsToThreadNotInstance() {
+        SpanStackLogTrace other = new SpanStackLogTrace();
+        TraceStatus outer = trace.begin("outer");
+        TraceStatus inner = other.begin("inner"); // 같은 스레드면 인스턴스가 달라도 이어진다 (ThreadLocalLogTrace 빈 하나를 같이 쓰는 것과 같은 결과)
+
+        assertThat(inner.getTraceId().getLevel()).isEqualTo(1);
+        other.end(inner);
+        trace.end(outer);
+        assertThat(trace.currentTraceId()).isNull();
+    }
+
+    @Test
+    void attachContinuesRemoteParent() {
+        TraceId remote = TraceId.fromRemote(0x1234L, 0x5678L, 0x9aL, 1, 2);
+        trace.attach(remote);
+
+        TraceStatus status = trace.begin("remote child");
+        assertThat(status.getTraceId().getLevel()).isEqualTo(3);
+        assertThat(status.getTraceId().getTraceIdHigh()).isEqualTo(0x1234L);
+        trace.end(status);
+        assertThat(trace.currentTraceId()).isSameAs(remote);
+
+        trace.attach(null);
+        assertThat(trace.currentTraceId()).isNull();
+    }
+
+    @Test
+    void concurrentThreadsKeepSeparateStacks() throws InterruptedException {
+        SpanStackThreadFactory factory = new SpanStackThreadFactory("span-stack-");
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Runnable task = () -> {
+                try {
+                    start.await();
+                    for (int n = 0; n < 500; n++) {
+                        TraceStatus outer = trace.begin("outer");
+                        TraceStatus inner = trace.begin("inner");
+                        if (inner.getTraceId().getLevel() != 1 || !inner.getTraceId().getId().equals(outer.getTraceId().getId())) {
+                            throw new AssertionError("다른 스레드의 단계와 섞임: " + inner.getTraceId().getId());
+                        }
+                        trace.end(inner);
+                        trace.end(outer);
+                        if (trace.currentTraceId() != null) {
+                            throw new AssertionError("끝난 뒤에도 TraceId가 남음");
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            };
+            threads.add(i % 2 == 0 ? factory.newThread(task) : new Thread(task)); // 빠른 경로와 ThreadLocal 경로를 섞는다
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(failures).isEmpty();
+    }
+
+    @Test
+    void holderCreatesMatchingLogTraceAndThreads() {
+        CustomizableThreadFactory spanStackFactory = TraceHolder.SPAN_STACK.createThreadFactory("order-backend-");
+        spanStackFactory.setDaemon(true);
+        Thread thread = spanStackFactory.newThread(() -> { });
+        assertThat(thread).isInstanceOf(SpanStackThread.class);
+        assertThat(thread.getName()).isEqualTo("order-backend-1");
+        assertThat(thread.isDaemon()).isTrue();
+        assertThat(TraceHolder.SPAN_STACK.createLogTrace()).isInstanceOf(SpanStackLogTrace.class);
+
+        assertThat(TraceHolder.THREAD_LOCAL.createThreadFactory("order-backend-").newThread(() -> { }))
+                .isNotInstanceOf(SpanStackThread.class);
+        assertThat(TraceHolder.THREAD_LOCAL.createLogTrace()).isInstanceOf(ThreadLocalLogTrace.class);
+        assertThatThrownBy(() -> TraceHolder.valueOf("FIELD")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * 스레드 1~128개가 begin/begin/end/end(두 단계 요청 하나)를 반복할 때 ThreadLocalLogTrace, FieldLogTrace, SpanStackLogTrace 비용 비교 (gradle benchmark)
+     * LogTrace 인스턴스 하나를 모든 스레드가 함께 쓴다 (애플리케이션의 logTrace 빈과 같음).
+     * FieldLogTrace는 스레드끼리 필드를 같이 쓰면 결과가 틀리므로 스레드마다 인스턴스를 따로 만든다 (조회 비용이 없는 하한).
+     * 텍스트 로그는 끄고 잰다 (FieldLogTrace는 로그 레벨 확인 없이 들여쓰기 문자열을 만든다).
+     */
+    @Tag("benchmark")
+    @Test
+    void spanStackVersusThreadLocalAndField() throws InterruptedException {
+        int operations = 2_000_000; // 스레드 수와 관계없이 전체 요청 수
+        List<Logger> loggers = List.of(logger(ThreadLocalLogTrace.class), logger(FieldLogTrace.class), logger(SpanStackLogTrace.class));
+        loggers.forEach(logger -> logger.setLevel(Level.WARN));
+        try {
+            ThreadLocalLogTrace threadLocal = new ThreadLocalLogTrace();
+            SpanStackLogTrace spanStack = new SpanStackLogTrace();
+            SpanStackThreadFactory spanStackThreads = new SpanStackThreadFactory("span-stack-benchmark-");
+            for (int round = 0; round < 2; round++) { // 첫 라운드는 JIT 워밍업
+                for (int threads = 1; threads <= 128; threads *= 2) {
+                    double threadLocalNs = measure(threads, operations, () -> threadLocal, Thread::new);
+                    double fieldNs = measure(threads, operations, FieldLogTrace::new, Thread::new);
+                    double spanStackNs = measure(threads, operations, () -> spanStack, spanStackThreads::newThread);
+                    double foreignNs = measure(threads, operations, () -> spanStack, Thread::new);
+                    log.warn("round={} threads={} thread-local={}ns/op field={}ns/op span-stack={}ns/op span-stack(foreign)={}ns/op",
+                            round, threads, String.format("%.1f", threadLocalNs), String.format("%.1f", fieldNs),
+                            String.format("%.1f", spanStackNs), String.format("%.1f", foreignNs));
+                }
+            }
+        } finally {
+            loggers.forEach(logger -> logger.setLevel(null));
+        }
+    }
+
+    private static Logger logger(Class<?> type) {
+        return (Logger) LoggerFactory.getLogger(type);
+    }
+
+    private interface ThreadCreator {
+        Thread create(Runnable task);
+    }
+
+    // 요청 하나(begin/begin/end/end)당 평균 ns (전체 경과 시간 / 전체 요청 수)
+    private static double measure(int threads, int operations, Supplier<LogTrace> logTraces, ThreadCreator threadCreator) throws InterruptedException {
+        int perThread = operations / threads;
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            LogTrace logTrace = logTraces.get();
+            workers.add(threadCreator.create(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long levels = 0;
+                for (int n = 0; n < perThread; n++) {
+                    TraceStatus outer = logTrace.begin("outer");
+                    TraceStatus inner = logTrace.begin("inner");
+                    levels += inner.getTraceId().getLevel();
+                    logTrace.end(inner);
+                    logTrace.end(outer);
+                }
+                sink = levels;
+            }));
+        }
+        workers.forEach(Thread::start);
+        ready.await();
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return (double) (System.nanoTime() - begin) / ((long) perThread * threads);
+    }
+
+    private static volatile long sink;
+}
@@ -0,0 +1,161 @@
+package com.choongang.proxy.trace.overhead;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.EncoderBase;
+import ch.qos.logback.core.read.ListAppender;
+import com.choongang.proxy.trace.export.MappedSpanFileWriter;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.logtrace.NoLogTrace;
+import com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace;
+import com.choongang.proxy.trace.logtrace.TraceHolder;
+import com.choongang.proxy.trace.overhead.OverheadCalibrator.Kind;
+import com.choongang.proxy.trace.overhead.OverheadCalibrator.OverheadReport;
+import com.choongang.proxy.trace.overhead.OverheadCalibrator.ProbeResult;
+import com.choongang.proxy.trace.overhead.OverheadController.OverheadStats;
+import com.choongang.proxy.trace.overhead.RequestCpuFilter.RequestCpu;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OverheadCalibratorTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void calibratesEveryActiveProbe() {
+        CalibrationLogFilter filter = CalibrationLogFilter.install();
+        filter.silence(Thread.currentThread());
+        try (MappedSpanFileWriter exporter = new MappedSpanFileWriter(dir, "calibration", 64 * 1024, 1)) {
+            OverheadReport report = new OverheadCalibrator(
+                    OverheadCalibrator.activeProbes(TraceHolder.THREAD_LOCAL, exporter, filter), 300, 3).calibrate();
+
+            assertThat(report.results()).extracting(ProbeResult::name).containsExactly(
+                    "ThreadLocalLogTrace", "ThreadLocalLogTrace(log output)", "+ExportingLogTrace", "+SpanCountingLogTrace", "ReactiveLogTrace",
+                    "OrderRepositoryInterfaceProxy", "PackageLogTraceProxyPostProcessor(CGLIB)");
+            assertThat(report.results()).allMatch(result -> result.nanosPerSpan() >= 0);
+            assertThat(report.logTraceNanosPerSpan()).isPositive();
+            double maxLogTrace = report.results().stream()
+                    .filter(result -> result.kind() == Kind.LOG_TRACE).mapToDouble(ProbeResult::nanosPerSpan).max().orElseThrow();
+            assertThat(report.logTraceNanosPerSpan()).isEqualTo(maxLogTrace);
+            assertThat(report.nanosPerSpan()).isEqualTo(
+                    report.logTraceNanosPerSpan() + report.logOutputNanosPerSpan() + report.proxyNanosPerSpan());
+            assertThat(exporter.getExportedSpans()).isPositive(); // 측정용 exporter로만 내보냄
+        } finally {
+            filter.uninstall();
+        }
+    }
+
+    @Test
+    void silencesOnlyCalibrationThread() throws InterruptedException {
+        Logger logger = (Logger) LoggerFactory.getLogger(ThreadLocalLogTrace.class);
+        ListAppender<ILoggingEvent> captured = new ListAppender<>();
+        captured.start();
+        logger.addAppender(captured);
+        CalibrationLogFilter filter = CalibrationLogFilter.install();
+        try {
+            filter.silence(Thread.currentThread());
+            assertThat(logger.isInfoEnabled()).isTrue(); // 레벨 확인은 그대로 (로그 인자 준비는 운영과 같이 실행)
+            logger.info("측정 스레드 {}", "버림");
+            Thread other = new Thread(() -> logger.info("다른 스레드 {}", "남김"));
+            other.start();
+            other.join();
+        } finally {
+            filter.uninstall();
+            logger.detachAppender(captured);
+        }
+        assertThat(captured.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly("다른 스레드 남김");
+    }
+
+    @Test
+    void encodesSilencedOutputWithConfiguredEncoder() {
+        Logger logger = (Logger) LoggerFactory.getLogger(ThreadLocalLogTrace.class);
+        AtomicInteger encoded = new AtomicInteger();
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(logger.getLoggerContext());
+        appender.setEncoder(new EncoderBase<>() {
+            @Override
+            public byte[] encode(ILoggingEvent event) {
+                encoded.incrementAndGet();
+                return event.getFormattedMessage().getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public byte[] headerBytes() {
+                return null;
+            }
+
+            @Override
+            public byte[] footerBytes() {
+                return null;
+            }
+        });
+        appender.setOutputStream(written);
+        appender.start();
+        logger.addAppender(appender);
+        CalibrationLogFilter filter = CalibrationLogFilter.install();
+        try {
+            filter.silence(Thread.currentThread());
+            logger.info("버림 {}", 1);
+            filter.encodeOutput(true);
+            logger.info("인코딩만 {}", 2);
+            logger.debug("레벨이 꺼진 로그 {}", 3); // 운영에서도 만들지 않는 이벤트는 인코딩하지 않는다
+            filter.encodeOutput(false);
+        } finally {
+            filter.uninstall();
+            logger.detachAppender(appender);
+            appender.stop();
+        }
+        assertThat(encoded).hasValue(1);
+        assertThat(written.size()).isZero(); // 인코딩한 결과는 쓰지 않는다
+    }
+
+    @Test
+    void requestCpuCountsSpansOnRequestThread() throws Exception {
+        RequestCpuFilter filter = new RequestCpuFilter(true);
+        LogTrace logTrace = new SpanCountingLogTrace(new NoLogTrace());
+
+        filter.doFilter(null, null, (request, response) -> {
+            for (int i = 0; i < 3; i++) {
+                logTrace.end(logTrace.begin("span"));
+            }
+            long sum = 0;
+            for (int i = 0; i < 1_000_000; i++) {
+                sum += i ^ (sum >>> 3);
+            }
+            assertThat(sum).isNotZero();
+        });
+        logTrace.begin("요청 밖의 span"); // 세지 않음
+
+        RequestCpu cpu = filter.snapshot();
+        assertThat(cpu.requests()).isEqualTo(1);
+        assertThat(cpu.spans()).isEqualTo(3);
+        assertThat(cpu.cpuNanos()).isPositive();
+    }
+
+    @Test
+    void overheadShareOfRequestCpu() {
+        OverheadReport report = new OverheadReport(0, 0, List.of(), 600, 300, 100);
+        OverheadStats stats = OverheadStats.of(report, new RequestCpu(2, 1_000_000, 100));
+
+        assertThat(stats.scope()).isEqualTo(OverheadStats.SCOPE);
+        assertThat(stats.nanosPerSpan()).isEqualTo(1000);
+        assertThat(stats.spansPerRequest()).isEqualTo(50);
+        assertThat(stats.overheadCpuMs()).isEqualTo(0.1);
+        assertThat(stats.overheadSharePercent()).isEqualTo(10);
+
+        // 측정 전에는 비율 0
+        assertThat(OverheadStats.of(null, new RequestCpu(2, 1_000_000, 100)).overheadSharePercent()).isZero();
+    }
+}
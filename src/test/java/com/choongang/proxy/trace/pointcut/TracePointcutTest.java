@@ -0,0 +1,126 @@
+package com.choongang.proxy.trace.pointcut;
+
+import com.choongang.proxy.app.v1.OrderControllerV1;
+import com.choongang.proxy.app.v1.OrderControllerV1Impl;
+import com.choongang.proxy.app.v1.OrderRepositoryV1;
+import com.choongang.proxy.app.v1.OrderRepositoryV1Impl;
+import com.choongang.proxy.config.v1_proxy.interface_proxy.OrderRepositoryInterfaceProxy;
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class TracePointcutTest {
+
+    @Test
+    void namePatterns() {
+        TracePointcut pointcut = new TracePointcut(List.of("com.choongang.proxy.app.v1.*"), List.of("*.saveAll"));
+
+        String save = pointcut.message(OrderRepositoryV1.class, OrderRepositoryV1Impl.class, "save", String.class);
+        assertThat(save).isEqualTo("OrderRepository.save()").isSameAs("OrderRepository.save()"); // intern
+        assertThat(pointcut.message(OrderRepositoryV1.class, OrderRepositoryV1Impl.class, "saveAll", String.class, int.class)).isNull();
+
+        // 실제 클래스 이름으로도 비교
+        TracePointcut byImpl = new TracePointcut(List.of("*V1Impl.save"), List.of());
+        assertThat(byImpl.message(OrderRepositoryV1.class, OrderRepositoryV1Impl.class, "save", String.class)).isNotNull();
+        assertThat(new TracePointcut(List.of(), List.of()).message(OrderRepositoryV1.class, OrderRepositoryV1Impl.class, "save", String.class)).isNull();
+    }
+
+    @Test
+    void annotationPatterns() {
+        TracePointcut pointcut = new TracePointcut(List.of("@annotation(org.springframework.web.bind.annotation.GetMapping)"), List.of());
+        assertThat(pointcut.message(OrderControllerV1.class, OrderControllerV1Impl.class, "request", String.class))
+                .isEqualTo("OrderController.request()");
+        assertThat(pointcut.message(OrderRepositoryV1.class, OrderRepositoryV1Impl.class, "save", String.class)).isNull();
+
+        assertThatThrownBy(() -> new TracePointcut(List.of("@annotation(java.lang.String)"), List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void excludedMethodSkipsLogTrace() {
+        List<String> messages = new ArrayList<>();
+        LogTrace recording = new ThreadLocalLogTrace() {
+            @Override
+            public TraceStatus begin(String message) {
+                messages.add(message);
+                return super.begin(message);
+            }
+        };
+        OrderRepositoryV1 target = new CountingRepository();
+        OrderRepositoryV1 proxy = new OrderRepositoryInterfaceProxy(target, recording, new TracePointcut(List.of("*"), List.of("*.save")));
+        proxy.save("itemA");
+        proxy.saveAll("itemA", 2);
+        assertThat(messages).containsExactly("OrderRepository.saveAll()");
+        assertThat(((CountingRepository) target).count).isEqualTo(3);
+    }
+
+    @Tag("benchmark")
+    @Test
+    void untracedMethodCost() {
+        int iterations = 50_000_000;
+        CountingRepository target = new CountingRepository();
+        OrderRepositoryInterfaceProxy untraced = new OrderRepositoryInterfaceProxy(target, new ThreadLocalLogTrace(), new TracePointcut(List.of(), List.of()));
+        OrderRepositoryInterfaceProxy traced = new OrderRepositoryInterfaceProxy(target, new SilentLogTrace(), TracePointcut.ALL);
+        for (int round = 0; round < 5; round++) { // 앞 라운드는 JIT 워밍업
+            long directNs = measureDirect(target, iterations);
+            long untracedNs = measureProxy(untraced, iterations);
+            long tracedNs = measureProxy(traced, iterations / 10);
+            log.info("round={} direct={}ns/op untraced={}ns/op traced={}ns/op", round,
+                    String.format("%.2f", (double) directNs / iterations),
+                    String.format("%.2f", (double) untracedNs / iterations),
+                    String.format("%.2f", (double) tracedNs / (iterations / 10)));
+        }
+        assertThat(target.count).isPositive();
+    }
+
+    // 호출 지점마다 받는 타입이 하나가 되도록 측정 메서드를 나눈다 (JIT 인라인 조건을 같게)
+    private static long measureDirect(CountingRepository repository, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            repository.saveAll("itemA", i & 1);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long measureProxy(OrderRepositoryInterfaceProxy repository, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            repository.saveAll("itemA", i & 1);
+        }
+        return System.nanoTime() - start;
+    }
+
+    static class CountingRepository implements OrderRepositoryV1 {
+        volatile long count; // 호출이 최적화로 사라지지 않도록 volatile
+
+        @Override
+        public void save(String itemId) {
+            count++;
+        }
+
+        @Override
+        public void saveAll(String itemId, int quantity) {
+            count += quantity;
+        }
+    }
+
+    // TraceId/TraceStatus는 만들지만 로그는 남기지 않는 LogTrace (추적 자체 비용 측정용)
+    static class SilentLogTrace extends ThreadLocalLogTrace {
+        private static final ch.qos.logback.classic.Logger LOGGER =
+                (ch.qos.logback.classic.Logger) org.slf4j.LoggerFactory.getLogger(ThreadLocalLogTrace.class);
+
+        SilentLogTrace() {
+            LOGGER.setLevel(ch.qos.logback.classic.Level.WARN);
+        }
+    }
+}
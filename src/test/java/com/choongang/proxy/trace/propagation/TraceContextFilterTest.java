@@ -0,0 +1,56 @@
+package com.choongang.proxy.trace.propagation;
+
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.logtrace.SpanStackLogTrace;
+import com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceContextFilterTest {
+
+    private static final String TRACEPARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    @Test
+    void sequentialTopLevelSpansKeepRemoteParent() throws Exception {
+        for (LogTrace logTrace : List.of(new ThreadLocalLogTrace(), new SpanStackLogTrace())) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/request");
+            request.addHeader(TraceparentCodec.TRACEPARENT, TRACEPARENT); // tracestate 없음: 원격 레벨 -1
+            List<TraceId> spans = new ArrayList<>();
+
+            new TraceContextFilter(logTrace).doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+                for (int i = 0; i < 2; i++) { // 한 요청 안의 첫 단계 두 개 (예: 컨트롤러 호출 뒤 다른 빈 호출)
+                    TraceStatus status = logTrace.begin("top-level " + i);
+                    spans.add(status.getTraceId());
+                    logTrace.end(status);
+                }
+            });
+
+            assertThat(spans).as(logTrace.getClass().getSimpleName()).allSatisfy(traceId -> {
+                assertThat(traceId.getLevel()).isZero();
+                assertThat(traceId.getId()).isEqualTo("4bf92f35"); // 두 번째 단계도 새 트랜잭션이 아니라 호출한 쪽 트랜잭션
+                assertThat(traceId.getParentSpanId()).isEqualTo(0x00f067aa0ba902b7L);
+            });
+            assertThat(logTrace.currentTraceId()).isNull(); // 필터가 끝나면 원래 상태로
+        }
+    }
+
+    @Test
+    void localTransactionIsStillClearedAfterFirstLevel() {
+        LogTrace logTrace = new ThreadLocalLogTrace();
+        TraceStatus first = logTrace.begin("first");
+        logTrace.end(first);
+        assertThat(logTrace.currentTraceId()).isNull();
+
+        TraceStatus second = logTrace.begin("second");
+        assertThat(second.getTraceId().getId()).isNotEqualTo(first.getTraceId().getId()); // 헤더가 없으면 요청마다 새 트랜잭션
+        logTrace.end(second);
+    }
+}
@@ -0,0 +1,148 @@
+package com.choongang.proxy.trace.propagation;
+
+import com.choongang.proxy.trace.TraceId;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class TraceparentCodecTest {
+
+    private static final String TRACEPARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    @Test
+    void parseAndFormat() {
+        TraceId remote = TraceparentCodec.parse(TRACEPARENT, "vendor=x,proxy=2");
+
+        assertThat(remote.getId()).isEqualTo("4bf92f35"); // 로그에는 trace id 앞 8자리
+        assertThat(remote.getSpanId()).isEqualTo(0x00f067aa0ba902b7L);
+        assertThat(remote.getLevel()).isEqualTo(2);
+        assertThat(TraceparentCodec.formatTraceparent(remote)).isEqualTo(TRACEPARENT);
+
+        // 하위 단계는 같은 trace id, 새 span id, 부모 span id = 호출한 쪽
+        TraceId child = remote.createNextId();
+        assertThat(child.getLevel()).isEqualTo(3);
+        assertThat(child.getParentSpanId()).isEqualTo(remote.getSpanId());
+        assertThat(TraceparentCodec.formatTraceparent(child)).startsWith(TRACEPARENT.substring(0, 36));
+        assertThat(TraceparentCodec.formatTracestate(child)).isEqualTo("proxy=3,vendor=x"); // 우리 항목을 갱신해 맨 앞에, 다른 항목은 유지
+        assertThat(child.createPreviousId()).isSameAs(remote);
+    }
+
+    @Test
+    void levelUnknownStartsAtFirstLevel() {
+        TraceId remote = TraceparentCodec.parse(TRACEPARENT, null);
+        assertThat(remote.createNextId().isFirstLevel()).isTrue();
+        assertThat(TraceparentCodec.parse(TRACEPARENT, "xproxy=5").getLevel()).isEqualTo(-1);
+    }
+
+    @Test
+    void vendorEntriesArePreservedInOrder() {
+        TraceId remote = TraceparentCodec.parse(TRACEPARENT, "rojo=00f067aa0ba902b7, proxy=1 ,\tcongo=t61rcWkgMzE,,");
+        assertThat(remote.getVendorState()).isEqualTo("rojo=00f067aa0ba902b7,congo=t61rcWkgMzE");
+        assertThat(TraceparentCodec.formatTracestate(remote.createNextId().createNextId()))
+                .isEqualTo("proxy=3,rojo=00f067aa0ba902b7,congo=t61rcWkgMzE");
+
+        assertThat(TraceparentCodec.parse(TRACEPARENT, "proxy=1").getVendorState()).isNull();
+        assertThat(TraceparentCodec.formatTracestate(new TraceId())).isEqualTo("proxy=0");
+
+        // 우리 항목을 앞에 붙여도 32개를 넘지 않도록 다른 항목은 앞에서부터 31개만 전달
+        String many = String.join(",", IntStream.range(0, 40).mapToObj(i -> "v" + i + "=x").toList());
+        String forwarded = TraceparentCodec.formatTracestate(TraceparentCodec.parse(TRACEPARENT, many).createNextId());
+        assertThat(forwarded.split(",")).hasSize(32).startsWith("proxy=0", "v0=x").endsWith("v30=x");
+    }
+
+    @Test
+    void remoteLevelIsClamped() {
+        assertThat(TraceparentCodec.parse(TRACEPARENT, "proxy=9999").getLevel()).isEqualTo(TraceparentCodec.MAX_REMOTE_LEVEL);
+        assertThat(TraceparentCodec.parse(TRACEPARENT, "proxy=99999999").getLevel()).isEqualTo(TraceparentCodec.MAX_REMOTE_LEVEL);
+        assertThat(TraceparentCodec.parse(TRACEPARENT, "proxy=7").getLevel()).isEqualTo(7);
+    }
+
+    @Test
+    void rejectInvalid() {
+        assertThat(TraceparentCodec.parse(null, null)).isNull();
+        assertThat(TraceparentCodec.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7", null)).isNull();
+        assertThat(TraceparentCodec.parse("00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01", null)).isNull();
+        assertThat(TraceparentCodec.parse("00-00000000000000000000000000000000-00f067aa0ba902b7-01", null)).isNull();
+        assertThat(TraceparentCodec.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000000-01", null)).isNull();
+        assertThat(TraceparentCodec.parse("ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01", null)).isNull();
+        assertThat(TraceparentCodec.parse(TRACEPARENT + "-extra", null)).isNull();
+        // 이후 버전은 뒤에 필드가 붙어도 앞부분을 읽는다
+        assertThat(TraceparentCodec.parse("01" + TRACEPARENT.substring(2) + "-extra", null)).isNotNull();
+    }
+
+    /**
+     * 서비스 간 호출 한 번에 드는 전달 비용을 단계별로 나눠 잰다 (gradle benchmark)
+     * - parse: 받은 traceparent/tracestate 해석 (TraceContextFilter), 그중 traceparent만 해석하는 비용은 parse(traceparent)
+     * - child: 이 서비스의 첫 단계 TraceId 생성 (ThreadLocalRandom span id)
+     * - traceparent/tracestate: 보낼 헤더 문자열 생성 (TraceparentClientInterceptor)
+     * - headers: HttpHeaders에 두 헤더 설정 (인터셉터가 문자열 생성 외에 하는 일)
+     */
+    @Tag("benchmark")
+    @Test
+    void propagationCost() {
+        int iterations = 2_000_000;
+        String tracestate = "proxy=1,rojo=00f067aa0ba902b7";
+        TraceId remote = TraceparentCodec.parse(TRACEPARENT, tracestate);
+        TraceId child = remote.createNextId();
+        String traceparent = TraceparentCodec.formatTraceparent(child);
+        String state = TraceparentCodec.formatTracestate(child);
+        long sink = 0;
+        for (int round = 0; round < 3; round++) { // 첫 라운드는 JIT 워밍업
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += TraceparentCodec.parse(TRACEPARENT, tracestate).getFlags();
+            }
+            long parseNs = (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += TraceparentCodec.parse(TRACEPARENT, null).getFlags();
+            }
+            long traceparentOnlyNs = (System.nanoTime() - start) / iterations; // parse 중 traceparent 해석만
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += remote.createNextId().getSpanId();
+            }
+            long childNs = (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += TraceparentCodec.formatTraceparent(child).length();
+            }
+            long traceparentNs = (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += TraceparentCodec.formatTracestate(child).length();
+            }
+            long tracestateNs = (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                HttpHeaders headers = new HttpHeaders();
+                headers.set(TraceparentCodec.TRACEPARENT, traceparent);
+                headers.set(TraceparentCodec.TRACESTATE, state);
+                sink += headers.size();
+            }
+            long headersNs = (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += UUID.randomUUID().toString().substring(0, 8).length(); // 기존 TraceId 생성 방식
+            }
+            long uuidNs = (System.nanoTime() - start) / iterations;
+            log.info("round={} parse={}ns (traceparent={}ns) child={}ns traceparent={}ns tracestate={}ns headers={}ns total={}ns uuid-id={}ns",
+                    round, parseNs, traceparentOnlyNs, childNs, traceparentNs, tracestateNs, headersNs,
+                    parseNs + childNs + traceparentNs + tracestateNs + headersNs, uuidNs);
+        }
+        assertThat(sink).isNotZero();
+    }
+}
@@ -0,0 +1,145 @@
+package com.choongang.proxy.warmup;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.choongang.proxy.trace.TraceId;
+import com.choongang.proxy.trace.TraceStatus;
+import com.choongang.proxy.trace.export.MappedSpanFileWriter;
+import com.choongang.proxy.trace.logtrace.LogTrace;
+import com.choongang.proxy.trace.logtrace.ThreadLocalLogTrace;
+import com.choongang.proxy.trace.logtrace.TraceHolder;
+import com.choongang.proxy.trace.overhead.SpanCountingLogTrace;
+import com.choongang.proxy.trace.pointcut.TracePointcut;
+import com.choongang.proxy.warmup.OrderPathWarmup.WarmupReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderPathWarmupTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void exercisesOrderPathWithoutLeavingTraceState() {
+        WarmupProperties properties = smallWarmup();
+        CountingLogTrace logTrace = new CountingLogTrace(new ThreadLocalLogTrace());
+
+        ThreadPoolExecutor batchPool = OrderPathWarmup.newPool(TraceHolder.THREAD_LOCAL, "warmup-batch-");
+        ThreadPoolExecutor backendPool = OrderPathWarmup.newPool(TraceHolder.THREAD_LOCAL, "warmup-backend-");
+        try (DiscardingLogSink ignored = DiscardingLogSink.open(ThreadLocalLogTrace.class)) {
+            WarmupReport report = properties.createWarmup()
+                    .run(OrderPathWarmup.createApi(logTrace, TracePointcut.ALL, batchPool, backendPool));
+
+            assertThat(report.rounds()).isGreaterThanOrEqualTo(1);
+            assertThat(report.calls()).isEqualTo((long) report.rounds() * properties.getRoundCalls());
+            assertThat(report.lastNanosPerCall()).isPositive();
+        } finally {
+            batchPool.shutdownNow();
+            backendPool.shutdownNow();
+        }
+
+        // 모든 begin()이 end() 또는 exception()으로 끝나고, 예외 경로도 실행됨
+        assertThat(logTrace.begins.get()).isEqualTo(logTrace.ends.get() + logTrace.exceptions.get());
+        assertThat(logTrace.exceptions.get()).isPositive();
+        assertThat(logTrace.currentTraceId()).isNull();
+    }
+
+    @Test
+    void discardsTraceLogOutput() {
+        Logger root = (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        Logger traceLogger = (Logger) LoggerFactory.getLogger(ThreadLocalLogTrace.class);
+        ListAppender<ILoggingEvent> captured = new ListAppender<>();
+        captured.start();
+        root.addAppender(captured);
+        try {
+            WarmupReport report = smallWarmup().createWarmup().run(TracePointcut.ALL, TraceHolder.THREAD_LOCAL, false, false);
+
+            assertThat(report.calls()).isPositive();
+            assertThat(captured.list).noneMatch(event -> event.getLoggerName().equals(ThreadLocalLogTrace.class.getName()));
+            assertThat(traceLogger.isAdditive()).isTrue(); // 워밍업 후 원래대로
+        } finally {
+            root.detachAppender(captured);
+        }
+    }
+
+    @Test
+    void wrapsLogTraceLikeLogTraceBean() throws IOException {
+        try (MappedSpanFileWriter exporter = new MappedSpanFileWriter(dir, "warmup", 64 * 1024, 1)) {
+            LogTrace logTrace = OrderPathWarmup.createLogTrace(TraceHolder.SPAN_STACK, exporter, true);
+            assertThat(logTrace).isInstanceOf(SpanCountingLogTrace.class);
+            logTrace.end(logTrace.begin("span"));
+            assertThat(exporter.getExportedSpans()).isEqualTo(1); // SpanCountingLogTrace -> ExportingLogTrace -> SpanStackLogTrace
+        }
+        assertThat(OrderPathWarmup.createLogTrace(TraceHolder.THREAD_LOCAL, null, false)).isInstanceOf(ThreadLocalLogTrace.class);
+    }
+
+    @Test
+    void exportingWarmupRemovesItsSpanFiles() throws IOException {
+        Path tmp = Path.of(System.getProperty("java.io.tmpdir"));
+        WarmupReport report = smallWarmup().createWarmup().run(TracePointcut.ALL, TraceHolder.THREAD_LOCAL, true, true);
+
+        assertThat(report.calls()).isPositive();
+        try (Stream<Path> left = Files.list(tmp)) {
+            assertThat(left).noneMatch(path -> path.getFileName().toString().startsWith("warmup-spans-"));
+        }
+    }
+
+    private static WarmupProperties smallWarmup() {
+        WarmupProperties properties = new WarmupProperties();
+        properties.setRoundCalls(200);
+        properties.setMaxDurationMs(2_000);
+        properties.setStableRounds(2);
+        return properties;
+    }
+
+    private static final class CountingLogTrace implements LogTrace {
+
+        private final LogTrace delegate;
+        private final AtomicLong begins = new AtomicLong();
+        private final AtomicLong ends = new AtomicLong();
+        private final AtomicLong exceptions = new AtomicLong();
+
+        private CountingLogTrace(LogTrace delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public TraceStatus begin(String message) {
+            begins.incrementAndGet();
+            return delegate.begin(message);
+        }
+
+        @Override
+        public void end(TraceStatus status) {
+            ends.incrementAndGet();
+            delegate.end(status);
+        }
+
+        @Override
+        public void exception(TraceStatus status, Exception e) {
+            exceptions.incrementAndGet();
+            delegate.exception(status, e);
+        }
+
+        @Override
+        public TraceId currentTraceId() {
+            return delegate.currentTraceId();
+        }
+
+        @Override
+        public void attach(TraceId traceId) {
+            delegate.attach(traceId);
+        }
+    }
+}